@@ -0,0 +1,165 @@
+package com.rps;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.stage.Stage;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Scroll benchmark of the room list on a synthetic lobby.
+ * <p>
+ * Fills a {@link RoomRegistry} with synthetic rooms, shows them in a {@link ListView} and
+ * scrolls a few rows on every pulse. Reports frames, frame-gap percentiles and bytes allocated
+ * by the FX thread per frame.
+ * <p>
+ * Usage: {@code mvn -Pbench compile exec:java -Dexec.args="--rooms 50000 --cell recycled --seconds 10"};
+ * {@code --cell legacy} renders with the previous cell (new Label and children reset per update)
+ * for comparison.
+ */
+public final class RoomListScrollBench extends Application {
+
+    private int rooms = 50_000;
+    private String cell = "recycled";
+    private int seconds = 10;
+    private int rowsPerFrame = 3;
+
+    @Override
+    public void start(Stage stage) {
+        List<String> args = getParameters().getRaw();
+        for (int i = 0; i + 1 < args.size(); i += 2) {
+            String value = args.get(i + 1);
+            switch (args.get(i)) {
+                case "--rooms" -> rooms = Integer.parseInt(value);
+                case "--cell" -> cell = value;
+                case "--seconds" -> seconds = Integer.parseInt(value);
+                case "--rows-per-frame" -> rowsPerFrame = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args.get(i));
+            }
+        }
+
+        RoomRegistry registry = new RoomRegistry();
+        registry.beginUpdate();
+        String[] statuses = {"OPEN", "FULL", "PLAYING", "PAUSED"};
+        for (int id = 1; id <= rooms; id++) {
+            String row = id + " room" + id + " " + (id % 3) + "/2 " + statuses[id % statuses.length];
+            registry.applyRow(row, 0, row.length());
+        }
+        registry.endUpdate();
+        ObservableList<GameRoom> items = FXCollections.observableArrayList();
+        for (int slot = 0; slot < registry.size(); slot++) {
+            items.add(registry.viewAt(slot));
+        }
+
+        ListView<GameRoom> listView = new ListView<>(items);
+        if ("legacy".equals(cell)) {
+            listView.setCellFactory(lv -> new LegacyCell());
+        } else {
+            listView.setFixedCellSize(RoomCell.HEIGHT);
+            listView.setCellFactory(lv -> new RoomCell(room -> { }));
+        }
+
+        stage.setScene(new Scene(listView, 400, 600));
+        stage.setTitle("Room list scroll benchmark");
+        stage.show();
+
+        new ScrollDriver(listView, items.size()).start();
+    }
+
+    /**
+     * Scrolls the list on every pulse and collects frame statistics.
+     */
+    private final class ScrollDriver extends AnimationTimer {
+        private static final int WARMUP_FRAMES = 60;
+
+        private final ListView<GameRoom> listView;
+        private final int itemCount;
+        private final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private final long[] gaps;
+        private int frames;
+        private int position;
+        private long lastFrame;
+        private long startedAt;
+        private long allocatedAtStart;
+
+        ScrollDriver(ListView<GameRoom> listView, int itemCount) {
+            this.listView = listView;
+            this.itemCount = itemCount;
+            this.gaps = new long[seconds * 240];
+        }
+
+        @Override
+        public void handle(long now) {
+            if (frames == WARMUP_FRAMES) {
+                startedAt = now;
+                allocatedAtStart = threads.getCurrentThreadAllocatedBytes();
+            } else if (frames > WARMUP_FRAMES) {
+                int measured = frames - WARMUP_FRAMES - 1;
+                if (measured < gaps.length) {
+                    gaps[measured] = now - lastFrame;
+                }
+                if (now - startedAt >= seconds * 1_000_000_000L || measured + 1 >= gaps.length) {
+                    stop();
+                    report(measured + 1, now - startedAt, threads.getCurrentThreadAllocatedBytes() - allocatedAtStart);
+                    Platform.exit();
+                    return;
+                }
+            }
+            lastFrame = now;
+            frames++;
+            position = (position + rowsPerFrame) % itemCount;
+            listView.scrollTo(position);
+        }
+
+        private void report(int measuredFrames, long elapsedNanos, long allocatedBytes) {
+            long[] sorted = Arrays.copyOf(gaps, measuredFrames);
+            Arrays.sort(sorted);
+            System.out.printf("cell=%s rooms=%d frames=%d fps=%.1f gap p50=%.2f ms p99=%.2f ms max=%.2f ms"
+                            + " alloc=%d B/frame%n",
+                    cell, itemCount, measuredFrames, measuredFrames / (elapsedNanos / 1e9),
+                    sorted[measuredFrames / 2] / 1e6, sorted[Math.min(measuredFrames - 1, measuredFrames * 99 / 100)] / 1e6,
+                    sorted[measuredFrames - 1] / 1e6, allocatedBytes / measuredFrames);
+        }
+    }
+
+    /**
+     * Cell as the room list rendered it before {@link RoomCell}: a new Label and a children
+     * reset on every update.
+     */
+    private static final class LegacyCell extends ListCell<GameRoom> {
+        private final Button joinButton = new Button("Join");
+        private final HBox hbox = new HBox(10);
+
+        @Override
+        protected void updateItem(GameRoom item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                setText(null);
+                setGraphic(null);
+            } else {
+                Label nameLabel = new Label(item.toString());
+                hbox.getChildren().setAll(nameLabel);
+                if (item.getStatus() == RoomStatus.OPEN) {
+                    hbox.getChildren().setAll(nameLabel, joinButton);
+                }
+                setGraphic(hbox);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
@@ -0,0 +1,117 @@
+package com.rps.network;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Round-start latency behind a room list burst, with and without {@link EventLane} priorities.
+ * <p>
+ * A single-threaded executor stands in for the JavaFX thread: it runs the bus dispatcher and a
+ * render task every 16 ms. The I/O side publishes an R_LIST of {@code --sizes} rows whose
+ * listener takes {@code --row-micros} each, immediately followed by R_ST. Reported is the time
+ * from parsing R_ST to its listener running, and the time until the last row was shown. The
+ * "fifo" mode puts room list commands into the game lane, which is how every event was queued
+ * before lanes existed.
+ * <p>
+ * Usage: {@code mvn -Pbench compile exec:java -Dexec.mainClass=com.rps.network.EventLaneBench
+ * -Dexec.args="--sizes 100,2000,20000 --row-micros 20 --render-millis 3 --rounds 3"}.
+ */
+public final class EventLaneBench {
+
+    private EventLaneBench() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] sizes = {100, 2_000, 20_000};
+        long rowMicros = 20;
+        long renderMillis = 3;
+        int rounds = 3;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sizes" -> {
+                    String[] values = args[i + 1].split(",");
+                    sizes = new int[values.length];
+                    for (int j = 0; j < values.length; j++) {
+                        sizes[j] = Integer.parseInt(values[j].trim());
+                    }
+                }
+                case "--row-micros" -> rowMicros = Long.parseLong(args[i + 1]);
+                case "--render-millis" -> renderMillis = Long.parseLong(args[i + 1]);
+                case "--rounds" -> rounds = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        ExecutorService fx = Executors.newSingleThreadExecutor(daemon("fx-standin"));
+        ScheduledExecutorService pulse = Executors.newSingleThreadScheduledExecutor(daemon("pulse"));
+        long renderNanos = TimeUnit.MILLISECONDS.toNanos(renderMillis);
+        pulse.scheduleAtFixedRate(() -> fx.execute(() -> spin(renderNanos)), 16, 16, TimeUnit.MILLISECONDS);
+        try {
+            for (int round = 1; round <= rounds; round++) {
+                for (int size : sizes) {
+                    run("fifo", round, size, rowMicros, fx, false);
+                    run("lanes", round, size, rowMicros, fx, true);
+                }
+            }
+        } finally {
+            pulse.shutdownNow();
+            fx.shutdownNow();
+        }
+    }
+
+    private static void run(String mode, int round, int size, long rowMicros, ExecutorService fx, boolean lanes)
+            throws InterruptedException {
+        EventBus bus = new EventBus(fx);
+        if (!lanes) {
+            bus.setLane("R_LIST", EventLane.GAME);
+            bus.setLane("ROOM", EventLane.GAME);
+        }
+        long rowNanos = TimeUnit.MICROSECONDS.toNanos(rowMicros);
+        AtomicInteger rowsShown = new AtomicInteger();
+        AtomicLong lastRowAt = new AtomicLong();
+        AtomicLong roundStartLatency = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(2);
+        bus.subscribe("R_LIST", event -> { });
+        bus.subscribe("ROOM", event -> {
+            spin(rowNanos);
+            if (rowsShown.incrementAndGet() == size) {
+                lastRowAt.set(System.nanoTime());
+                done.countDown();
+            }
+        });
+        bus.subscribe("R_ST", event -> {
+            roundStartLatency.set(System.nanoTime() - event.getReceivedAtNanos());
+            done.countDown();
+        });
+
+        long start = System.nanoTime();
+        bus.publish(new ServerEvent("R_LIST", new String[]{"R_LIST", Integer.toString(size)}, "R_LIST " + size));
+        for (int i = 1; i <= size; i++) {
+            String line = "ROOM " + i + " room" + i + " 1/2 OPEN";
+            bus.publish(new ServerEvent("ROOM", line.split(" "), line));
+        }
+        bus.publish(new ServerEvent("R_ST", new String[]{"R_ST", "1"}, "R_ST 1"));
+        done.await();
+        System.out.printf("round %d %-5s %6d rows: R_ST after %8.2f ms, list shown after %8.2f ms%n",
+                round, mode, size, roundStartLatency.get() / 1e6, (lastRowAt.get() - start) / 1e6);
+    }
+
+    private static void spin(long nanos) {
+        long until = System.nanoTime() + nanos;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
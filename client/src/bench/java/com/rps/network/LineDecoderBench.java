@@ -0,0 +1,136 @@
+package com.rps.network;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Inbound framing benchmark: {@link LineDecoder} against {@code BufferedReader.readLine}.
+ * <p>
+ * Replays a synthetic stream of typical server traffic (room rows, rounds, pings) from memory
+ * in reads of {@code --chunk} bytes and reports throughput and bytes allocated per line.
+ * <p>
+ * Usage: {@code mvn -Pbench compile exec:java -Dexec.mainClass=com.rps.network.LineDecoderBench
+ * -Dexec.args="--lines 200000 --rounds 10 --chunk 1460"}.
+ */
+public final class LineDecoderBench {
+
+    private static final String[] SAMPLES = {
+            "ROOM 17 lobby-of-the-week 1/2 OPEN",
+            "R_ST 3",
+            "R_RE 1 R S 2 1",
+            "PING",
+            "OPP_INF player42 READY",
+            "M_ACC R",
+            "ROOM 4 quick-player7 2/2 PLAYING"
+    };
+
+    private LineDecoderBench() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int lines = 200_000;
+        int rounds = 10;
+        int chunk = 1460;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--lines" -> lines = Integer.parseInt(args[i + 1]);
+                case "--rounds" -> rounds = Integer.parseInt(args[i + 1]);
+                case "--chunk" -> chunk = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            text.append(SAMPLES[i % SAMPLES.length]).append("\r\n");
+        }
+        byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+        System.out.printf("%d lines, %d bytes, %d-byte reads%n", lines, data.length, chunk);
+
+        for (int round = 1; round <= rounds; round++) {
+            report("BufferedReader", round, lines, data.length, measure(() -> readerPass(data)));
+            int size = chunk;
+            report("LineDecoder", round, lines, data.length, measure(() -> decoderPass(data, size)));
+        }
+    }
+
+    private static long readerPass(byte[] data) throws IOException {
+        long checksum = 0;
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8), 1024);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            checksum += line.length();
+        }
+        return checksum;
+    }
+
+    private static long decoderPass(byte[] data, int chunk) throws IOException {
+        long[] checksum = {0};
+        LineDecoder decoder = new LineDecoder();
+        ReadableByteChannel channel = new MemoryChannel(data, chunk);
+        LineDecoder.LineSink sink = line -> checksum[0] += line.toString().length();
+        while (decoder.readFrom(channel, sink) >= 0) {
+            // Lines are counted by the sink.
+        }
+        return checksum[0];
+    }
+
+    private static long[] measure(Pass pass) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long checksum = pass.run();
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        return new long[]{elapsed, allocated, checksum};
+    }
+
+    private static void report(String name, int round, int lines, int bytes, long[] result) {
+        double seconds = result[0] / 1e9;
+        System.out.printf("round %2d %-14s %8.1f MB/s %10.0f lines/s %6.1f B/line (checksum %d)%n",
+                round, name, bytes / seconds / 1e6, lines / seconds, (double) result[1] / lines, result[2]);
+    }
+
+    private interface Pass {
+        long run() throws IOException;
+    }
+
+    /** Channel serving a byte array in reads of at most {@code chunk} bytes, like a socket. */
+    private static final class MemoryChannel implements ReadableByteChannel {
+        private final byte[] data;
+        private final int chunk;
+        private int position;
+
+        private MemoryChannel(byte[] data, int chunk) {
+            this.data = data;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(ByteBuffer target) {
+            if (position == data.length) {
+                return -1;
+            }
+            int count = Math.min(Math.min(target.remaining(), chunk), data.length - position);
+            target.put(data, position, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
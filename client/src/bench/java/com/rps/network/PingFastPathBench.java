@@ -0,0 +1,159 @@
+package com.rps.network;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * PING to PONG time seen by the server while the UI thread is saturated.
+ * <p>
+ * A local socket plays the server and sends heartbeats every {@code --interval-millis}; the
+ * client runs {@link NetworkManager}, {@link ProtocolHandler} and an {@link EventBus} whose
+ * dispatcher is a single thread standing in for the JavaFX thread, kept at least
+ * {@code --backlog} tasks of {@code --task-millis} behind. Three paths are measured:
+ * <ul>
+ *     <li>{@code fx-queue}: heartbeats go through the bus in the game lane, i.e. wait for the UI
+ *     thread like before lanes existed.</li>
+ *     <li>{@code control-lane}: heartbeats go through parsing and the bus, listener on the
+ *     reader thread.</li>
+ *     <li>{@code fast-path}: canonical {@code PING} answered by the interceptor before
+ *     parsing.</li>
+ * </ul>
+ * The first two are forced by sending {@code "PING "}, which the interceptor does not match.
+ * {@code fx-queue} takes a twentieth of the samples (at least 50), as each waits for the backlog.
+ * Also reported are bytes allocated on the reader thread per heartbeat.
+ * <p>
+ * Usage: {@code mvn -Pbench compile exec:java -Dexec.mainClass=com.rps.network.PingFastPathBench
+ * -Dexec.args="--pings 2000 --interval-millis 2 --task-millis 20 --backlog 8"}.
+ */
+public final class PingFastPathBench {
+
+    private PingFastPathBench() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int pings = 2_000;
+        long intervalMillis = 2;
+        long taskMillis = 20;
+        int backlog = 8;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--pings" -> pings = Integer.parseInt(args[i + 1]);
+                case "--interval-millis" -> intervalMillis = Long.parseLong(args[i + 1]);
+                case "--task-millis" -> taskMillis = Long.parseLong(args[i + 1]);
+                case "--backlog" -> backlog = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        Logger root = Logger.getLogger("");
+        Level previousLevel = root.getLevel();
+        root.setLevel(Level.WARNING);
+        try {
+            // Every queued heartbeat waits for the whole backlog, so this mode takes fewer samples.
+            run("fx-queue", "PING ", EventLane.GAME, Math.max(pings / 20, 50), intervalMillis, taskMillis, backlog);
+            run("control-lane", "PING ", EventLane.CONTROL, pings, intervalMillis, taskMillis, backlog);
+            run("fast-path", "PING", EventLane.CONTROL, pings, intervalMillis, taskMillis, backlog);
+        } finally {
+            root.setLevel(previousLevel);
+        }
+    }
+
+    private static void run(String mode, String ping, EventLane pingLane, int pings, long intervalMillis,
+                            long taskMillis, int backlog) throws Exception {
+        ClientRuntime runtime = new ClientRuntime(1, 1);
+        ThreadPoolExecutor fx = (ThreadPoolExecutor) Executors.newFixedThreadPool(1, runnable -> {
+            Thread thread = new Thread(runnable, "fx-standin");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ExecutorService load = Executors.newSingleThreadExecutor();
+        try (ServerSocket server = new ServerSocket(0)) {
+            EventBus bus = new EventBus(fx);
+            bus.setLane("PING", pingLane);
+            NetworkManager network = new NetworkManager(runtime);
+            new ProtocolHandler(network, bus);
+            network.connectAsync("127.0.0.1", server.getLocalPort());
+            try (Socket socket = server.accept()) {
+                socket.setTcpNoDelay(true);
+                long taskNanos = TimeUnit.MILLISECONDS.toNanos(taskMillis);
+                load.execute(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        while (fx.getQueue().size() < backlog) {
+                            fx.execute(() -> spin(taskNanos));
+                        }
+                        spin(taskNanos / 4);
+                    }
+                });
+                Thread reader = findThread("network-reader");
+                com.sun.management.ThreadMXBean threads =
+                        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream out = socket.getOutputStream();
+                byte[] line = (ping + "\r\n").getBytes(StandardCharsets.US_ASCII);
+                int warmup = Math.min(pings / 4, 500);
+                long[] samples = new long[pings];
+                long allocatedBefore = 0;
+                for (int i = -warmup; i < pings; i++) {
+                    if (i == 0 && reader != null) {
+                        allocatedBefore = threads.getThreadAllocatedBytes(reader.getId());
+                    }
+                    long sentAt = System.nanoTime();
+                    out.write(line);
+                    out.flush();
+                    String reply = in.readLine();
+                    long took = System.nanoTime() - sentAt;
+                    if (!"PONG".equals(reply)) {
+                        throw new IllegalStateException("Expected PONG, got " + reply);
+                    }
+                    if (i >= 0) {
+                        samples[i] = took;
+                    }
+                    Thread.sleep(intervalMillis);
+                }
+                double allocatedPerPing = reader != null
+                        ? (threads.getThreadAllocatedBytes(reader.getId()) - allocatedBefore) / (double) pings
+                        : Double.NaN;
+                Arrays.sort(samples);
+                System.out.printf("%-12s p50 %9.3f ms  p99 %9.3f ms  max %9.3f ms  %7.1f B/ping on reader%n",
+                        mode, samples[pings / 2] / 1e6, samples[(int) (pings * 0.99)] / 1e6,
+                        samples[pings - 1] / 1e6, allocatedPerPing);
+            }
+            network.disconnect();
+        } finally {
+            load.shutdownNow();
+            fx.shutdownNow();
+            runtime.shutdown();
+        }
+    }
+
+    private static Thread findThread(String name) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().equals(name) && thread.isAlive()) {
+                    return thread;
+                }
+            }
+            Thread.sleep(10);
+        }
+        return null;
+    }
+
+    private static void spin(long nanos) {
+        long until = System.nanoTime() + nanos;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+}
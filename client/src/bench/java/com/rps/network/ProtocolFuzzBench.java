@@ -0,0 +1,325 @@
+package com.rps.network;
+
+import com.rps.RoundResult;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Grammar-aware fuzzer and stress harness for the inbound pipeline.
+ * <p>
+ * Generates valid, malformed and adversarial server lines from the protocol grammar with a fixed
+ * seed and pushes them through {@link ProtocolHandler#handleIncomingMessage(String)} from
+ * {@code --threads} sessions at once, reporting lines per second and bytes allocated per line.
+ * Three checks run and any violation fails the run:
+ * <ol>
+ *     <li>Throughput rounds: no exception escapes the handler, and heap used after GC does not
+ *     grow by more than {@code --max-heap-growth-mb} between the first and the last round.</li>
+ *     <li>Streak: threads recording only invalid events on one shared bus must fire the
+ *     too-many-invalid action exactly once per three events.</li>
+ *     <li>Streak through the handler: unknown commands published from all threads on one shared
+ *     bus must do the same.</li>
+ * </ol>
+ * The bench profile runs it in the {@code verify} phase; alone:
+ * {@code mvn -Pbench compile exec:java -Dexec.mainClass=com.rps.network.ProtocolFuzzBench
+ * -Dexec.args="--seed 1 --seconds 3 --rounds 5 --threads 4"}.
+ */
+public final class ProtocolFuzzBench {
+
+    private static final String[] COMMANDS = {
+            "WELCOME", "ERR", "OK", "R_LIST", "ROOM", "R_CREATED", "R_JOINED", "OPP_INF", "P_JOINED",
+            "P_LEFT", "P_READY", "P_UNREADY", "G_ST", "R_ST", "M_ACC", "R_RE", "G_END", "PING", "PONG",
+            "REC_OK", "G_PAUSE", "G_RES"
+    };
+    private static final String[] ROOM_STATES = {"OPEN", "FULL", "PLAYING", "PAUSED", "FINISHED"};
+    private static final String[] OUTCOMES = {"0", "1", "D", "T"};
+    private static final char[] MOVES = {'R', 'P', 'S', 'X'};
+    private static final int LINE_LIMIT = 512;
+    private static final int POOL_SIZE = 1 << 16;
+
+    private ProtocolFuzzBench() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long seed = 1;
+        int seconds = 3;
+        int rounds = 5;
+        int threads = 4;
+        long maxHeapGrowthMb = 32;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--seconds" -> seconds = Integer.parseInt(args[i + 1]);
+                case "--rounds" -> rounds = Integer.parseInt(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--max-heap-growth-mb" -> maxHeapGrowthMb = Long.parseLong(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        // Malformed input logs on every line; the harness measures parsing, not logging.
+        Logger root = Logger.getLogger("");
+        Level previousLevel = root.getLevel();
+        root.setLevel(Level.OFF);
+        ClientRuntime runtime = new ClientRuntime(1, 1);
+        try {
+            String[][] pools = new String[threads][];
+            for (int t = 0; t < threads; t++) {
+                pools[t] = generatePool(new Random(seed + t));
+            }
+            System.out.printf("seed %d, %d threads, %d lines per pool%n", seed, threads, POOL_SIZE);
+            throughputRounds(runtime, pools, seconds, rounds, maxHeapGrowthMb);
+            streakOnSharedBus(threads);
+            streakThroughHandler(runtime, threads);
+            System.out.println("all checks passed");
+        } finally {
+            runtime.shutdown();
+            root.setLevel(previousLevel);
+        }
+    }
+
+    private static void throughputRounds(ClientRuntime runtime, String[][] pools, int seconds, int rounds,
+                                         long maxHeapGrowthMb) throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long firstHeap = -1;
+        long lastHeap = 0;
+        for (int round = 1; round <= rounds; round++) {
+            AtomicLong lines = new AtomicLong();
+            AtomicLong escaped = new AtomicLong();
+            AtomicLong triggers = new AtomicLong();
+            AtomicLong allocated = new AtomicLong();
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            CountDownLatch done = new CountDownLatch(pools.length);
+            for (String[] pool : pools) {
+                ProtocolHandler handler = newSession(runtime, triggers);
+                Thread worker = new Thread(() -> {
+                    long thread = Thread.currentThread().getId();
+                    long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+                    long count = 0;
+                    int index = 0;
+                    while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+                        try {
+                            handler.handleIncomingMessage(pool[index]);
+                        } catch (RuntimeException ex) {
+                            escaped.incrementAndGet();
+                        }
+                        index = (index + 1) & (POOL_SIZE - 1);
+                        count++;
+                    }
+                    allocated.addAndGet(threads.getThreadAllocatedBytes(thread) - allocatedBefore);
+                    lines.addAndGet(count);
+                    done.countDown();
+                }, "fuzz-session");
+                worker.start();
+            }
+            done.await();
+            System.gc();
+            long heap = memory.getHeapMemoryUsage().getUsed();
+            if (firstHeap < 0) {
+                firstHeap = heap;
+            }
+            lastHeap = heap;
+            System.out.printf("round %2d %10.0f lines/s %7.1f B/line, %d streak triggers, heap after GC %5.1f MB%n",
+                    round, lines.get() / (double) seconds, allocated.get() / (double) lines.get(), triggers.get(),
+                    heap / 1e6);
+            check(escaped.get() == 0, escaped.get() + " exceptions escaped handleIncomingMessage");
+        }
+        long growthMb = (lastHeap - firstHeap) >> 20;
+        check(growthMb <= maxHeapGrowthMb, "heap grew by " + growthMb + " MB over the rounds");
+    }
+
+    /**
+     * Creates a session with the listeners a game client has, parsing like the real ones do.
+     */
+    private static ProtocolHandler newSession(ClientRuntime runtime, AtomicLong triggers) {
+        EventBus bus = new EventBus();
+        ProtocolHandler handler = new ProtocolHandler(new NetworkManager(runtime), bus);
+        bus.setOnTooManyInvalid(triggers::incrementAndGet);
+        for (String command : COMMANDS) {
+            if (bus.getSubscriberCount(command) == 0) {
+                bus.subscribe(command, event -> { });
+            }
+        }
+        bus.subscribe("R_LOADED", event -> { });
+        bus.subscribe("R_RE", event -> {
+            try {
+                RoundResult.parse(event);
+            } catch (IllegalArgumentException ex) {
+                bus.recordInvalidEvent();
+            }
+        });
+        bus.subscribe("R_ST", event -> {
+            try {
+                Integer.parseInt(event.getPart(1));
+            } catch (NumberFormatException ex) {
+                bus.recordInvalidEvent();
+            }
+        });
+        bus.subscribe("G_RES", event -> {
+            try {
+                for (int i = 1; i <= 3; i++) {
+                    Integer.parseInt(event.getPart(i));
+                }
+            } catch (NumberFormatException ex) {
+                bus.recordInvalidEvent();
+            }
+        });
+        return handler;
+    }
+
+    private static void streakOnSharedBus(int threads) throws InterruptedException {
+        int perThread = 300_000;
+        EventBus bus = new EventBus();
+        AtomicInteger triggers = new AtomicInteger();
+        bus.setOnTooManyInvalid(triggers::incrementAndGet);
+        runConcurrently(threads, () -> {
+            for (int i = 0; i < perThread; i++) {
+                bus.recordInvalidEvent();
+            }
+        });
+        int expected = threads * perThread / 3;
+        System.out.printf("shared bus: %d invalid events, %d triggers (expected %d)%n",
+                threads * perThread, triggers.get(), expected);
+        check(triggers.get() == expected, "streak lost updates on a shared bus");
+    }
+
+    private static void streakThroughHandler(ClientRuntime runtime, int threads) throws InterruptedException {
+        int perThread = 150_000;
+        EventBus bus = new EventBus();
+        ProtocolHandler handler = new ProtocolHandler(new NetworkManager(runtime), bus);
+        AtomicInteger triggers = new AtomicInteger();
+        bus.setOnTooManyInvalid(triggers::incrementAndGet);
+        runConcurrently(threads, () -> {
+            for (int i = 0; i < perThread; i++) {
+                handler.handleIncomingMessage("NO_SUCH_COMMAND " + (i & 7));
+            }
+        });
+        int expected = threads * perThread / 3;
+        System.out.printf("handler: %d unknown commands, %d triggers (expected %d)%n",
+                threads * perThread, triggers.get(), expected);
+        check(triggers.get() == expected, "streak lost updates through ProtocolHandler");
+    }
+
+    private static void runConcurrently(int threads, Runnable body) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    body.run();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "fuzz-streak").start();
+        }
+        start.countDown();
+        done.await();
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            throw new IllegalStateException("Protocol fuzz check failed: " + failure);
+        }
+    }
+
+    private static String[] generatePool(Random random) {
+        String[] pool = new String[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            int kind = random.nextInt(10);
+            String line = kind < 7 ? valid(random) : kind < 9 ? malformed(random, valid(random)) : adversarial(random);
+            pool[i] = line.length() > LINE_LIMIT ? line.substring(0, LINE_LIMIT) : line;
+        }
+        return pool;
+    }
+
+    /**
+     * Produces a line following the grammar in docs/Protocol.md.
+     */
+    private static String valid(Random random) {
+        String command = COMMANDS[random.nextInt(COMMANDS.length)];
+        return switch (command) {
+            case "WELCOME" -> "WELCOME " + token(random);
+            case "ERR" -> "ERR " + (100 + random.nextInt(11)) + " " + word(random, 12);
+            case "OK" -> "OK " + (random.nextBoolean() ? "you_are_ready" : "left_room " + random.nextInt(100));
+            case "R_LIST" -> "R_LIST " + random.nextInt(40);
+            case "ROOM" -> "ROOM " + (1 + random.nextInt(500)) + " " + word(random, 16) + " "
+                    + random.nextInt(3) + "/2 " + ROOM_STATES[random.nextInt(ROOM_STATES.length)];
+            case "R_CREATED" -> "R_CREATED " + (1 + random.nextInt(500));
+            case "R_JOINED" -> "R_JOINED " + (1 + random.nextInt(500));
+            case "OPP_INF" -> random.nextInt(4) == 0 ? "OPP_INF NONE"
+                    : "OPP_INF " + word(random, 12) + (random.nextBoolean() ? " READY" : " NOT_READY");
+            case "P_JOINED", "P_LEFT", "P_READY", "P_UNREADY" -> command + " " + word(random, 12);
+            case "R_ST" -> "R_ST " + (1 + random.nextInt(9));
+            case "R_RE" -> "R_RE " + OUTCOMES[random.nextInt(OUTCOMES.length)] + " " + move(random) + " "
+                    + move(random) + " " + random.nextInt(5) + " " + random.nextInt(5);
+            case "G_END" -> "G_END " + (random.nextInt(5) == 0 ? "D" : word(random, 12));
+            case "M_ACC" -> "M_ACC " + move(random);
+            case "REC_OK" -> random.nextBoolean() ? "REC_OK L NONE"
+                    : "REC_OK G " + random.nextInt(5) + " " + random.nextInt(5) + " " + (1 + random.nextInt(9));
+            case "G_RES" -> "G_RES " + (1 + random.nextInt(9)) + " " + random.nextInt(5) + " " + random.nextInt(5);
+            default -> command;
+        };
+    }
+
+    /**
+     * Breaks a valid line the way a faulty peer or a lossy link would.
+     */
+    private static String malformed(Random random, String line) {
+        int space = line.indexOf(' ');
+        return switch (random.nextInt(8)) {
+            case 0 -> space > 0 ? line.substring(0, space) : line + " ";
+            case 1 -> line.substring(0, random.nextInt(line.length() + 1));
+            case 2 -> line.replaceAll("[0-9]", "x");
+            case 3 -> line.toLowerCase();
+            case 4 -> line.replace(' ', '\t') + "  ";
+            case 5 -> word(random, 8).toUpperCase() + line.substring(Math.max(space, 0));
+            case 6 -> line + " " + word(random, 6) + " " + word(random, 6);
+            default -> " ".repeat(random.nextInt(3));
+        };
+    }
+
+    /**
+     * Produces lines aimed at parser edge cases: extreme numbers, quoting and escaping, control
+     * characters and maximum-length fields.
+     */
+    private static String adversarial(Random random) {
+        return switch (random.nextInt(10)) {
+            case 0 -> "R_LIST " + (random.nextBoolean() ? Integer.MAX_VALUE : -1);
+            case 1 -> "ROOM 0 " + "n".repeat(400) + " 127/2 OPEN";
+            case 2 -> "ROOM 99999999999 a 1/2 OPEN";
+            case 3 -> "R_RE \"1 R\" S \"3 \\\"2";
+            case 4 -> "WELCOME " + "\\".repeat(1 + random.nextInt(8));
+            case 5 -> "ERR \u0000\u0001\u007f " + "\u00e9\u4e2d";
+            case 6 -> "R_ST 2147483648";
+            case 7 -> "G_RES 1 2";
+            case 8 -> "\"" + word(random, 8) + " " + word(random, 8);
+            default -> "ROOM " + (1 + random.nextInt(500)) + " x " + "9".repeat(200) + "/2 OPEN";
+        };
+    }
+
+    private static String word(Random random, int maxLength) {
+        int length = 1 + random.nextInt(maxLength);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    private static String token(Random random) {
+        return Long.toHexString(random.nextLong());
+    }
+
+    private static char move(Random random) {
+        return MOVES[random.nextInt(MOVES.length)];
+    }
+}
@@ -0,0 +1,185 @@
+package com.rps.network;
+
+import com.rps.RoomRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Room list assembly benchmark: the current path, where {@link RoomListAssembler} counts rows
+ * and the rooms screen's {@link RoomRegistry} applies each ROOM row in place, against the former
+ * synchronized assembler that joined rows into a pipe-delimited string the UI split again.
+ * <p>
+ * Feeds pre-tokenized R_LIST/ROOM events of 1, 100 and 10k rooms (or {@code --sizes}) to
+ * {@code --sessions} assemblers on as many threads, each owning one assembler as in a
+ * multi-session client, and reports time and bytes allocated per room.
+ * <p>
+ * Usage: {@code mvn -Pbench compile exec:java -Dexec.mainClass=com.rps.network.RoomListAssemblerBench
+ * -Dexec.args="--sizes 1,100,10000 --rooms 2000000 --rounds 5 --sessions 4"}.
+ */
+public final class RoomListAssemblerBench {
+
+    private static final String[] STATES = {"OPEN", "FULL", "PLAYING", "PAUSED"};
+    private static final ScheduledExecutorService FLUSH_SCHEDULER = ClientRuntime.shared().scheduler();
+
+    private RoomListAssemblerBench() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int[] sizes = {1, 100, 10_000};
+        int totalRooms = 2_000_000;
+        int rounds = 5;
+        int sessions = 4;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sizes" -> sizes = parseSizes(args[i + 1]);
+                case "--rooms" -> totalRooms = Integer.parseInt(args[i + 1]);
+                case "--rounds" -> rounds = Integer.parseInt(args[i + 1]);
+                case "--sessions" -> sessions = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        for (int size : sizes) {
+            ServerEvent header = event("R_LIST " + size);
+            ServerEvent[] rows = new ServerEvent[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = event("ROOM " + (i + 1) + " room-" + i + " " + (i % 3) + "/2 " + STATES[i % STATES.length]);
+            }
+            int lists = Math.max(1, totalRooms / size);
+            System.out.printf("%d rooms per list, %d lists per session, %d sessions%n", size, lists, sessions);
+            for (int round = 1; round <= rounds; round++) {
+                report("synchronized+join", round, (long) lists * size * sessions,
+                        measure(sessions, () -> legacyPass(header, rows, lists)));
+                report("counter+registry", round, (long) lists * size * sessions,
+                        measure(sessions, () -> assemblerPass(header, rows, lists)));
+            }
+        }
+        ClientRuntime.shared().shutdown();
+    }
+
+    private static long assemblerPass(ServerEvent header, ServerEvent[] rows, int lists) {
+        long[] checksum = {0};
+        RoomRegistry registry = new RoomRegistry();
+        RoomListAssembler assembler = new RoomListAssembler(FLUSH_SCHEDULER, count -> {
+            registry.endUpdate();
+            for (int slot = 0; slot < registry.size(); slot++) {
+                checksum[0] += registry.playersAt(slot);
+            }
+        });
+        for (int n = 0; n < lists; n++) {
+            registry.beginUpdate();
+            assembler.handleHeader(header);
+            for (ServerEvent row : rows) {
+                String line = row.getFullMessage();
+                registry.applyRow(line, "ROOM ".length(), line.length());
+                assembler.handleRoom(row);
+            }
+        }
+        return checksum[0];
+    }
+
+    private static long legacyPass(ServerEvent header, ServerEvent[] rows, int lists) {
+        long[] checksum = {0};
+        LegacyAssembler assembler = new LegacyAssembler(data -> {
+            // The rooms screen used to split the payload again and parse each row.
+            for (String row : data.split("\\|")) {
+                String[] fields = row.split(" ");
+                checksum[0] += fields[2].charAt(0) - '0';
+            }
+        });
+        for (int n = 0; n < lists; n++) {
+            assembler.handleHeader(header);
+            for (ServerEvent row : rows) {
+                assembler.handleRoom(row);
+            }
+        }
+        return checksum[0];
+    }
+
+    private static long[] measure(int sessions, Pass pass) throws InterruptedException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        AtomicLong allocated = new AtomicLong();
+        AtomicLong checksum = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(sessions);
+        for (int s = 0; s < sessions; s++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+                checksum.addAndGet(pass.run());
+                allocated.addAndGet(threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before);
+                done.countDown();
+            }, "session-" + s);
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return new long[]{System.nanoTime() - begin, allocated.get(), checksum.get()};
+    }
+
+    private static void report(String name, int round, long rooms, long[] result) {
+        System.out.printf("round %2d %-18s %8.1f ns/room %8.1f B/room (checksum %d)%n",
+                round, name, (double) result[0] / rooms, (double) result[1] / rooms, result[2]);
+    }
+
+    private static ServerEvent event(String line) {
+        return new ServerEvent(line.substring(0, line.indexOf(' ')), line.split(" "), line);
+    }
+
+    private static int[] parseSizes(String raw) {
+        String[] parts = raw.split(",");
+        int[] sizes = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            sizes[i] = Integer.parseInt(parts[i].trim());
+        }
+        return sizes;
+    }
+
+    private interface Pass {
+        long run();
+    }
+
+    /** The assembler as it was before: one lock, a list copy and a joined string per list. */
+    private static final class LegacyAssembler {
+        private final List<String> rooms = new ArrayList<>();
+        private final Consumer<String> publisher;
+        private int expected;
+
+        private LegacyAssembler(Consumer<String> publisher) {
+            this.publisher = publisher;
+        }
+
+        void handleHeader(ServerEvent event) {
+            synchronized (rooms) {
+                expected = Integer.parseInt(event.getPart(1));
+                rooms.clear();
+            }
+        }
+
+        void handleRoom(ServerEvent event) {
+            synchronized (rooms) {
+                if (expected == 0) {
+                    return;
+                }
+                String full = event.getFullMessage();
+                rooms.add(full.length() > 5 ? full.substring(5) : "");
+                if (rooms.size() >= expected) {
+                    publisher.accept(String.join("|", new ArrayList<>(rooms)));
+                    rooms.clear();
+                    expected = 0;
+                }
+            }
+        }
+    }
+}
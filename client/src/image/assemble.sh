@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Completes the jlink'd runtime in <target>/image: app jar, launcher and class-data sharing archives.
+#
+# Usage: assemble.sh <target-dir> <client-jar-name> [host:port]
+#   host:port  optional server for the training run that records lib/client.jsa; needs a display.
+set -euo pipefail
+
+TARGET="$1"
+JAR="$2"
+TRAIN="${3:-}"
+IMAGE="$TARGET/image"
+
+mkdir -p "$IMAGE/app"
+cp "$TARGET/$JAR" "$IMAGE/app/client.jar"
+
+# Base archive of the JDK classes in the image; the dynamic app archive is layered on top of it.
+"$IMAGE/bin/java" -Xshare:dump -Xlog:cds=warning > /dev/null
+
+cat > "$IMAGE/bin/rps-client" <<'LAUNCHER'
+#!/bin/sh
+DIR="$(cd "$(dirname "$0")/.." && pwd)"
+CDS=""
+if [ -f "$DIR/lib/client.jsa" ]; then
+    CDS="-XX:SharedArchiveFile=$DIR/lib/client.jsa"
+fi
+exec "$DIR/bin/java" $CDS ${RPS_CLIENT_OPTS:-} -cp "$DIR/app/client.jar" com.rps.MainApp "$@"
+LAUNCHER
+chmod +x "$IMAGE/bin/rps-client"
+
+if [ -z "$TRAIN" ]; then
+    echo "Image ready in $IMAGE (no CDS training run; pass -Drps.train=host:port to record one)"
+    exit 0
+fi
+if [ -z "${DISPLAY:-}" ] && [ -z "${WAYLAND_DISPLAY:-}" ]; then
+    echo "No display available, skipping CDS training run" >&2
+    exit 0
+fi
+
+# Two scripted clients: the first creates a quick-match room, the second joins it and the game
+# starts. Only the first one records the archive. History is disabled to keep the user's file clean.
+run_client() {
+    "$IMAGE/bin/java" "$@" -Drps.historyFile= -cp "$IMAGE/app/client.jar" com.rps.MainApp
+}
+run_client -XX:ArchiveClassesAtExit="$IMAGE/lib/client.jsa" -Drps.trainingRun="cds-a@$TRAIN" &
+FIRST=$!
+sleep 3
+run_client -Drps.trainingRun="cds-b@$TRAIN" &
+SECOND=$!
+wait "$FIRST" "$SECOND"
+echo "CDS archive recorded: $IMAGE/lib/client.jsa"
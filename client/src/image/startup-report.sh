@@ -0,0 +1,30 @@
+#!/usr/bin/env bash
+# Compares time to first frame of the plain classpath launch with the jlink + CDS image.
+#
+# Usage: startup-report.sh [runs]   (from the client directory, after mvn -Pimage package)
+# Each launch exits right after its first frame (rps.exitAfterFirstFrame); the median is printed.
+set -euo pipefail
+
+RUNS="${1:-10}"
+TARGET="$(cd "$(dirname "$0")/../.." && pwd)/target"
+IMAGE="$TARGET/image"
+
+measure() {
+    local times=()
+    for _ in $(seq "$RUNS"); do
+        local ms
+        ms=$("$@" 2>&1 | sed -n 's/.*Time to first frame: \([0-9]*\) ms.*/\1/p' | head -n 1)
+        [ -n "$ms" ] && times+=("$ms")
+    done
+    if [ "${#times[@]}" -eq 0 ]; then
+        echo "n/a"
+        return
+    fi
+    printf '%s\n' "${times[@]}" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] " ms (" NR " runs)" }'
+}
+
+echo "before (classpath, system JDK, JavaFX from $TARGET/modules):"
+measure java --module-path "$TARGET/modules" --add-modules javafx.controls \
+    -Drps.exitAfterFirstFrame=true -Drps.historyFile= -cp "$TARGET/classes" com.rps.MainApp
+echo "after (jlink image$([ -f "$IMAGE/lib/client.jsa" ] && echo ' + AppCDS')):"
+RPS_CLIENT_OPTS="-Drps.exitAfterFirstFrame=true -Drps.historyFile=" measure "$IMAGE/bin/rps-client"
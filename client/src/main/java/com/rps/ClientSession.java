@@ -0,0 +1,78 @@
+package com.rps;
+
+import com.rps.network.ClientRuntime;
+import com.rps.network.EventBus;
+import com.rps.network.NetworkManager;
+import com.rps.network.ProtocolHandler;
+import com.rps.network.ReconnectionManager;
+
+import java.util.Objects;
+
+/**
+ * One logical player connection: socket, protocol, event bus, reconnection and profile.
+ * <p>
+ * Sessions do not own pooled threads; writers, watchdogs and reconnect attempts run on
+ * the {@link ClientRuntime} passed in, so many sessions can live in one process.
+ */
+public final class ClientSession implements AutoCloseable {
+
+    /** Handles low-level TCP networking and timeouts. */
+    private final NetworkManager networkManager;
+
+    /** Event bus used to deliver parsed server messages to listeners. */
+    private final EventBus eventBus;
+
+    /** Encapsulates text protocol, sends commands and parses responses. */
+    private final ProtocolHandler protocolHandler;
+
+    /** Controls automatic and manual reconnection procedures. */
+    private final ReconnectionManager reconnectionManager;
+
+    /** Identity and state of the player using this session. */
+    private final PlayerProfile playerProfile = new PlayerProfile();
+
+    /**
+     * Creates a session on given runtime.
+     *
+     * @param runtime  shared threads for all sessions.
+     * @param eventBus bus that delivers events of this session, e.g. {@link EventBus#createJavaFxBus()}.
+     */
+    public ClientSession(ClientRuntime runtime, EventBus eventBus) {
+        Objects.requireNonNull(runtime, "runtime");
+        this.eventBus = Objects.requireNonNull(eventBus, "eventBus");
+        this.networkManager = new NetworkManager(runtime);
+        this.protocolHandler = new ProtocolHandler(networkManager, eventBus);
+        this.reconnectionManager = new ReconnectionManager(networkManager, protocolHandler, eventBus, runtime);
+    }
+
+    public NetworkManager getNetworkManager() {
+        return networkManager;
+    }
+
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+
+    public ProtocolHandler getProtocolHandler() {
+        return protocolHandler;
+    }
+
+    public ReconnectionManager getReconnectionManager() {
+        return reconnectionManager;
+    }
+
+    public PlayerProfile getPlayerProfile() {
+        return playerProfile;
+    }
+
+    /**
+     * Stops reconnection, drops listeners and closes the socket.
+     */
+    @Override
+    public void close() {
+        reconnectionManager.shutdown();
+        networkManager.disconnect();
+        protocolHandler.failPendingRequests(new IllegalStateException("Session closed"));
+        eventBus.clear();
+    }
+}
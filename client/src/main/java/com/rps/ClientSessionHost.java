@@ -0,0 +1,164 @@
+package com.rps;
+
+import com.rps.network.ClientRuntime;
+import com.rps.network.EventBus;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Hosts many independent {@link ClientSession}s on one {@link ClientRuntime}.
+ * <p>
+ * Used by headless tools (bots, tournament runners, dashboards). Limits the number of open
+ * sessions and can measure heap retained per session against a budget.
+ */
+public final class ClientSessionHost implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(ClientSessionHost.class.getName());
+
+    /** Default heap budget for a single session. */
+    public static final long DEFAULT_SESSION_BUDGET_BYTES = 64 * 1024;
+
+    /** Threads shared by all hosted sessions. */
+    private final ClientRuntime runtime;
+
+    /** Maximum number of simultaneously open sessions. */
+    private final int maxSessions;
+
+    /** Heap budget per session used by {@link #measureSessionFootprint(int)}. */
+    private final long sessionBudgetBytes;
+
+    /** Currently open sessions. */
+    private final Set<ClientSession> sessions = ConcurrentHashMap.newKeySet();
+
+    /** Slots taken by open sessions and sessions being opened; never exceeds {@link #maxSessions}. */
+    private final AtomicInteger slots = new AtomicInteger();
+
+    /**
+     * Creates host with default budget.
+     *
+     * @param runtime     shared threads.
+     * @param maxSessions maximum number of open sessions.
+     */
+    public ClientSessionHost(ClientRuntime runtime, int maxSessions) {
+        this(runtime, maxSessions, DEFAULT_SESSION_BUDGET_BYTES);
+    }
+
+    /**
+     * Creates host.
+     *
+     * @param runtime            shared threads.
+     * @param maxSessions        maximum number of open sessions.
+     * @param sessionBudgetBytes heap budget per session.
+     */
+    public ClientSessionHost(ClientRuntime runtime, int maxSessions, long sessionBudgetBytes) {
+        this.runtime = runtime;
+        this.maxSessions = maxSessions;
+        this.sessionBudgetBytes = sessionBudgetBytes;
+    }
+
+    /**
+     * Opens a new session whose events are dispatched directly on the network thread.
+     *
+     * @return new session.
+     * @throws IllegalStateException if the session limit is reached.
+     */
+    public ClientSession open() {
+        return open(EventBus::new);
+    }
+
+    /**
+     * Opens a new session with a custom event bus.
+     *
+     * @param busFactory creates the bus of the new session.
+     * @return new session.
+     * @throws IllegalStateException if the session limit is reached.
+     */
+    public ClientSession open(Supplier<EventBus> busFactory) {
+        int taken;
+        do {
+            taken = slots.get();
+            if (taken >= maxSessions) {
+                throw new IllegalStateException("Session limit reached: " + maxSessions);
+            }
+        } while (!slots.compareAndSet(taken, taken + 1));
+        ClientSession session;
+        try {
+            session = new ClientSession(runtime, busFactory.get());
+        } catch (RuntimeException | Error ex) {
+            slots.decrementAndGet();
+            throw ex;
+        }
+        sessions.add(session);
+        return session;
+    }
+
+    /**
+     * Closes a session and frees its slot.
+     *
+     * @param session session opened by this host.
+     */
+    public void release(ClientSession session) {
+        if (sessions.remove(session)) {
+            slots.decrementAndGet();
+            session.close();
+        }
+    }
+
+    /**
+     * Returns number of open sessions.
+     *
+     * @return session count.
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Measures average heap retained by an idle session by opening a batch of sessions
+     * and comparing used heap before and after. Logs a warning when over budget.
+     *
+     * @param samples number of sessions created for the measurement.
+     * @return estimated bytes per session.
+     */
+    public long measureSessionFootprint(int samples) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        List<ClientSession> batch = new ArrayList<>(samples);
+        long before = usedHeapAfterGc(memory);
+        for (int i = 0; i < samples; i++) {
+            batch.add(new ClientSession(runtime, new EventBus()));
+        }
+        long after = usedHeapAfterGc(memory);
+        long perSession = Math.max(0, (after - before) / Math.max(1, samples));
+        batch.forEach(ClientSession::close);
+        if (perSession > sessionBudgetBytes) {
+            LOG.warning("Session footprint " + perSession + " B exceeds budget of " + sessionBudgetBytes + " B");
+        } else {
+            LOG.info("Session footprint " + perSession + " B (budget " + sessionBudgetBytes + " B)");
+        }
+        return perSession;
+    }
+
+    /**
+     * Closes all open sessions. The runtime is left running.
+     */
+    @Override
+    public void close() {
+        for (ClientSession session : sessions) {
+            release(session);
+        }
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        System.gc();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,200 @@
+package com.rps;
+
+import com.rps.PlayerProfile.PlayerStatus;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Client session state machine derived from the client state diagram in {@code docs/Protocol.md}.
+ * <p>
+ * Every server event and local action that depends on the session state is a {@link Trigger}.
+ * {@link #fire(Trigger)} looks the pair (current state, trigger) up in a fixed table and, when the
+ * pair is allowed, moves to the table's target state with a compare-and-set. Validation and
+ * transition are therefore one atomic step, so the FX thread and reconnect callbacks cannot
+ * interleave between a check and the update. Rejected pairs are counted per state and trigger.
+ * <p>
+ * Transition table (states not listed reject the trigger):
+ * <pre>
+ * trigger                from                          to
+ * CONNECT                any                           CONNECTED
+ * WELCOME                CONNECTED                     AUTHENTICATED
+ * ROOMS_LOADED           AUTHENTICATED                 (same)
+ * ROOM_JOINED            AUTHENTICATED                 IN_LOBBY
+ * ROOM_UPDATE            IN_LOBBY, READY               (same)
+ * READY_CONFIRMED        IN_LOBBY, READY               READY
+ * LEFT_ROOM              IN_LOBBY, READY               AUTHENTICATED
+ * GAME_STARTED           READY                         PLAYING
+ * ROUND_UPDATE           PLAYING                       (same)
+ * GAME_ENDED             PLAYING                       AUTHENTICATED
+ * RESUMED_IN_GAME        any                           PLAYING
+ * RESUMED_IN_LOBBY       any                           IN_LOBBY
+ * RESUMED_IN_ROOMS       any                           AUTHENTICATED
+ * RESET                  any                           DISCONNECTED
+ * </pre>
+ * Thread-safe and lock-free.
+ */
+public final class ClientStateMachine {
+    private static final Logger LOG = Logger.getLogger(ClientStateMachine.class.getName());
+
+    /**
+     * Inputs that may change the session state.
+     */
+    public enum Trigger {
+        /** TCP connection for a new login opened. */
+        CONNECT,
+        /** WELCOME received. */
+        WELCOME,
+        /** Room list fully received. */
+        ROOMS_LOADED,
+        /** R_JOINED received. */
+        ROOM_JOINED,
+        /** OPP_INF, P_JOINED, P_READY, P_UNREADY or P_LEFT received. */
+        ROOM_UPDATE,
+        /** OK you_are_ready received. */
+        READY_CONFIRMED,
+        /** OK left_room received. */
+        LEFT_ROOM,
+        /** G_ST received. */
+        GAME_STARTED,
+        /** R_ST, R_RE, G_PAUSE or G_RES received. */
+        ROUND_UPDATE,
+        /** G_END received. */
+        GAME_ENDED,
+        /** REC_OK restored a running game. */
+        RESUMED_IN_GAME,
+        /** REC_OK restored a room. */
+        RESUMED_IN_LOBBY,
+        /** REC_OK restored the room list. */
+        RESUMED_IN_ROOMS,
+        /** Session given up, back to the login screen. */
+        RESET
+    }
+
+    private static final PlayerStatus[] STATES = PlayerStatus.values();
+    private static final Trigger[] TRIGGERS = Trigger.values();
+
+    /** Target state per [state][trigger]; null rejects the trigger in that state. */
+    private static final PlayerStatus[][] TABLE = new PlayerStatus[STATES.length][TRIGGERS.length];
+
+    static {
+        allowFromAny(Trigger.CONNECT, PlayerStatus.CONNECTED);
+        allow(Trigger.WELCOME, PlayerStatus.AUTHENTICATED, PlayerStatus.CONNECTED);
+        stay(Trigger.ROOMS_LOADED, PlayerStatus.AUTHENTICATED);
+        allow(Trigger.ROOM_JOINED, PlayerStatus.IN_LOBBY, PlayerStatus.AUTHENTICATED);
+        stay(Trigger.ROOM_UPDATE, PlayerStatus.IN_LOBBY, PlayerStatus.READY);
+        allow(Trigger.READY_CONFIRMED, PlayerStatus.READY, PlayerStatus.IN_LOBBY, PlayerStatus.READY);
+        allow(Trigger.LEFT_ROOM, PlayerStatus.AUTHENTICATED, PlayerStatus.IN_LOBBY, PlayerStatus.READY);
+        allow(Trigger.GAME_STARTED, PlayerStatus.PLAYING, PlayerStatus.READY);
+        stay(Trigger.ROUND_UPDATE, PlayerStatus.PLAYING);
+        allow(Trigger.GAME_ENDED, PlayerStatus.AUTHENTICATED, PlayerStatus.PLAYING);
+        allowFromAny(Trigger.RESUMED_IN_GAME, PlayerStatus.PLAYING);
+        allowFromAny(Trigger.RESUMED_IN_LOBBY, PlayerStatus.IN_LOBBY);
+        allowFromAny(Trigger.RESUMED_IN_ROOMS, PlayerStatus.AUTHENTICATED);
+        allowFromAny(Trigger.RESET, PlayerStatus.DISCONNECTED);
+    }
+
+    private final AtomicReference<PlayerStatus> state = new AtomicReference<>(PlayerStatus.DISCONNECTED);
+
+    /** Rejections per [state][trigger], flattened. */
+    private final AtomicLongArray rejected = new AtomicLongArray(STATES.length * TRIGGERS.length);
+
+    /**
+     * Applies a trigger if the table allows it in the current state.
+     *
+     * @param trigger input to apply.
+     * @return true if accepted (the state is now the table's target), false if rejected.
+     */
+    public boolean fire(Trigger trigger) {
+        while (true) {
+            PlayerStatus current = state.get();
+            PlayerStatus next = TABLE[current.ordinal()][trigger.ordinal()];
+            if (next == null) {
+                rejected.incrementAndGet(current.ordinal() * TRIGGERS.length + trigger.ordinal());
+                LOG.fine(() -> "Rejected " + trigger + " in state " + current);
+                return false;
+            }
+            if (next == current) {
+                return true;
+            }
+            if (state.compareAndSet(current, next)) {
+                if (LOG.isLoggable(Level.FINE)) {
+                    LOG.fine("Client state " + current + " -> " + next + " on " + trigger);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns current state.
+     *
+     * @return state, never null.
+     */
+    public PlayerStatus current() {
+        return state.get();
+    }
+
+    /**
+     * Returns how often a trigger was rejected in a state.
+     *
+     * @param state   state the trigger arrived in.
+     * @param trigger rejected trigger.
+     * @return rejection count.
+     */
+    public long getRejectedCount(PlayerStatus state, Trigger trigger) {
+        return rejected.get(state.ordinal() * TRIGGERS.length + trigger.ordinal());
+    }
+
+    /**
+     * Returns number of rejected triggers over all states.
+     *
+     * @return total rejection count.
+     */
+    public long getRejectedTotal() {
+        long total = 0;
+        for (int i = 0; i < rejected.length(); i++) {
+            total += rejected.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Lists non-zero rejection counters, for logging at shutdown.
+     *
+     * @return entries like {@code "IN_LOBBY/ROUND_UPDATE=2"} separated by commas, empty if none.
+     */
+    public String describeRejections() {
+        StringBuilder out = new StringBuilder();
+        for (PlayerStatus from : STATES) {
+            for (Trigger trigger : TRIGGERS) {
+                long count = getRejectedCount(from, trigger);
+                if (count > 0) {
+                    if (out.length() > 0) {
+                        out.append(", ");
+                    }
+                    out.append(from).append('/').append(trigger).append('=').append(count);
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static void allow(Trigger trigger, PlayerStatus to, PlayerStatus... from) {
+        for (PlayerStatus state : from) {
+            TABLE[state.ordinal()][trigger.ordinal()] = to;
+        }
+    }
+
+    private static void stay(Trigger trigger, PlayerStatus... in) {
+        for (PlayerStatus state : in) {
+            TABLE[state.ordinal()][trigger.ordinal()] = state;
+        }
+    }
+
+    private static void allowFromAny(Trigger trigger, PlayerStatus to) {
+        allow(trigger, to, STATES);
+    }
+}
@@ -0,0 +1,83 @@
+package com.rps;
+
+import com.rps.network.HandlerProfiler;
+import javafx.animation.AnimationTimer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Detects JavaFX pulses that arrive later than a configured threshold.
+ * <p>
+ * Every frame the monitor closes the current {@link HandlerProfiler} window; when the gap
+ * between two frames exceeds the threshold, the slowest event handled inside that gap
+ * is reported as the likely cause of the stall.
+ */
+final class FxPulseMonitor extends AnimationTimer {
+
+    private static final Logger LOG = Logger.getLogger(FxPulseMonitor.class.getName());
+
+    /** Profiler attached to the JavaFX event bus. */
+    private final HandlerProfiler profiler;
+
+    /** Frame gap in nanoseconds after which a pulse is considered stalled. */
+    private final long thresholdNanos;
+
+    /** Timestamp of the previous frame, or 0 before the first frame. */
+    private long lastFrameAt;
+
+    /** Number of stalled pulses seen since start. */
+    private long stallCount;
+
+    /**
+     * Creates a monitor.
+     *
+     * @param profiler        profiler used for stall attribution.
+     * @param thresholdMillis frame gap in milliseconds that is reported as a stall.
+     */
+    FxPulseMonitor(HandlerProfiler profiler, long thresholdMillis) {
+        this.profiler = profiler;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    @Override
+    public void start() {
+        lastFrameAt = 0;
+        super.start();
+    }
+
+    @Override
+    public void handle(long now) {
+        HandlerProfiler.Sample slowest = profiler.takeSlowestSinceMark();
+        long previous = lastFrameAt;
+        lastFrameAt = now;
+        if (previous == 0) {
+            return;
+        }
+        long gap = now - previous;
+        if (gap < thresholdNanos) {
+            return;
+        }
+        stallCount++;
+        if (slowest != null) {
+            LOG.warning(String.format("FX pulse stalled for %.1f ms; slowest handler %s for %s took %.1f ms, event: %s",
+                    gap / 1_000_000.0,
+                    slowest.getHandler(),
+                    slowest.getEvent().getCommand(),
+                    slowest.getRunNanos() / 1_000_000.0,
+                    slowest.getEvent().getFullMessage()));
+        } else {
+            LOG.warning(String.format("FX pulse stalled for %.1f ms; no event handler ran in this frame",
+                    gap / 1_000_000.0));
+        }
+    }
+
+    /**
+     * Returns number of stalled pulses observed since start.
+     *
+     * @return stall counter.
+     */
+    long getStallCount() {
+        return stallCount;
+    }
+}
@@ -1,50 +1,42 @@
 package com.rps;
 
 /**
- * Immutable snapshot of a game room as reported by the server.
+ * View of one row of a {@link RoomRegistry}.
  * <p>
- * Used only on client side UI to render room list.
+ * The registry owns the data in primitive arrays; a view is bound to a row position and reads
+ * through to it, so refreshing the room list never allocates new room objects. Views are only
+ * valid on the thread that owns the registry.
  */
-public class GameRoom {
+public final class GameRoom {
 
-    /** Unique numeric identifier assigned by server. */
-    private int id;
-
-    /** Human-readable room name. */
-    private String name;
-
-    /** Current high-level room status such as OPEN/CLOSED/RUNNING. */
-    private String status;
+    /** Maximum number of allowed players in a room. */
+    public static final int MAX_PLAYERS = 2;
 
-    /** Number of players currently present in the room. */
-    private int currentPlayers;
+    /** Registry that stores the room data. */
+    private final RoomRegistry registry;
 
-    /** Maximum number of allowed players in a room. */
-    private static final int MAX_PLAYERS = 2;
+    /** Row position in the registry. */
+    private final int slot;
 
     /**
-     * Constructs game room representation.
+     * Constructs view of a registry row.
      *
-     * @param id             room identifier from server.
-     * @param name           room name.
-     * @param currentPlayers current number of players.
-     * @param status         textual room status.
+     * @param registry owning registry.
+     * @param slot     row position.
      */
-    GameRoom(int id, String name, int currentPlayers, String status) {
-        this.id = id;
-        this.name = name;
-        this.status = status;
-        this.currentPlayers = currentPlayers;
+    GameRoom(RoomRegistry registry, int slot) {
+        this.registry = registry;
+        this.slot = slot;
     }
 
     /**
-     * Returns default room string presentation used in list cells.
+     * Returns cached room string presentation used in list cells.
      *
      * @return formatted string with id, name, players and status.
      */
     @Override
     public String toString() {
-        return id + " " + name + " " + currentPlayers + "/" + MAX_PLAYERS + " " + status;
+        return registry.displayAt(slot);
     }
 
     /**
@@ -53,52 +45,25 @@ public class GameRoom {
      * @return integer id.
      */
     public int getId() {
-        return id;
-    }
-
-    /**
-     * Updates room identifier (used only inside UI logic).
-     *
-     * @param id new integer id value.
-     */
-    public void setId(int id) {
-        this.id = id;
+        return registry.idAt(slot);
     }
 
     /**
      * Returns room name.
      *
-     * @return room name string.
+     * @return interned room name string.
      */
     public String getName() {
-        return name;
+        return registry.nameAt(slot);
     }
 
     /**
-     * Sets new room name for this instance.
+     * Returns current room status.
      *
-     * @param name new room name string.
+     * @return room status.
      */
-    public void setName(String name) {
-        this.name = name;
-    }
-
-    /**
-     * Returns current room status text.
-     *
-     * @return status string.
-     */
-    public String getStatus() {
-        return status;
-    }
-
-    /**
-     * Sets room status text.
-     *
-     * @param status new status string.
-     */
-    public void setStatus(String status) {
-        this.status = status;
+    public RoomStatus getStatus() {
+        return registry.statusAt(slot);
     }
 
     /**
@@ -107,16 +72,7 @@ public class GameRoom {
      * @return current players count.
      */
     public int getCurrentPlayers() {
-        return currentPlayers;
-    }
-
-    /**
-     * Sets current players count.
-     *
-     * @param currentPlayers new players count.
-     */
-    public void setCurrentPlayers(int currentPlayers) {
-        this.currentPlayers = currentPlayers;
+        return registry.playersAt(slot);
     }
 
     /**
@@ -127,5 +83,4 @@ public class GameRoom {
     public int getMaxPlayers() {
         return MAX_PLAYERS;
     }
-
 }
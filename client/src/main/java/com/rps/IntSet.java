@@ -0,0 +1,97 @@
+package com.rps;
+
+/**
+ * Open-addressing set of positive ints (room ids) with linear probing and backward-shift
+ * deletion, so removals leave no tombstones.
+ */
+final class IntSet {
+
+    private static final int FREE = 0;
+
+    private int[] table = new int[8];
+    private int size;
+
+    boolean add(int value) {
+        if ((size + 1) * 2 > table.length) {
+            grow();
+        }
+        int mask = table.length - 1;
+        int bucket = mix(value) & mask;
+        while (table[bucket] != FREE) {
+            if (table[bucket] == value) {
+                return false;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        table[bucket] = value;
+        size++;
+        return true;
+    }
+
+    boolean remove(int value) {
+        int mask = table.length - 1;
+        int bucket = mix(value) & mask;
+        while (table[bucket] != value) {
+            if (table[bucket] == FREE) {
+                return false;
+            }
+            bucket = (bucket + 1) & mask;
+        }
+        // Shift later entries of the probe chain back into the hole.
+        int hole = bucket;
+        for (int next = (hole + 1) & mask; table[next] != FREE; next = (next + 1) & mask) {
+            int home = mix(table[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+        table[hole] = FREE;
+        size--;
+        return true;
+    }
+
+    boolean contains(int value) {
+        int mask = table.length - 1;
+        for (int bucket = mix(value) & mask; table[bucket] != FREE; bucket = (bucket + 1) & mask) {
+            if (table[bucket] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies elements into {@code target} starting at {@code offset}.
+     *
+     * @return offset after the last copied element.
+     */
+    int copyTo(int[] target, int offset) {
+        for (int value : table) {
+            if (value != FREE) {
+                target[offset++] = value;
+            }
+        }
+        return offset;
+    }
+
+    private void grow() {
+        int[] old = table;
+        table = new int[old.length * 2];
+        size = 0;
+        for (int value : old) {
+            if (value != FREE) {
+                add(value);
+            }
+        }
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -1,23 +1,43 @@
 package com.rps;
 
+import com.rps.ClientStateMachine.Trigger;
+import com.rps.history.MatchHistory;
+import com.rps.history.MatchRecorder;
 import com.rps.network.*;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import javafx.util.Duration;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -34,6 +54,33 @@ public class MainApp extends Application {
 
     private static final Logger LOG = Logger.getLogger(MainApp.class.getName());
 
+    /** Fallback start time where the platform does not report the process start. */
+    private static final long CLASS_LOADED_AT_MILLIS = System.currentTimeMillis();
+
+    /** System property that enables FX handler profiling and pulse stall detection. */
+    private static final String PROFILE_FX_PROPERTY = "rps.profileFx";
+
+    /** Frame gap in milliseconds reported as a stalled pulse. */
+    private static final long PULSE_STALL_THRESHOLD_MS = 50;
+
+    /** System property with the match history file; set it to an empty value to disable history. */
+    private static final String HISTORY_FILE_PROPERTY = "rps.historyFile";
+
+    /** System property that closes the client once the first frame is shown; used by startup measurements. */
+    private static final String EXIT_AFTER_FIRST_FRAME_PROPERTY = "rps.exitAfterFirstFrame";
+
+    /**
+     * System property {@code nick@host:port} that scripts login, quick match and game start,
+     * then closes the client; used to train the class-data sharing archive.
+     */
+    private static final String TRAINING_RUN_PROPERTY = "rps.trainingRun";
+
+    /** Seconds the server waits for a move before the round times out (server ROUND_TIMEOUT). */
+    private static final int ROUND_TIMEOUT_SECONDS = 10;
+
+    /** Connection, protocol and profile of the local player. */
+    private ClientSession session;
+
     /** Handles low-level TCP networking and timeouts. */
     private NetworkManager networkManager;
 
@@ -46,12 +93,24 @@ public class MainApp extends Application {
     /** Controls automatic and manual reconnection procedures. */
     private ReconnectionManager reconnectionManager;
 
+    /** Opens the connection while the user is still entering the server address. */
+    private ConnectionWarmer connectionWarmer;
+
+    /** Time Connect was pressed, for the connect-to-WELCOME log line. */
+    private long connectPressedAt;
+
     /** Primary JavaFX stage used by the whole application. */
     private Stage primaryStage;
 
+    /** Owns the shared scene and caches every screen after first build. */
+    private ScreenManager screens;
+
     /** Player profile for the currently connected user. */
     private PlayerProfile playerProfile;
 
+    /** Session state of {@link #playerProfile}; every state-dependent handler goes through it. */
+    private ClientStateMachine clientState;
+
     /** Last known host used for connections. */
     private String currentHost = "0.0.0.0";
 
@@ -67,32 +126,72 @@ public class MainApp extends Application {
     /** UI module responsible for connection/login and reconnection screens. */
     private ConnectionUi connectionUi;
 
-    /** UI module responsible for rooms list and room creation dialog. */
+    /** UI module responsible for rooms list and room creation dialog; created by {@link #roomsUi()}. */
     private RoomsUi roomsUi;
 
-    /** UI module responsible for lobby representation. */
+    /** UI module responsible for lobby representation; created by {@link #lobbyUi()}. */
     private LobbyUi lobbyUi;
 
-    /** UI module responsible for the game scene (rounds, timer, moves). */
+    /** UI module responsible for the game scene (rounds, timer, moves); created by {@link #gameUi()}. */
     private GameUi gameUi;
 
+    /** Completes when {@link #initSession()} has set up the session on a background thread. */
+    private CompletableFuture<Void> sessionReady;
+
+    /** Times event handlers on the FX thread; null unless profiling is enabled. */
+    private HandlerProfiler handlerProfiler;
+
+    /** Reports stalled FX pulses; null unless profiling is enabled. */
+    private FxPulseMonitor pulseMonitor;
+
+    /** Local store of played rounds; null if history is disabled or could not be opened. */
+    private MatchHistory matchHistory;
+
+    /** Appends rounds of the local player to {@link #matchHistory}. */
+    private MatchRecorder matchRecorder;
+
     @Override
     public void start(Stage stage) {
         this.primaryStage = stage;
 
-        // Initialize components that are shared across the whole client.
-        networkManager = new NetworkManager();
-        eventBus = EventBus.createJavaFxBus();
-        protocolHandler = new ProtocolHandler(networkManager, eventBus);
-        reconnectionManager = new ReconnectionManager(networkManager, protocolHandler, eventBus);
+        // Only the login screen is built before the first frame; the other screens and their
+        // helpers are created on first use, and the session is set up off the FX thread.
+        connectionUi = new ConnectionUi();
 
-        playerProfile = new PlayerProfile();
+        screens = new ScreenManager(primaryStage, globalConnectionStatusLabel);
+        screens.register(ScreenManager.Screen.LOGIN, connectionUi::buildLoginRoot);
+        screens.register(ScreenManager.Screen.MANUAL_RECONNECT, connectionUi::buildManualReconnectRoot);
+        screens.register(ScreenManager.Screen.ROOMS, () -> roomsUi().buildRoomsRoot());
+        screens.register(ScreenManager.Screen.LOBBY, () -> lobbyUi().buildLobbyRoot());
+        screens.register(ScreenManager.Screen.GAME, () -> gameUi().buildGameRoot());
 
-        // Instantiate UI helpers that encapsulate scene construction.
-        connectionUi = new ConnectionUi();
-        roomsUi = new RoomsUi();
-        lobbyUi = new LobbyUi();
-        gameUi = new GameUi();
+        // Show initial login/connection scene.
+        primaryStage.setTitle("RPS Client");
+        screens.show(ScreenManager.Screen.LOGIN);
+        updateConnectionStatus(false);
+        primaryStage.show();
+        reportFirstFrame();
+
+        sessionReady = CompletableFuture.runAsync(this::initSession, ClientRuntime.shared().scheduler());
+        sessionReady.thenRun(() -> Platform.runLater(this::onSessionReady));
+    }
+
+    /**
+     * Creates the session, wires its handlers and opens the match history.
+     * <p>
+     * Input: none. Output: none. Runs on a runtime thread while the login screen is shown;
+     * nothing here touches the scene graph.
+     */
+    private void initSession() {
+        long startedAt = System.nanoTime();
+        session = new ClientSession(ClientRuntime.shared(), EventBus.createJavaFxBus());
+        networkManager = session.getNetworkManager();
+        eventBus = session.getEventBus();
+        protocolHandler = session.getProtocolHandler();
+        reconnectionManager = session.getReconnectionManager();
+        playerProfile = session.getPlayerProfile();
+        clientState = playerProfile.getStateMachine();
+        connectionWarmer = new ConnectionWarmer(networkManager, ClientRuntime.shared().scheduler());
 
         // Configure reconnection callbacks first to properly react on disconnects.
         setupReconnectionHandlers();
@@ -100,11 +199,110 @@ public class MainApp extends Application {
         // Configure event bus handlers before any UI actions trigger network calls.
         setupEventHandlers();
 
-        // Show initial login/connection scene.
-        primaryStage.setTitle("RPS Client");
-        primaryStage.setScene(connectionUi.buildLoginScene());
-        updateConnectionStatus(false);
-        primaryStage.show();
+        openMatchHistory();
+        LOG.info("Session ready in " + (System.nanoTime() - startedAt) / 1_000_000 + " ms off the FX thread");
+    }
+
+    /**
+     * Starts FX-side tooling that needs the session. Runs on the FX thread.
+     */
+    private void onSessionReady() {
+        // Only warms up if the user typed before the session was ready.
+        connectionUi.warmUpConnection();
+        if (Boolean.getBoolean(PROFILE_FX_PROPERTY)) {
+            startFxProfiling();
+        }
+        String training = System.getProperty(TRAINING_RUN_PROPERTY);
+        if (training != null && !training.isBlank()) {
+            new TrainingRun(training).start();
+        }
+    }
+
+    /**
+     * Waits for {@link #initSession()}; it normally finished long before the user can act.
+     *
+     * @return true if the session is usable, false if its setup failed.
+     */
+    private boolean awaitSession() {
+        try {
+            sessionReady.join();
+            return true;
+        } catch (CompletionException ex) {
+            LOG.log(Level.SEVERE, "Session setup failed", ex.getCause());
+            return false;
+        }
+    }
+
+    private RoomsUi roomsUi() {
+        if (roomsUi == null) {
+            roomsUi = new RoomsUi();
+        }
+        return roomsUi;
+    }
+
+    private LobbyUi lobbyUi() {
+        if (lobbyUi == null) {
+            lobbyUi = new LobbyUi();
+        }
+        return lobbyUi;
+    }
+
+    private GameUi gameUi() {
+        if (gameUi == null) {
+            gameUi = new GameUi();
+        }
+        return gameUi;
+    }
+
+    /**
+     * Logs the time from process start to the first laid-out frame.
+     * Input: none. Output: none. Side-effect: exits if {@value #EXIT_AFTER_FIRST_FRAME_PROPERTY} is set.
+     */
+    private void reportFirstFrame() {
+        Scene scene = primaryStage.getScene();
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            // Removed outside the pulse, the scene is iterating its listeners right now.
+            Platform.runLater(() -> scene.removePostLayoutPulseListener(listener[0]));
+            long startedAt = ProcessHandle.current().info().startInstant()
+                    .map(Instant::toEpochMilli)
+                    .orElse(CLASS_LOADED_AT_MILLIS);
+            LOG.info("Time to first frame: " + (System.currentTimeMillis() - startedAt) + " ms");
+            if (Boolean.getBoolean(EXIT_AFTER_FIRST_FRAME_PROPERTY)) {
+                Platform.exit();
+            }
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    /**
+     * Attaches handler profiler to the event bus and starts pulse stall detection.
+     * Input: none. Output: none. Side-effect: every listener invocation is timed.
+     */
+    private void startFxProfiling() {
+        handlerProfiler = new HandlerProfiler();
+        eventBus.setProfiler(handlerProfiler);
+        pulseMonitor = new FxPulseMonitor(handlerProfiler, PULSE_STALL_THRESHOLD_MS);
+        pulseMonitor.start();
+        LOG.info("FX handler profiling enabled");
+    }
+
+    /**
+     * Opens the local match history and starts recording games of this session.
+     * Input: none. Output: none. Side-effect: history stays disabled if the file cannot be opened.
+     */
+    private void openMatchHistory() {
+        String file = System.getProperty(HISTORY_FILE_PROPERTY,
+                Paths.get(System.getProperty("user.home"), ".rps", "match-history.dat").toString());
+        if (file.isBlank()) {
+            return;
+        }
+        try {
+            matchHistory = MatchHistory.open(Paths.get(file));
+            matchRecorder = new MatchRecorder(matchHistory, eventBus, playerProfile::getName);
+        } catch (IOException ex) {
+            LOG.warning("Match history disabled: " + ex.getMessage());
+        }
     }
 
     /**
@@ -113,7 +311,11 @@ public class MainApp extends Application {
      * and {@link ReconnectionManager}.
      */
     private void setupReconnectionHandlers() {
+        // Lines queued when the link drops are sent again once RECONNECT succeeds.
+        networkManager.setRetainUnsent(true);
+
         networkManager.setOnDisconnected(() -> {
+            protocolHandler.failPendingRequests(new IllegalStateException("Connection lost"));
             Platform.runLater(() -> updateConnectionStatus(false));
 
             if (playerProfile != null && playerProfile.getToken() != null) {
@@ -134,13 +336,13 @@ public class MainApp extends Application {
             networkManager.disconnect();
             Platform.runLater(() -> {
                 updateConnectionStatus(false);
-                playerProfile.setStatus(null);
-                primaryStage.setScene(connectionUi.buildManualReconnectScene());
+                clientState.fire(Trigger.RESET);
+                connectionUi.showManualReconnect();
             });
         });
 
         reconnectionManager.setOnAutoReconnectFailed(() ->
-                Platform.runLater(() -> primaryStage.setScene(connectionUi.buildManualReconnectScene())));
+                Platform.runLater(connectionUi::showManualReconnect));
 
         reconnectionManager.setOnReconnectSuccess(state -> Platform.runLater(() -> {
             updateConnectionStatus(true);
@@ -162,7 +364,7 @@ public class MainApp extends Application {
                 networkManager.disconnect();
                 showAlert("Disconnected", "Too many invalid messages received from server. Connection closed.");
                 updateConnectionStatus(false);
-                primaryStage.setScene(connectionUi.buildManualReconnectScene());
+                connectionUi.showManualReconnect();
             });
 
         });
@@ -171,50 +373,55 @@ public class MainApp extends Application {
         eventBus.subscribe("WELCOME", connectionUi::handleWelcome);
 
         // Server finished sending a rooms list.
-        eventBus.subscribe("R_LOADED", roomsUi::handleRoomsLoaded);
+        eventBus.subscribe("R_LIST", event -> roomsUi().handleRoomListHeader(event));
+        eventBus.subscribe("ROOM", event -> roomsUi().handleRoomRow(event));
+        eventBus.subscribe("R_LOADED", event -> roomsUi().handleRoomsLoaded(event));
 
         // Client joined a room and should see lobby scene.
-        eventBus.subscribe("R_JOINED", roomsUi::handleRoomJoined);
+        eventBus.subscribe("R_JOINED", event -> roomsUi().handleRoomJoined(event));
 
-        // Error message from server.
-        eventBus.subscribe("ERR", event -> {
-            String errorCode = event.getPart(1);
-            String errorMsg = event.getPartsCount() > 2 ? event.getPart(2) : "Unknown error";
-            if ("107".equals(errorCode)) {
-                networkManager.disconnect();
-            }
-            showAlert("Error", "Error " + errorCode + ": " + errorMsg);
-        });
+        // Error message from server that no request claimed.
+        eventBus.subscribe("ERR", this::showServerError);
 
         // Generic confirmation handler.
         eventBus.subscribe("OK", this::handleConfirmation);
 
         // Lobby-related events.
-        eventBus.subscribe("OPP_INF", lobbyUi::handleOpponentInfo);
-        eventBus.subscribe("P_JOINED", lobbyUi::handlePlayerJoined);
-        eventBus.subscribe("P_READY", lobbyUi::handlePlayerReady);
-        eventBus.subscribe("P_UNREADY", lobbyUi::handlePlayerUnready);
-        eventBus.subscribe("P_LEFT", lobbyUi::handlePlayerLeft);
+        eventBus.subscribe("OPP_INF", event -> lobbyUi().handleOpponentInfo(event));
+        eventBus.subscribe("P_JOINED", event -> lobbyUi().handlePlayerJoined(event));
+        eventBus.subscribe("P_READY", event -> lobbyUi().handlePlayerReady(event));
+        eventBus.subscribe("P_UNREADY", event -> lobbyUi().handlePlayerUnready(event));
+        eventBus.subscribe("P_LEFT", event -> lobbyUi().handlePlayerLeft(event));
 
         // Game start / game scene.
-        eventBus.subscribe("G_ST", gameUi::showGameScene);
+        eventBus.subscribe("G_ST", event -> gameUi().showGameScene(event));
 
         // Game round events.
-        eventBus.subscribe("R_ST", gameUi::handleRoundStart);
-        eventBus.subscribe("R_RE", gameUi::handleRoundResult);
-        eventBus.subscribe("G_END", gameUi::handleGameEnd);
+        eventBus.subscribe("R_ST", event -> gameUi().handleRoundStart(event));
+        eventBus.subscribe("R_RE", event -> gameUi().handleRoundResult(event));
+        eventBus.subscribe("G_END", event -> gameUi().handleGameEnd(event));
 
         // Game pause / resume events.
-        eventBus.subscribe("G_PAUSE", gameUi::handleGamePaused);
+        eventBus.subscribe("G_PAUSE", event -> gameUi().handleGamePaused(event));
 
-        eventBus.subscribe("G_RES", gameUi::handleGameResumed);
+        eventBus.subscribe("G_RES", event -> gameUi().handleGameResumed(event));
 
         // Move accepted by server.
-        eventBus.subscribe("M_ACC", event ->
-                Platform.runLater(() -> {
-                    gameUi.disableMoveButtons();
-                    gameUi.setGameStatusText("Waiting for opponent...");
-                }));
+        eventBus.subscribe("M_ACC", event -> gameUi().handleMoveAccepted(event));
+    }
+
+    /**
+     * Applies a session state trigger; a rejected one counts as an invalid server message.
+     *
+     * @param trigger trigger derived from the handled event.
+     * @return true if the event is valid in the current state.
+     */
+    private boolean accept(Trigger trigger) {
+        if (clientState.fire(trigger)) {
+            return true;
+        }
+        eventBus.recordInvalidEvent();
+        return false;
     }
 
     /**
@@ -225,8 +432,8 @@ public class MainApp extends Application {
     private void handleConfirmation(ServerEvent event) {
         String confirmedCommand = event.getPart(1);
         switch (confirmedCommand) {
-            case "you_are_ready" -> lobbyUi.onPlayerReadyConfirmed();
-            case "left_room" -> lobbyUi.onRoomLeave();
+            case "you_are_ready" -> lobbyUi().onPlayerReadyConfirmed();
+            case "left_room" -> lobbyUi().onRoomLeave();
             default -> {
                 // No-op for unknown confirmations.
             }
@@ -250,17 +457,17 @@ public class MainApp extends Application {
                 int round = Integer.parseInt(parts[3]);
                 char performedMove = parts.length >= 5 ? parts[4].charAt(0) : 'X';
 
-                playerProfile.setStatus(PlayerProfile.PlayerStatus.PLAYING);
-                primaryStage.setScene(gameUi.buildGameScene());
-                gameUi.updateScores(score1, score2);
+                clientState.fire(Trigger.RESUMED_IN_GAME);
+                gameUi().showGame();
+                gameUi().updateScores(score1, score2);
 
                 if (performedMove != 'X') {
-                    gameUi.disableMoveButtons();
-                    gameUi.setGameStatusText("Reconnected! Round " + round + " - Waiting for opponent...");
+                    gameUi().disableMoveButtons();
+                    gameUi().setGameStatusText("Reconnected! Round " + round + " - Waiting for opponent...");
                 } else {
-                    gameUi.enableMoveButtons();
-                    gameUi.setGameStatusText("Reconnected! Round " + round + " - Make your move!");
-                    gameUi.startTimer(10);
+                    gameUi().enableMoveButtons();
+                    gameUi().setGameStatusText("Reconnected! Round " + round + " - Make your move!");
+                    gameUi().startTimer(reconnectionManager.getLastConfirmedAtNanos());
                 }
             } else {
                 eventBus.recordInvalidEvent();
@@ -268,17 +475,17 @@ public class MainApp extends Application {
         } else if (state.startsWith("L")) {
             String[] parts = state.split(" ");
             if (playerProfile != null) {
-                playerProfile.setStatus(PlayerProfile.PlayerStatus.IN_LOBBY);
-                primaryStage.setScene(lobbyUi.buildLobbyScene("reconnected", playerProfile.getName()));
+                clientState.fire(Trigger.RESUMED_IN_LOBBY);
+                lobbyUi().showLobby(playerProfile.getName());
 
                 if (parts.length >= 2 && !"NONE".equals(parts[1])) {
                     String opponentNick = parts[1];
                     String opponentStatus = parts.length >= 3 ? parts[2] : "NOT_READY";
-                    lobbyUi.updateOpponentInfo(opponentNick, opponentStatus);
+                    lobbyUi().updateOpponentInfo(opponentNick, opponentStatus);
                 }
             }
         } else {
-            playerProfile.setStatus(PlayerProfile.PlayerStatus.AUTHENTICATED);
+            clientState.fire(Trigger.RESUMED_IN_ROOMS);
             protocolHandler.requestRooms();
         }
     }
@@ -287,7 +494,7 @@ public class MainApp extends Application {
      * Attempts to establish connection to server using values entered in login UI.
      * <p>
      * Input: user-entered nickname, host and port. Output: none.
-     * Side-effect: opens TCP connection and sends HELLO command.
+     * Side-effect: opens TCP connection off the FX thread and sends HELLO command once it is open.
      */
     private void connectToServer() {
         String nickname = connectionUi.getEnteredName().trim();
@@ -313,47 +520,117 @@ public class MainApp extends Application {
             showAlert("Error", "Enter server IP!");
             return;
         }
-        String[] hostParts = host.split("\\.");
-        if (hostParts.length != 4) {
+        if (!isValidIpv4(host)) {
             showAlert("Error", "Invalid IP address format!");
             return;
         }
+
+        int port = parsePort(connectionUi.getEnteredPort());
+        if (port < 0) {
+            showAlert("Error", "Invalid port number! Use 1-65535");
+            return;
+        }
+
+        if (!awaitSession()) {
+            showAlert("Error", "Client failed to start, see log for details.");
+            return;
+        }
+        currentHost = host;
+        currentPort = port;
+        reconnectionManager.setConnectionInfo(currentHost, currentPort);
+
+        connectPressedAt = System.nanoTime();
+        CompletableFuture<Void> warm = connectionWarmer.claim(host, port);
+        CompletableFuture<Void> connected = warm != null
+                ? warm.exceptionallyCompose(ex -> networkManager.connectAsync(host, port))
+                : networkManager.connectAsync(host, port);
+        connectionUi.setConnecting(true);
+        connected.whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                Platform.runLater(() -> {
+                    connectionUi.setConnecting(false);
+                    showAlert("Connection error", cause.getMessage());
+                    updateConnectionStatus(false);
+                });
+                return;
+            }
+            // Queued before HELLO is sent, so the status is set before WELCOME is handled.
+            Platform.runLater(() -> {
+                connectionUi.setConnecting(false);
+                clientState.fire(Trigger.CONNECT);
+                updateConnectionStatus(true);
+            });
+            protocolHandler.sendHello(nickname);
+        });
+    }
+
+    /**
+     * Checks dotted IPv4 address format.
+     *
+     * @param host entered host.
+     * @return true for four dot-separated numbers in 0-255.
+     */
+    private static boolean isValidIpv4(String host) {
+        String[] hostParts = host.split("\\.");
+        if (hostParts.length != 4) {
+            return false;
+        }
         for (String part : hostParts) {
             try {
                 int num = Integer.parseInt(part);
                 if (num < 0 || num > 255) {
-                    throw new NumberFormatException();
+                    return false;
                 }
             } catch (NumberFormatException e) {
-                showAlert("Error", "Invalid IP address format!");
-                return;
+                return false;
             }
         }
+        return true;
+    }
 
-        int port;
+    /**
+     * Parses entered port number.
+     *
+     * @param text entered port.
+     * @return port in 1-65535, or -1 if the text is not a valid port.
+     */
+    private static int parsePort(String text) {
         try {
-            port = Integer.parseInt(connectionUi.getEnteredPort().trim());
-            if (port < 1 || port > 65535) {
-                throw new NumberFormatException();
-            }
+            int port = Integer.parseInt(text.trim());
+            return port >= 1 && port <= 65535 ? port : -1;
         } catch (NumberFormatException e) {
-            showAlert("Error", "Invalid port number! Use 1-65535");
-            return;
+            return -1;
         }
+    }
 
-        currentHost = host;
-        currentPort = port;
-        reconnectionManager.setConnectionInfo(currentHost, currentPort);
-
-        try {
-            networkManager.connect(currentHost, currentPort);
+    /**
+     * Reacts to an error reported by the server: shows it and drops the connection on 107.
+     *
+     * @param event event with command {@code ERR}.
+     */
+    private void showServerError(ServerEvent event) {
+        String errorCode = event.getPart(1);
+        String errorMsg = event.getPartsCount() > 2 ? event.getPart(2) : "Unknown error";
+        if ("107".equals(errorCode)) {
+            networkManager.disconnect();
+        }
+        showAlert("Error", "Error " + errorCode + ": " + errorMsg);
+    }
 
-            this.playerProfile.setStatus(PlayerProfile.PlayerStatus.CONNECTED);
-            updateConnectionStatus(true);
-            protocolHandler.sendHello(nickname);
-        } catch (Exception ex) {
-            showAlert("Connection error", ex.getMessage());
-            updateConnectionStatus(false);
+    /**
+     * Reports a failed request. Server errors are shown like unclaimed ones; other failures
+     * (timeout, lost connection) are only logged, as the connection status already shows them.
+     *
+     * @param failure failure of the request future.
+     */
+    private void showRequestFailure(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof ServerErrorException) {
+            showServerError(((ServerErrorException) cause).getEvent());
+        } else {
+            LOG.log(Level.INFO, "Request failed: " + cause.getMessage());
         }
     }
 
@@ -406,10 +683,41 @@ public class MainApp extends Application {
     @Override
     public void stop() throws Exception {
         super.stop();
-        gameUi.stopTimer();
-        eventBus.clear();
-        networkManager.disconnect();
-        reconnectionManager.shutdown();
+        if (pulseMonitor != null) {
+            pulseMonitor.stop();
+            LOG.info("Stalled FX pulses: " + pulseMonitor.getStallCount());
+        }
+        if (handlerProfiler != null) {
+            handlerProfiler.logReport(10);
+        }
+        if (gameUi != null) {
+            gameUi.stopTimer();
+        }
+        if (!sessionReady.isDone()) {
+            // The runtime thread setting it up can be held up by a connect; never wait on the FX thread.
+            LOG.info("Exiting before session setup finished, closing it once it does");
+            sessionReady.thenRun(this::closeSession);
+            return;
+        }
+        if (awaitSession()) {
+            closeSession();
+        }
+    }
+
+    /**
+     * Closes the session and the match history. Runs on the FX thread from {@link #stop()}, or
+     * on the runtime thread if the application stopped before the session was set up.
+     */
+    private void closeSession() {
+        connectionWarmer.discard();
+        if (clientState.getRejectedTotal() > 0) {
+            LOG.info("Rejected state transitions: " + clientState.describeRejections());
+        }
+        session.close();
+        if (matchHistory != null) {
+            matchRecorder.close();
+            matchHistory.close();
+        }
     }
 
     /**
@@ -436,17 +744,30 @@ public class MainApp extends Application {
         private Button connectButton;
         private Button listRoomsButton;
 
+        /** True between pressing Connect and the socket being open or failing. */
+        private boolean connecting;
+
+        /**
+         * True once the user typed into the login form. Before that no connection is warmed up,
+         * as the default address would otherwise hold a server slot while the screen sits idle.
+         * The name field has the focus from launch, so typing rather than focus counts.
+         */
+        private boolean userTyped;
+
+        /** Server address shown on the manual reconnect screen. */
+        private final StringProperty serverInfo = new SimpleStringProperty();
+
         /**
-         * Builds the initial login scene with fields for nickname, host and port.
+         * Builds the login screen with fields for nickname, host and port.
+         * Called once by {@link ScreenManager}.
          *
-         * @return fully configured {@link Scene} instance.
+         * @return root node of the login screen.
          */
-        Scene buildLoginScene() {
+        Region buildLoginRoot() {
             VBox layout = new VBox(10);
             layout.setStyle("-fx-padding: 20;");
             layout.setAlignment(Pos.CENTER);
-
-            layout.getChildren().add(globalConnectionStatusLabel);
+            layout.setPrefSize(350, 400);
 
             Label titleLabel = new Label("Connect to Server");
             titleLabel.setStyle("-fx-font-size: 18; -fx-font-weight: bold;");
@@ -461,6 +782,10 @@ public class MainApp extends Application {
             portField = new TextField("2500");
             portField.setPromptText("Server Port");
 
+            nameField.textProperty().addListener((obs, oldValue, newValue) -> onLoginEdited());
+            hostField.textProperty().addListener((obs, oldValue, newValue) -> onLoginEdited());
+            portField.textProperty().addListener((obs, oldValue, newValue) -> onLoginEdited());
+
             connectButton = new Button("Connect");
             connectButton.setPrefWidth(200);
 
@@ -479,23 +804,43 @@ public class MainApp extends Application {
                     listRoomsButton
             );
 
-            playerProfile = new PlayerProfile();
+            return layout;
+        }
 
-            return new Scene(layout, 350, 400);
+        private void onLoginEdited() {
+            userTyped = true;
+            warmUpConnection();
         }
 
         /**
-         * Builds a manual reconnect scene that is shown when automatic reconnect fails.
+         * Pre-connects to the entered address once it is valid and drops the warm connection
+         * when it no longer is. Does nothing before the user typed or while a session is connected.
+         */
+        void warmUpConnection() {
+            if (!userTyped || sessionReady == null || !sessionReady.isDone() || sessionReady.isCompletedExceptionally()
+                    || clientState.current() != PlayerProfile.PlayerStatus.DISCONNECTED || connecting) {
+                return;
+            }
+            String host = getEnteredHost().trim();
+            int port = parsePort(getEnteredPort());
+            if (isValidIpv4(host) && port > 0) {
+                connectionWarmer.prepare(host, port);
+            } else {
+                connectionWarmer.discard();
+            }
+        }
+
+        /**
+         * Builds the manual reconnect screen that is shown when automatic reconnect fails.
+         * Called once by {@link ScreenManager}.
          *
-         * @return new {@link Scene} representing manual reconnect UI.
+         * @return root node of the manual reconnect screen.
          */
-        Scene buildManualReconnectScene() {
+        Region buildManualReconnectRoot() {
             VBox layout = new VBox(20);
             layout.setAlignment(Pos.CENTER);
             layout.setStyle("-fx-padding: 40;");
-
-            layout.getChildren().add(globalConnectionStatusLabel);
-            updateConnectionStatus(false);
+            layout.setPrefSize(400, 350);
 
             Label titleLabel = new Label("Connection Lost");
             titleLabel.setStyle("-fx-font-size: 24; -fx-font-weight: bold;");
@@ -504,7 +849,8 @@ public class MainApp extends Application {
             messageLabel.setStyle("-fx-font-size: 14; -fx-text-alignment: center;");
             messageLabel.setWrapText(true);
 
-            Label serverInfoLabel = new Label("Server: " + currentHost + ":" + currentPort);
+            Label serverInfoLabel = new Label();
+            serverInfoLabel.textProperty().bind(serverInfo);
             serverInfoLabel.setStyle("-fx-font-size: 12; -fx-text-fill: gray;");
 
             Button resetButton = new Button("Start Over");
@@ -512,7 +858,26 @@ public class MainApp extends Application {
             resetButton.setOnAction(e -> resetToLogin());
 
             layout.getChildren().addAll(titleLabel, messageLabel, serverInfoLabel, resetButton);
-            return new Scene(layout, 400, 350);
+            return layout;
+        }
+
+        /**
+         * Shows the manual reconnect screen with the last used server address.
+         */
+        void showManualReconnect() {
+            serverInfo.set("Server: " + currentHost + ":" + currentPort);
+            updateConnectionStatus(false);
+            screens.show(ScreenManager.Screen.MANUAL_RECONNECT);
+        }
+
+        /**
+         * Locks the Connect button while a connect started from it is in flight.
+         *
+         * @param inProgress true while connecting.
+         */
+        void setConnecting(boolean inProgress) {
+            connecting = inProgress;
+            connectButton.setDisable(inProgress);
         }
 
         /**
@@ -529,7 +894,7 @@ public class MainApp extends Application {
          * Resets state back to the login scene while keeping last host/port values.
          */
         private void resetToLogin() {
-            playerProfile = null;
+            playerProfile.reset();
             if (nameField != null) {
                 nameField.clear();
             }
@@ -539,21 +904,20 @@ public class MainApp extends Application {
             if (listRoomsButton != null) {
                 listRoomsButton.setDisable(true);
             }
-            primaryStage.setScene(buildLoginScene());
+            screens.show(ScreenManager.Screen.LOGIN);
         }
 
         void handleWelcome(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.CONNECTED) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.WELCOME)) {
                 return;
             }
             String token = event.getPart(1);
             playerProfile.setName(connectionUi.getEnteredName());
             playerProfile.setToken(token);
-            playerProfile.setStatus(PlayerProfile.PlayerStatus.AUTHENTICATED);
 
             connectionUi.onConnected(token);
             updateConnectionStatus(true);
+            LOG.info("Logged in " + (System.nanoTime() - connectPressedAt) / 1_000_000 + " ms after Connect");
         }
 
         String getEnteredName() {
@@ -574,59 +938,93 @@ public class MainApp extends Application {
      */
     private final class RoomsUi {
 
-        Scene buildRoomsScene(List<String> roomsRaw) {
+        /** Room data; updated in place from ROOM rows. */
+        private final RoomRegistry registry = new RoomRegistry();
+
+        /** Name trie and status buckets kept in sync with {@link #registry}. */
+        private final RoomIndex index = new RoomIndex(registry);
+
+        /** Joins the best cached open room, creating one if none is left. */
+        private final QuickMatch quickMatch = new QuickMatch(protocolHandler, new OpenRoomQueue(registry),
+                () -> playerProfile != null ? playerProfile.getName() : "player",
+                Platform::runLater, MainApp.this::showRequestFailure);
+
+        /** Registry views matching the current filter. */
+        private final ObservableList<GameRoom> rooms = FXCollections.observableArrayList();
+
+        /** Filter values; the list is re-queried whenever one of them changes. */
+        private final StringProperty namePrefix = new SimpleStringProperty("");
+        private final ObjectProperty<RoomStatus> statusFilter = new SimpleObjectProperty<>();
+        private final BooleanProperty mostPlayersFirst = new SimpleBooleanProperty(false);
+
+        /** Room counts per status shown above the list. */
+        private final StringProperty statusSummary = new SimpleStringProperty("");
+
+        /** List showing {@link #rooms}; null until the screen is built. */
+        private ListView<GameRoom> listView;
+
+        /** True between R_LIST and R_LOADED. */
+        private boolean receivingList;
+
+        /** Sequence of the last R_JOINED; a list sent before it ended while joining the room. */
+        private long roomJoinedSequence;
+
+        /** Index version reflected by {@link #rooms}; -1 forces a query. */
+        private int shownVersion = -1;
+
+        /** True while a filter run is queued on the FX thread. */
+        private boolean filterScheduled;
+
+        RoomsUi() {
+            namePrefix.addListener((obs, oldValue, newValue) -> applyFilter(true));
+            statusFilter.addListener((obs, oldValue, newValue) -> applyFilter(true));
+            mostPlayersFirst.addListener((obs, oldValue, newValue) -> applyFilter(true));
+        }
+
+        /**
+         * Builds the rooms list screen bound to {@link #rooms}.
+         * Called once by {@link ScreenManager}.
+         *
+         * @return root node of the rooms screen.
+         */
+        Region buildRoomsRoot() {
             VBox layout = new VBox(10);
             layout.setStyle("-fx-padding: 20;");
-
-            layout.getChildren().add(globalConnectionStatusLabel);
+            layout.setPrefSize(400, 400);
 
             Label title = new Label("List of rooms:");
 
-            List<GameRoom> roomItems = new ArrayList<>();
-            for (String raw : roomsRaw) {
-                String[] parts = raw.split(" ");
-                if (parts.length >= 4) {
-                    roomItems.add(new GameRoom(
-                            Integer.parseInt(parts[0]),
-                            parts[1],
-                            Integer.parseInt(parts[2].split("/")[0]),
-                            parts[3]
-                    ));
-                }
-            }
+            TextField filterField = new TextField();
+            filterField.setPromptText("Filter by name");
+            namePrefix.bind(filterField.textProperty());
 
-            ListView<GameRoom> listView = new ListView<>();
-            listView.getItems().addAll(roomItems);
+            ComboBox<RoomStatus> statusBox = new ComboBox<>();
+            statusBox.getItems().add(null);
+            statusBox.getItems().addAll(RoomStatus.OPEN, RoomStatus.FULL, RoomStatus.PLAYING, RoomStatus.PAUSED);
+            statusBox.setButtonCell(createStatusCell());
+            statusBox.setCellFactory(lv -> createStatusCell());
+            statusFilter.bind(statusBox.valueProperty());
 
-            listView.setCellFactory(lv -> new ListCell<>() {
-                private final Button joinButton = new Button("Join");
-                private final HBox hbox = new HBox(10);
+            CheckBox fullestFirst = new CheckBox("Most players first");
+            mostPlayersFirst.bind(fullestFirst.selectedProperty());
 
-                {
-                    joinButton.setOnAction(e -> {
-                        GameRoom item = getItem();
-                        if (item != null) {
-                            protocolHandler.joinRoom(String.valueOf(item.getId()));
-                        }
-                    });
-                }
+            HBox filters = new HBox(10, filterField, statusBox, fullestFirst);
+            filters.setAlignment(Pos.CENTER_LEFT);
+            HBox.setHgrow(filterField, Priority.ALWAYS);
 
-                @Override
-                protected void updateItem(GameRoom item, boolean empty) {
-                    super.updateItem(item, empty);
-                    if (empty || item == null) {
-                        setText(null);
-                        setGraphic(null);
-                    } else {
-                        Label nameLabel = new Label(item.toString());
-                        hbox.getChildren().setAll(nameLabel);
-                        if ("OPEN".equals(item.getStatus())) {
-                            hbox.getChildren().setAll(nameLabel, joinButton);
+            Label summary = new Label();
+            summary.textProperty().bind(statusSummary);
+
+            listView = new ListView<>(rooms);
+            VBox.setVgrow(listView, Priority.ALWAYS);
+
+            listView.setFixedCellSize(RoomCell.HEIGHT);
+            listView.setCellFactory(lv -> new RoomCell(room -> protocolHandler.joinRoom(String.valueOf(room.getId()))
+                    .whenCompleteAsync((event, ex) -> {
+                        if (ex != null) {
+                            showRequestFailure(ex);
                         }
-                        setGraphic(hbox);
-                    }
-                }
-            });
+                    }, Platform::runLater)));
 
             Button createRoomButton = new Button("Create room");
             createRoomButton.setOnAction(e -> showCreateRoomDialog());
@@ -634,10 +1032,99 @@ public class MainApp extends Application {
             Button refreshButton = new Button("Refresh");
             refreshButton.setOnAction(e -> protocolHandler.requestRooms());
 
-            HBox buttons = new HBox(10, createRoomButton, refreshButton);
-            layout.getChildren().addAll(title, listView, buttons);
+            Button quickMatchButton = new Button("Quick match");
+            quickMatchButton.setOnAction(e -> quickMatch.start());
+
+            HBox buttons = new HBox(10, quickMatchButton, createRoomButton, refreshButton);
+            layout.getChildren().addAll(title, filters, summary, listView, buttons);
+
+            return layout;
+        }
+
+        private ListCell<RoomStatus> createStatusCell() {
+            return new ListCell<>() {
+                @Override
+                protected void updateItem(RoomStatus item, boolean empty) {
+                    super.updateItem(item, empty);
+                    setText(empty ? null : item == null ? "All" : item.name());
+                }
+            };
+        }
+
+        /**
+         * Starts a new room list; rooms not listed before R_LOADED are dropped.
+         *
+         * @param event event with command {@code R_LIST}.
+         */
+        void handleRoomListHeader(ServerEvent event) {
+            registry.beginUpdate();
+            receivingList = true;
+        }
+
+        /**
+         * Applies one ROOM row as it arrives; the visible list follows once per FX pulse.
+         * A row arriving after its list was flushed is merged by room id like any other.
+         *
+         * @param event event with command {@code ROOM}.
+         */
+        void handleRoomRow(ServerEvent event) {
+            if (quickMatch.isStaleRow(event)) {
+                LOG.fine("Room row older than its refused join ignored: " + event.getFullMessage());
+                return;
+            }
+            String row = event.getFullMessage();
+            if (!registry.applyRow(row, "ROOM ".length(), row.length())) {
+                LOG.warning("Malformed room row ignored: " + row);
+                return;
+            }
+            if (index.getVersion() != shownVersion && !filterScheduled) {
+                filterScheduled = true;
+                Platform.runLater(() -> {
+                    filterScheduled = false;
+                    applyFilter(false);
+                });
+            }
+        }
 
-            return new Scene(layout, 400, 400);
+        /**
+         * Finishes the room list and shows the rooms screen.
+         */
+        void showRooms() {
+            if (receivingList) {
+                receivingList = false;
+                int changes = registry.endUpdate();
+                if ((changes & RoomRegistry.STRUCTURE_CHANGED) != 0) {
+                    // Compaction moved rooms to other slots; views in the list must be re-bound.
+                    shownVersion = -1;
+                }
+            }
+            applyFilter(false);
+            screens.show(ScreenManager.Screen.ROOMS);
+        }
+
+        /**
+         * Re-queries the index with the current filter.
+         *
+         * @param force true if the filter itself changed.
+         */
+        private void applyFilter(boolean force) {
+            int version = index.getVersion();
+            if (!force && version == shownVersion) {
+                return;
+            }
+            shownVersion = version;
+            int[] slots = index.query(namePrefix.get(), statusFilter.get(), mostPlayersFirst.get());
+            List<GameRoom> views = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                views.add(registry.viewAt(slot));
+            }
+            rooms.setAll(views);
+            if (listView != null) {
+                listView.refresh();
+            }
+            statusSummary.set(String.format("Open %d, full %d, playing %d, paused %d",
+                    index.countByStatus(RoomStatus.OPEN), index.countByStatus(RoomStatus.FULL),
+                    index.countByStatus(RoomStatus.PLAYING), index.countByStatus(RoomStatus.PAUSED)));
         }
 
         /**
@@ -675,7 +1162,11 @@ public class MainApp extends Application {
                     return;
                 }
 
-                protocolHandler.createRoom(roomName);
+                protocolHandler.createRoom(roomName).whenCompleteAsync((event, ex) -> {
+                    if (ex != null) {
+                        showRequestFailure(ex);
+                    }
+                }, Platform::runLater);
                 dialog.close();
             });
 
@@ -688,27 +1179,25 @@ public class MainApp extends Application {
         }
 
         void handleRoomsLoaded(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.AUTHENTICATED) {
-                eventBus.recordInvalidEvent();
+            // Room lists use the bulk lane, so the reply to a later JOIN may be delivered first.
+            if (event.getSequence() < roomJoinedSequence) {
+                LOG.fine("Room list sent before joining a room ignored");
+                return;
+            }
+            if (!accept(Trigger.ROOMS_LOADED)) {
                 return;
             }
-            String roomsData = event.getPart(1);
-            List<String> roomList = roomsData != null && !roomsData.isEmpty()
-                    ? List.of(roomsData.split("\\|"))
-                    : new ArrayList<>();
-            primaryStage.setScene(roomsUi.buildRoomsScene(roomList));
+            showRooms();
             updateConnectionStatus(isConnected);
         }
 
         void handleRoomJoined(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.AUTHENTICATED) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.ROOM_JOINED)) {
                 return;
             }
+            roomJoinedSequence = event.getSequence();
 
-            String roomId = event.getPart(1);
-            playerProfile.setStatus(PlayerProfile.PlayerStatus.IN_LOBBY);
-            primaryStage.setScene(lobbyUi.buildLobbyScene(roomId, playerProfile != null ? playerProfile.getName() : ""));
+            lobbyUi().showLobby(playerProfile != null ? playerProfile.getName() : "");
             updateConnectionStatus(isConnected);
         }
     }
@@ -723,22 +1212,22 @@ public class MainApp extends Application {
         private Label playerStatusLabel;
         private Button readyButton;
 
+        /** Nickname of the local player shown in the lobby. */
+        private final StringProperty playerName = new SimpleStringProperty("");
+
         /**
-         * Builds the lobby scene for a given room and local player.
+         * Builds the lobby screen; player-specific values are bound through properties.
+         * Called once by {@link ScreenManager}.
          *
-         * @param roomId     room identifier string or description.
-         * @param playerName local player's nickname.
-         * @return new {@link Scene} instance representing lobby layout.
+         * @return root node of the lobby screen.
          */
-        Scene buildLobbyScene(String roomId, String playerName) {
+        Region buildLobbyRoot() {
             BorderPane lobbyLayout = new BorderPane();
             lobbyLayout.setStyle("-fx-padding: 20;");
+            lobbyLayout.setPrefSize(500, 300);
 
             VBox topBox = new VBox(5);
 
-            // общий лейбл
-            topBox.getChildren().add(globalConnectionStatusLabel);
-
             Button backButton = new Button("Back");
             backButton.setOnAction(e -> {
                 protocolHandler.leaveRoom();
@@ -750,7 +1239,8 @@ public class MainApp extends Application {
 
             VBox playerBox = new VBox(10);
             playerBox.setStyle("-fx-border-color: black; -fx-padding: 10;");
-            Label playerLabel = new Label("You: " + playerName);
+            Label playerLabel = new Label();
+            playerLabel.textProperty().bind(Bindings.concat("You: ", playerName));
             playerStatusLabel = new Label("Status: Not ready");
             readyButton = new Button("Ready");
             playerBox.getChildren().addAll(playerLabel, playerStatusLabel, readyButton);
@@ -765,17 +1255,29 @@ public class MainApp extends Application {
             lobbyLayout.setRight(opponentBox);
 
             readyButton.setOnAction(e -> protocolHandler.markReady());
-            protocolHandler.requestOpponentInfo();
 
-            return new Scene(lobbyLayout, 500, 300);
+            return lobbyLayout;
+        }
+
+        /**
+         * Shows the lobby screen reset to initial state and asks server for opponent info.
+         *
+         * @param name local player's nickname.
+         */
+        void showLobby(String name) {
+            screens.show(ScreenManager.Screen.LOBBY);
+            playerName.set(name);
+            playerStatusLabel.setText("Status: Not ready");
+            readyButton.setDisable(false);
+            opponentLabel.setText("Enemy: -");
+            opponentStatusLabel.setText("Status: -");
+            protocolHandler.requestOpponentInfo();
         }
 
         void onRoomLeave() {
-            playerProfile.setStatus(PlayerProfile.PlayerStatus.AUTHENTICATED);
-            opponentLabel = null;
-            opponentStatusLabel = null;
-            playerStatusLabel = null;
-            readyButton = null;
+            if (!accept(Trigger.LEFT_ROOM)) {
+                return;
+            }
             protocolHandler.requestRooms();
         }
 
@@ -783,7 +1285,9 @@ public class MainApp extends Application {
          * Called by confirmation handler when server acknowledges that current player is ready.
          */
         void onPlayerReadyConfirmed() {
-            playerProfile.setStatus(PlayerProfile.PlayerStatus.READY);
+            if (!accept(Trigger.READY_CONFIRMED)) {
+                return;
+            }
             if (readyButton != null) {
                 readyButton.setDisable(true);
             }
@@ -798,9 +1302,7 @@ public class MainApp extends Application {
          * @param event event with command {@code OPPONENT_INFO}.
          */
         public void handleOpponentInfo(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.IN_LOBBY
-            && playerProfile.getStatus() != PlayerProfile.PlayerStatus.READY) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.ROOM_UPDATE)) {
                 return;
             }
 
@@ -825,9 +1327,7 @@ public class MainApp extends Application {
          * @param event event with command {@code PLAYER_JOINED}.
          */
         void handlePlayerJoined(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.IN_LOBBY
-            && playerProfile.getStatus() != PlayerProfile.PlayerStatus.READY) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.ROOM_UPDATE)) {
                 return;
             }
             String opponentName = event.getPart(1);
@@ -846,9 +1346,7 @@ public class MainApp extends Application {
          * @param event event with command {@code PLAYER_READY}.
          */
         void handlePlayerReady(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.IN_LOBBY
-            && playerProfile.getStatus() != PlayerProfile.PlayerStatus.READY) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.ROOM_UPDATE)) {
                 return;
             }
             String readyPlayer = event.getPart(1);
@@ -870,9 +1368,7 @@ public class MainApp extends Application {
          * @param event event with command {@code PLAYER_UNREADY}.
          */
         void handlePlayerUnready(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.IN_LOBBY
-            && playerProfile.getStatus() != PlayerProfile.PlayerStatus.READY) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.ROOM_UPDATE)) {
                 return;
             }
             String unreadyPlayer = event.getPart(1);
@@ -894,9 +1390,7 @@ public class MainApp extends Application {
          * @param event event with command {@code PLAYER_LEFT}.
          */
         void handlePlayerLeft(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.IN_LOBBY
-            && playerProfile.getStatus() != PlayerProfile.PlayerStatus.READY) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.ROOM_UPDATE)) {
                 return;
             }
             if (opponentLabel != null) {
@@ -934,37 +1428,64 @@ public class MainApp extends Application {
         private Button rockButton;
         private Button paperButton;
         private Button scissorsButton;
-        private Timeline gameTimer;
-        private int remainingTime;
+        private final RoundCountdown countdown = new RoundCountdown(this::showRemainingTime);
+
+        /** Reply of the move sent optimistically and not yet confirmed by M_ACC, or null. */
+        private CompletableFuture<ServerEvent> pendingMove;
+
+        /** Status text shown before the pending move, restored on rollback. */
+        private String statusBeforeMove;
+
+        /** {@link System#nanoTime()} of the click that produced {@link #pendingMove}. */
+        private long moveClickedAt;
+
+        /** Moves confirmed by server, used for feedback latency averages. */
+        private long confirmedMoves;
+
+        /** Optimistic updates whose frame was measured. */
+        private long optimisticFrames;
+
+        /** Sum of click-to-frame latency of the optimistic UI update, up to the pulse laying it out. */
+        private long totalOptimisticNanos;
+
+        /** Sum of click-to-M_ACC latency, i.e. feedback delay without optimistic update. */
+        private long totalConfirmedNanos;
+
+        /** Score of the local player bound to its label. */
+        private final IntegerProperty playerScore = new SimpleIntegerProperty();
+
+        /** Score of the opponent bound to its label. */
+        private final IntegerProperty opponentScore = new SimpleIntegerProperty();
 
         /**
-         * Builds a new game scene and initializes all UI elements for a match.
+         * Builds the game screen and initializes all UI elements.
+         * Called once by {@link ScreenManager}.
          *
-         * @return {@link Scene} representing game view.
+         * @return root node of the game screen.
          */
-        Scene buildGameScene() {
+        Region buildGameRoot() {
             BorderPane gameLayout = new BorderPane();
             gameLayout.setStyle("-fx-padding: 20;");
+            gameLayout.setPrefSize(600, 500);
 
             VBox topContainer = new VBox(10);
             topContainer.setAlignment(Pos.CENTER);
 
-            // общий лейбл
-            topContainer.getChildren().add(globalConnectionStatusLabel);
-
             HBox scoreBox = new HBox(50);
             scoreBox.setAlignment(Pos.CENTER);
             scoreBox.setStyle("-fx-padding: 10;");
 
-            playerScoreLabel = new Label("You: 0");
+            playerScoreLabel = new Label();
+            playerScoreLabel.textProperty().bind(Bindings.concat("You: ", playerScore));
             playerScoreLabel.setStyle("-fx-font-size: 20; -fx-font-weight: bold;");
 
-            opponentScoreLabel = new Label("Opponent: 0");
+            opponentScoreLabel = new Label();
+            opponentScoreLabel.textProperty().bind(Bindings.concat("Opponent: ", opponentScore));
             opponentScoreLabel.setStyle("-fx-font-size: 20; -fx-font-weight: bold;");
 
             scoreBox.getChildren().addAll(playerScoreLabel, opponentScoreLabel);
 
-            timerLabel = new Label("Time: 30");
+            timerLabel = new Label("Time: " + ROUND_TIMEOUT_SECONDS);
             timerLabel.setStyle("-fx-font-size: 18; -fx-padding: 10;");
             timerLabel.setAlignment(Pos.CENTER);
 
@@ -1006,7 +1527,21 @@ public class MainApp extends Application {
             gameLayout.setBottom(buttonBox);
 
             disableMoveButtons();
-            return new Scene(gameLayout, 600, 500);
+            return gameLayout;
+        }
+
+        /**
+         * Shows the game screen reset to the state of a fresh match.
+         */
+        void showGame() {
+            screens.show(ScreenManager.Screen.GAME);
+            stopTimer();
+            pendingMove = null;
+            updateScores(0, 0);
+            timerLabel.setText("Time: " + ROUND_TIMEOUT_SECONDS);
+            gameStatusLabel.setText("Waiting for round to start...");
+            resultLabel.setText("");
+            disableMoveButtons();
         }
 
         /**
@@ -1015,12 +1550,10 @@ public class MainApp extends Application {
          * @param event server event with command {@code GAME_START}.
          */
         void showGameScene(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.READY) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.GAME_STARTED)) {
                 return;
             }
-            playerProfile.setStatus(PlayerProfile.PlayerStatus.PLAYING);
-            primaryStage.setScene(buildGameScene());
+            showGame();
             updateConnectionStatus(isConnected);
         }
 
@@ -1030,16 +1563,14 @@ public class MainApp extends Application {
          * @param event event with command {@code ROUND_START}.
          */
         void handleRoundStart(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.PLAYING) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.ROUND_UPDATE)) {
                 return;
             }
             int roundNumber = Integer.parseInt(event.getPart(1));
-            Platform.runLater(() -> {
-                enableMoveButtons();
-                setGameStatusText("Round " + roundNumber + " - Make your move!");
-                startTimer(10);
-            });
+            pendingMove = null;
+            enableMoveButtons();
+            setGameStatusText("Round " + roundNumber + " - Make your move!");
+            startTimer(event.getReceivedAtNanos());
         }
 
         /**
@@ -1048,36 +1579,31 @@ public class MainApp extends Application {
          * @param event event with command {@code ROUND_RESULT}.
          */
         void handleRoundResult(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.PLAYING) {
+            if (!accept(Trigger.ROUND_UPDATE)) {
+                return;
+            }
+            RoundResult result;
+            try {
+                result = RoundResult.parse(event);
+            } catch (IllegalArgumentException ex) {
+                LOG.warning(ex.getMessage());
                 eventBus.recordInvalidEvent();
                 return;
             }
-            String winner = event.getPart(1);
-            char movePlayers = event.getPart(2).charAt(0);
-            char moveOpponents = event.getPart(3).charAt(0);
-            int scorePlayers = Integer.parseInt(event.getPart(4));
-            int scoreOpponents = Integer.parseInt(event.getPart(5));
-
-            Platform.runLater(() -> {
-                stopTimer();
-                updateScores(scorePlayers, scoreOpponents);
-
-                String moveStr1 = getMoveString(movePlayers);
-                String moveStr2 = getMoveString(moveOpponents);
-
-                String resultText;
-                if ("D".equals(winner)) {
-                    resultText = "Draw! You: " + moveStr1 + " vs " + moveStr2;
-                } else if ("T".equals(winner)) {
-                    resultText = "Timeout! You: " + moveStr1 + " vs " + moveStr2;
-                } else if (winner.equals("1")) {
-                    resultText = "You win! You: " + moveStr1 + " vs " + moveStr2;
-                } else {
-                    resultText = "You lose! You: " + moveStr1 + " vs " + moveStr2;
-                }
+            pendingMove = null;
+            stopTimer();
+            updateScores(result.getYourScore(), result.getOpponentScore());
+
+            String moves = "You: " + getMoveString(result.getYourMove())
+                    + " vs " + getMoveString(result.getOpponentMove());
+            String resultText = switch (result.getOutcome()) {
+                case DRAW -> "Draw! " + moves;
+                case TIMEOUT -> "Timeout! " + moves;
+                case WIN -> "You win! " + moves;
+                case LOSS -> "You lose! " + moves;
+            };
 
-                setResultText(resultText);
-            });
+            setResultText(resultText);
         }
 
         /**
@@ -1086,36 +1612,31 @@ public class MainApp extends Application {
          * @param event event with command {@code GAME_END}.
          */
         void handleGameEnd(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.PLAYING) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.GAME_ENDED)) {
                 return;
             }
             String winner = event.getPart(1);
-            Platform.runLater(() -> {
-                stopTimer();
-                if ("opp_l".equals(winner)) {
-                    disableMoveButtons();
-                    setGameStatusText("Game ended - opponent left the game.");
-                    showAlert("Game Ended", "Opponent has left the game. You win by default!");
-                } else if ("D".equals(winner)) {
-                    disableMoveButtons();
-                    setGameStatusText("Game ended - exceeded maximum amount of rounds.");
-                    showAlert("Game Ended", "exceeded maximum amount of rounds. The game is a draw!");
-                } else {
-                    setGameStatusText("Game ended!");
-                    String message = (playerProfile != null && winner.equals(playerProfile.getName()))
-                            ? "Congratulations! You won the game!"
-                            : "Game Over! " + winner + " won!";
-                    showAlert("Game Finished", message);
-                }
-                playerProfile.setStatus(PlayerProfile.PlayerStatus.AUTHENTICATED);
-                protocolHandler.requestRooms();
-            });
+            stopTimer();
+            if ("opp_l".equals(winner)) {
+                disableMoveButtons();
+                setGameStatusText("Game ended - opponent left the game.");
+                showAlert("Game Ended", "Opponent has left the game. You win by default!");
+            } else if ("D".equals(winner)) {
+                disableMoveButtons();
+                setGameStatusText("Game ended - exceeded maximum amount of rounds.");
+                showAlert("Game Ended", "exceeded maximum amount of rounds. The game is a draw!");
+            } else {
+                setGameStatusText("Game ended!");
+                String message = (playerProfile != null && winner.equals(playerProfile.getName()))
+                        ? "Congratulations! You won the game!"
+                        : "Game Over! " + winner + " won!";
+                showAlert("Game Finished", message);
+            }
+            protocolHandler.requestRooms();
         }
 
         void handleGamePaused(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.PLAYING) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.ROUND_UPDATE)) {
                 return;
             }
             stopTimer();
@@ -1125,8 +1646,7 @@ public class MainApp extends Application {
         }
 
         void handleGameResumed(ServerEvent event) {
-            if (playerProfile.getStatus() != PlayerProfile.PlayerStatus.PLAYING) {
-                eventBus.recordInvalidEvent();
+            if (!accept(Trigger.ROUND_UPDATE)) {
                 return;
             }
             int roundNumber = Integer.parseInt(event.getPart(1));
@@ -1134,28 +1654,117 @@ public class MainApp extends Application {
             int score2 = Integer.parseInt(event.getPart(3));
             char performedMove = event.getParts().length >= 5 ? event.getPart(4).charAt(0) : 'X';
 
-            Platform.runLater(() -> {
-                gameUi.updateScores(score1, score2);
-                if (performedMove == 'X') {
-                    gameUi.enableMoveButtons();
-                    gameUi.setGameStatusText("Game resumed - Make your move!");
-                } else {
-                    gameUi.disableMoveButtons();
-                    gameUi.setGameStatusText("Game resumed - Waiting for opponent...");
-                }
-                gameUi.startTimer(10);
-                showAlert("Game Resumed", "Continue playing!");
-            });
+            gameUi().updateScores(score1, score2);
+            if (performedMove == 'X') {
+                gameUi().enableMoveButtons();
+                gameUi().setGameStatusText("Game resumed - Make your move!");
+            } else {
+                gameUi().disableMoveButtons();
+                gameUi().setGameStatusText("Game resumed - Waiting for opponent...");
+            }
+            gameUi().startTimer(event.getReceivedAtNanos());
+            showAlert("Game Resumed", "Continue playing!");
         }
 
         /**
-         * Sends a move to server and disables UI buttons to prevent double send.
+         * Applies the move to the UI immediately and sends it through the priority path.
+         * The change is confirmed by {@link #onMoveAccepted} or rolled back by {@link #onMoveRejected}
+         * when the reply of this MOVE arrives; a newer round or move makes the reply irrelevant.
          *
          * @param move move code: "R", "P" or "S".
          */
         private void makeMove(String move) {
-            protocolHandler.sendMove(move);
+            moveClickedAt = System.nanoTime();
+            statusBeforeMove = gameStatusLabel != null ? gameStatusLabel.getText() : "";
             disableMoveButtons();
+            setGameStatusText("You chose " + getMoveString(move.charAt(0)) + " - waiting for opponent...");
+            measureOptimisticFrame(moveClickedAt);
+            CompletableFuture<ServerEvent> reply = protocolHandler.sendMove(move);
+            pendingMove = reply;
+            reply.whenCompleteAsync((event, ex) -> {
+                if (reply != pendingMove) {
+                    return;
+                }
+                if (ex == null) {
+                    onMoveAccepted();
+                } else {
+                    onMoveRejected(ex);
+                }
+            }, Platform::runLater);
+        }
+
+        /**
+         * Adds the time from click to the pulse that lays out the optimistic update, i.e. the
+         * first frame showing it, to the feedback statistics.
+         *
+         * @param clickedAt {@link System#nanoTime()} of the click.
+         */
+        private void measureOptimisticFrame(long clickedAt) {
+            Scene scene = gameStatusLabel != null ? gameStatusLabel.getScene() : null;
+            if (scene == null) {
+                return;
+            }
+            Runnable[] listener = new Runnable[1];
+            boolean[] measured = new boolean[1];
+            listener[0] = () -> {
+                if (measured[0]) {
+                    return;
+                }
+                measured[0] = true;
+                // Removed outside the pulse, the scene is iterating its listeners right now.
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(listener[0]));
+                optimisticFrames++;
+                totalOptimisticNanos += System.nanoTime() - clickedAt;
+            };
+            scene.addPostLayoutPulseListener(listener[0]);
+        }
+
+        /**
+         * Confirms the pending optimistic move when server answers its MOVE with M_ACC.
+         */
+        private void onMoveAccepted() {
+            long confirmedNanos = System.nanoTime() - moveClickedAt;
+            confirmedMoves++;
+            totalConfirmedNanos += confirmedNanos;
+            LOG.info(String.format("Move feedback: optimistic frame avg %.1f ms, server confirmation %.1f ms (avg %.1f ms over %d moves)",
+                    optimisticFrames > 0 ? totalOptimisticNanos / 1_000_000.0 / optimisticFrames : 0.0,
+                    confirmedNanos / 1_000_000.0,
+                    totalConfirmedNanos / 1_000_000.0 / confirmedMoves,
+                    confirmedMoves));
+            pendingMove = null;
+        }
+
+        /**
+         * Rolls back the pending optimistic move when its MOVE fails.
+         * A {@code move_already_sent} rejection means the earlier move counts, so it is kept.
+         *
+         * @param failure failure of the MOVE reply future.
+         */
+        private void onMoveRejected(Throwable failure) {
+            pendingMove = null;
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (cause instanceof ServerErrorException
+                    && "move_already_sent".equals(((ServerErrorException) cause).getEvent().getPart(3))) {
+                return;
+            }
+            enableMoveButtons();
+            setGameStatusText(statusBeforeMove);
+            showRequestFailure(cause);
+        }
+
+        /**
+         * Shows a move confirmed without a pending optimistic update, e.g. one replayed after a
+         * reconnect. A pending move is confirmed through its own reply instead.
+         *
+         * @param event event with command {@code M_ACC}.
+         */
+        void handleMoveAccepted(ServerEvent event) {
+            if (pendingMove != null) {
+                return;
+            }
+            disableMoveButtons();
+            setGameStatusText("Waiting for opponent...");
         }
 
         /**
@@ -1195,45 +1804,38 @@ public class MainApp extends Application {
          * @param opponentScore new score for opponent.
          */
         void updateScores(int playerScore, int opponentScore) {
-            if (playerScoreLabel != null) {
-                playerScoreLabel.setText("You: " + playerScore);
-            }
-            if (opponentScoreLabel != null) {
-                opponentScoreLabel.setText("Opponent: " + opponentScore);
-            }
+            this.playerScore.set(playerScore);
+            this.opponentScore.set(opponentScore);
         }
 
         /**
-         * Starts countdown timer for a given number of seconds.
+         * Starts round countdown towards the server deadline.
+         * <p>
+         * The deadline is the arrival time of the round-start message plus server round timeout,
+         * minus estimated one-way latency, so the display matches the server clock.
          *
-         * @param seconds countdown length in seconds.
+         * @param startedAtNanos {@link System#nanoTime()} when the message that (re)started the round arrived.
          */
-        void startTimer(int seconds) {
-            stopTimer();
-            remainingTime = seconds;
-            if (timerLabel != null) {
-                timerLabel.setText("Time: " + remainingTime);
-            }
-
-            gameTimer = new Timeline(new KeyFrame(Duration.seconds(1), e -> {
-                remainingTime--;
-                if (timerLabel != null) {
-                    timerLabel.setText("Time: " + remainingTime);
-                }
-                if (remainingTime <= 0) {
-                    stopTimer();
-                }
-            }));
-            gameTimer.setCycleCount(Timeline.INDEFINITE);
-            gameTimer.play();
+        void startTimer(long startedAtNanos) {
+            long oneWay = protocolHandler.getLatencyEstimator().getOneWayNanos();
+            countdown.start(startedAtNanos, ROUND_TIMEOUT_SECONDS, oneWay);
         }
 
         /**
          * Stops running game timer if present.
          */
         void stopTimer() {
-            if (gameTimer != null) {
-                gameTimer.stop();
+            countdown.stop();
+        }
+
+        /**
+         * Renders remaining seconds into the timer label.
+         *
+         * @param seconds whole seconds left in the round.
+         */
+        private void showRemainingTime(int seconds) {
+            if (timerLabel != null) {
+                timerLabel.setText("Time: " + seconds);
             }
         }
 
@@ -1277,4 +1879,53 @@ public class MainApp extends Application {
             }
         }
     }
+
+    /**
+     * Scripted walk through login, rooms, lobby and game start.
+     * <p>
+     * Used by the image build to record which classes a real session loads; two training
+     * clients started a few seconds apart end up in the same quick-match room and start a game.
+     */
+    private final class TrainingRun {
+
+        /** Upper bound of a training run, in case no opponent shows up. */
+        private static final long TIMEOUT_SECONDS = 60;
+
+        private final String nickname;
+        private final String host;
+        private final String port;
+
+        TrainingRun(String spec) {
+            int at = spec.indexOf('@');
+            int colon = spec.lastIndexOf(':');
+            if (at <= 0 || colon < at) {
+                throw new IllegalArgumentException(TRAINING_RUN_PROPERTY + " must be nick@host:port, got " + spec);
+            }
+            this.nickname = spec.substring(0, at);
+            this.host = spec.substring(at + 1, colon);
+            this.port = spec.substring(colon + 1);
+        }
+
+        void start() {
+            LOG.info("Training run as " + nickname + " against " + host + ":" + port);
+            eventBus.subscribe("WELCOME", event -> protocolHandler.requestRooms());
+            eventBus.subscribe("R_LOADED", event -> {
+                if (clientState.current() == PlayerProfile.PlayerStatus.AUTHENTICATED) {
+                    roomsUi().quickMatch.start();
+                }
+            });
+            eventBus.subscribe("R_JOINED", event -> protocolHandler.markReady());
+            // Leave after the game screen had a pulse to lay itself out.
+            eventBus.subscribe("G_ST", event -> Platform.runLater(Platform::exit));
+            ClientRuntime.shared().scheduler().schedule(() -> {
+                LOG.warning("Training run timed out");
+                Platform.runLater(Platform::exit);
+            }, TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            connectionUi.nameField.setText(nickname);
+            connectionUi.hostField.setText(host);
+            connectionUi.portField.setText(port);
+            connectionUi.connectButton.fire();
+        }
+    }
 }
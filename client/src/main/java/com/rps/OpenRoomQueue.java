@@ -0,0 +1,125 @@
+package com.rps;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Priority structure of joinable rooms, kept current from {@link RoomRegistry} callbacks.
+ * <p>
+ * Only OPEN rooms are queued. The best room is the fullest one (a waiting opponent means the
+ * game starts on join), and among equally full rooms the one seen first, so long-waiting
+ * players are matched before new ones. Updates are O(log n); {@link #best()} is O(1) after
+ * the first call following a change.
+ * <p>
+ * Not thread-safe; owned by the FX thread.
+ */
+final class OpenRoomQueue implements RoomRegistry.Listener {
+
+    private final RoomRegistry registry;
+    private final TreeSet<Candidate> queue = new TreeSet<>();
+    private final Map<Integer, Candidate> byId = new HashMap<>();
+
+    /** Order in which rooms were first seen; defines room age. */
+    private final Map<Integer, Long> firstSeen = new HashMap<>();
+    private long nextSequence;
+
+    /** Cached head of {@link #queue}; null when it must be recomputed. */
+    private Candidate cachedBest;
+
+    /**
+     * Creates queue and registers it as a registry listener.
+     *
+     * @param registry room registry.
+     */
+    OpenRoomQueue(RoomRegistry registry) {
+        this.registry = registry;
+        registry.addListener(this);
+    }
+
+    @Override
+    public void roomUpdated(int slot, String oldName, RoomStatus oldStatus, int oldPlayers) {
+        int id = registry.idAt(slot);
+        if (oldName == null) {
+            firstSeen.put(id, nextSequence++);
+        }
+        if (registry.statusAt(slot) == RoomStatus.OPEN) {
+            offer(id, registry.playersAt(slot));
+        } else {
+            discard(id);
+        }
+    }
+
+    @Override
+    public void roomRemoved(int id, String name, RoomStatus status, int players) {
+        discard(id);
+        firstSeen.remove(id);
+    }
+
+    /**
+     * Returns the room a quick match should join.
+     *
+     * @return room id, or -1 if no room is open.
+     */
+    int best() {
+        if (cachedBest == null && !queue.isEmpty()) {
+            cachedBest = queue.first();
+        }
+        return cachedBest != null ? cachedBest.id : -1;
+    }
+
+    /**
+     * Removes a room, e.g. after the server refused to join it. It returns on its next update.
+     *
+     * @param id room id.
+     */
+    void discard(int id) {
+        Candidate removed = byId.remove(id);
+        if (removed != null) {
+            queue.remove(removed);
+            if (removed == cachedBest) {
+                cachedBest = null;
+            }
+        }
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    private void offer(int id, int players) {
+        Candidate current = byId.get(id);
+        int freeSeats = Math.max(0, GameRoom.MAX_PLAYERS - players);
+        if (current != null && current.freeSeats == freeSeats) {
+            return;
+        }
+        discard(id);
+        Long seen = firstSeen.get(id);
+        Candidate candidate = new Candidate(id, freeSeats, seen != null ? seen : nextSequence++);
+        byId.put(id, candidate);
+        queue.add(candidate);
+        if (cachedBest != null && candidate.compareTo(cachedBest) < 0) {
+            cachedBest = candidate;
+        }
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+        private final int id;
+        private final int freeSeats;
+        private final long sequence;
+
+        private Candidate(int id, int freeSeats, long sequence) {
+            this.id = id;
+            this.freeSeats = freeSeats;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            if (freeSeats != other.freeSeats) {
+                return Integer.compare(freeSeats, other.freeSeats);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package com.rps;
 
-import java.util.logging.Logger;
-
 /**
  * Holds local player identity and session state.
  * <p>
@@ -9,9 +7,6 @@ import java.util.logging.Logger;
  */
 public class PlayerProfile {
 
-    private static final Logger LOG = Logger.getLogger(PlayerProfile.class.getName());
-
-
     /** Internal numeric identifier (optional). */
     private int id;
 
@@ -25,6 +20,8 @@ public class PlayerProfile {
      * High-level player status on client side.
      */
     public enum PlayerStatus {
+        /** No session; the login screen is shown. */
+        DISCONNECTED,
         /** Connected but not authenticated/associated yet. */
         CONNECTED,
         /** Successfully authenticated (if supported by server). */
@@ -37,8 +34,8 @@ public class PlayerProfile {
         PLAYING,
     }
 
-    /** Current status assigned by client. */
-    private PlayerStatus status;
+    /** Session state, changed only through validated transitions. */
+    private final ClientStateMachine stateMachine = new ClientStateMachine();
 
     /**
      * Constructs player profile with nickname.
@@ -112,21 +109,29 @@ public class PlayerProfile {
     /**
      * Returns current client-side player status.
      *
-     * @return {@link PlayerStatus} value.
+     * @return {@link PlayerStatus} value, never null.
      */
     public PlayerStatus getStatus() {
-        return status;
+        return stateMachine.current();
     }
 
     /**
-     * Updates current player status.
+     * Returns the state machine that owns the status.
      *
-     * @param status new {@link PlayerStatus} value.
+     * @return session state machine.
      */
-    public void setStatus(PlayerStatus status) {
+    public ClientStateMachine getStateMachine() {
+        return stateMachine;
+    }
 
-        this.status = status;
-        LOG.info("Player status changed to " + status);
+    /**
+     * Clears identity and status so the profile can be reused for a new login.
+     */
+    public void reset() {
+        id = 0;
+        name = null;
+        token = null;
+        stateMachine.fire(ClientStateMachine.Trigger.RESET);
     }
 
     /**
@@ -140,7 +145,7 @@ public class PlayerProfile {
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", token='" + token + '\'' +
-                ", status=" + status +
+                ", status=" + getStatus() +
                 '}';
     }
 }
@@ -0,0 +1,191 @@
+package com.rps;
+
+import com.rps.network.ProtocolHandler;
+import com.rps.network.ServerErrorException;
+import com.rps.network.ServerEvent;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * One-click matchmaking on top of the cached room stream.
+ * <p>
+ * The best open room is taken from {@link OpenRoomQueue} and joined at once, without asking
+ * the server for a fresh LIST first. If the server refuses the join (the cache was stale), the
+ * room is discarded and a new room is created and joined instead, so a quick match costs one
+ * round trip when a room is available and three when it is not. Transitions follow the futures
+ * of the JOIN and CREATE requests, so an ERR answering another request never moves the match.
+ * <p>
+ * Not thread-safe; owned by the FX thread. Request outcomes are handed to it through the
+ * executor given to the constructor.
+ */
+final class QuickMatch {
+    private static final Logger LOG = Logger.getLogger(QuickMatch.class.getName());
+
+    /** Room name length limit of the server. */
+    private static final int ROOM_NAME_MAX = 32;
+
+    private enum State {
+        IDLE,
+        /** JOIN sent for a cached room. */
+        JOINING,
+        /** Cache had nothing usable; CREATE sent. */
+        CREATING,
+        /** JOIN sent for the room created by this match. */
+        JOINING_CREATED
+    }
+
+    private final ProtocolHandler protocolHandler;
+    private final OpenRoomQueue openRooms;
+    private final Supplier<String> nickname;
+    private final Executor owner;
+    private final Consumer<Throwable> onFailed;
+
+    private State state = State.IDLE;
+    private int roomId = -1;
+    private long startedAt;
+
+    /** Incremented per request; outcomes of an older request are ignored. */
+    private int attempt;
+
+    /** Room of the last refused JOIN and sequence of the refusing ERR; see {@link #isStaleRow}. */
+    private int refusedRoom = -1;
+    private long refusedSequence;
+
+    /**
+     * Constructs quick match.
+     *
+     * @param protocolHandler protocol used to send JOIN and CREATE.
+     * @param openRooms       open rooms kept current from the room stream.
+     * @param nickname        supplier of the player's nickname, used for created room names.
+     * @param owner           runs request outcomes on the owning thread, e.g. {@code Platform::runLater}.
+     * @param onFailed        told when a match gives up, with the failure of its last request.
+     */
+    QuickMatch(ProtocolHandler protocolHandler, OpenRoomQueue openRooms, Supplier<String> nickname,
+               Executor owner, Consumer<Throwable> onFailed) {
+        this.protocolHandler = protocolHandler;
+        this.openRooms = openRooms;
+        this.nickname = nickname;
+        this.owner = owner;
+        this.onFailed = onFailed;
+    }
+
+    /**
+     * Starts a quick match unless one is already running.
+     * <p>
+     * Input: none. Output: none. Side-effect: sends JOIN or CREATE.
+     */
+    void start() {
+        if (state != State.IDLE) {
+            return;
+        }
+        startedAt = System.nanoTime();
+        int best = openRooms.best();
+        if (best >= 0) {
+            join(best, State.JOINING);
+        } else {
+            create();
+        }
+    }
+
+    boolean isRunning() {
+        return state != State.IDLE;
+    }
+
+    /**
+     * Abandons the running match; outcomes of its requests are ignored.
+     */
+    void cancel() {
+        state = State.IDLE;
+        roomId = -1;
+        attempt++;
+    }
+
+    /**
+     * Checks whether a ROOM row was sent before the ERR that refused its room. Room lists are
+     * delivered behind replies, so such a row can still arrive and must not offer the room again.
+     *
+     * @param row event with command {@code ROOM}.
+     * @return true if the row is older than the refusal of its room.
+     */
+    boolean isStaleRow(ServerEvent row) {
+        return refusedRoom >= 0 && row.getSequence() < refusedSequence
+                && String.valueOf(refusedRoom).equals(row.getPart(1));
+    }
+
+    private void join(int id, State next) {
+        roomId = id;
+        state = next;
+        int current = ++attempt;
+        protocolHandler.joinRoom(String.valueOf(id))
+                .whenCompleteAsync((event, ex) -> onJoined(current, ex), owner);
+    }
+
+    private void create() {
+        roomId = -1;
+        state = State.CREATING;
+        int current = ++attempt;
+        protocolHandler.createRoom(roomName())
+                .whenCompleteAsync((event, ex) -> onCreated(current, event, ex), owner);
+    }
+
+    /**
+     * Finishes the match, or falls back to CREATE if a cached room refused the join.
+     */
+    private void onJoined(int requestAttempt, Throwable failure) {
+        if (requestAttempt != attempt) {
+            return;
+        }
+        if (failure == null) {
+            long elapsedMicros = (System.nanoTime() - startedAt) / 1_000;
+            LOG.info(String.format("Quick match joined room %d in %.1f ms%s", roomId, elapsedMicros / 1000.0,
+                    state == State.JOINING_CREATED ? " (created)" : ""));
+            cancel();
+            return;
+        }
+        Throwable cause = unwrap(failure);
+        if (state == State.JOINING && cause instanceof ServerErrorException refused) {
+            LOG.fine("Quick match could not join room " + roomId + ": " + refused.getMessage());
+            openRooms.discard(roomId);
+            refusedRoom = roomId;
+            refusedSequence = refused.getEvent().getSequence();
+            create();
+            return;
+        }
+        giveUp(cause);
+    }
+
+    private void onCreated(int requestAttempt, ServerEvent event, Throwable failure) {
+        if (requestAttempt != attempt) {
+            return;
+        }
+        if (failure != null) {
+            giveUp(unwrap(failure));
+            return;
+        }
+        try {
+            join(Integer.parseInt(event.getPart(1)), State.JOINING_CREATED);
+        } catch (NumberFormatException ex) {
+            LOG.warning("Quick match got malformed R_CREATED: " + event.getFullMessage());
+            cancel();
+        }
+    }
+
+    private void giveUp(Throwable cause) {
+        LOG.info("Quick match gave up: " + cause.getMessage());
+        cancel();
+        onFailed.accept(cause);
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private String roomName() {
+        String name = "quick-" + nickname.get().replace(' ', '_');
+        return name.length() > ROOM_NAME_MAX ? name.substring(0, ROOM_NAME_MAX) : name;
+    }
+}
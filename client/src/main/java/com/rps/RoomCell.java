@@ -0,0 +1,65 @@
+package com.rps;
+
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+
+import java.util.function.Consumer;
+
+/**
+ * Fixed-height room list cell that builds its nodes once.
+ * <p>
+ * {@link #updateItem(GameRoom, boolean)} only writes the cached display string of the room and
+ * toggles visibility of the Join button, so scrolling re-binds cells without creating nodes or
+ * touching the children list. The owning list should use {@link #HEIGHT} as fixed cell size,
+ * which also spares the virtual flow from measuring cells.
+ */
+final class RoomCell extends ListCell<GameRoom> {
+
+    /** Height of every room row in pixels. */
+    static final double HEIGHT = 32;
+
+    private final Label text = new Label();
+    private final Button joinButton = new Button("Join");
+    private final HBox row;
+
+    /**
+     * Creates cell.
+     *
+     * @param onJoin called with the room when its Join button is pressed.
+     */
+    RoomCell(Consumer<GameRoom> onJoin) {
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        row = new HBox(10, text, spacer, joinButton);
+        row.setAlignment(Pos.CENTER_LEFT);
+        row.setVisible(false);
+        joinButton.setOnAction(e -> {
+            GameRoom item = getItem();
+            if (item != null) {
+                onJoin.accept(item);
+            }
+        });
+        setPrefHeight(HEIGHT);
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        setGraphic(row);
+    }
+
+    @Override
+    protected void updateItem(GameRoom item, boolean empty) {
+        super.updateItem(item, empty);
+        if (empty || item == null) {
+            row.setVisible(false);
+            return;
+        }
+        // String identity changes only when the room changes, so unchanged rows skip layout.
+        text.setText(item.toString());
+        joinButton.setVisible(item.getStatus() == RoomStatus.OPEN);
+        row.setVisible(true);
+    }
+}
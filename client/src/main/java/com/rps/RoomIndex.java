@@ -0,0 +1,239 @@
+package com.rps;
+
+import java.util.Arrays;
+
+/**
+ * Secondary indexes over a {@link RoomRegistry}: a case-insensitive prefix trie on room names
+ * and one id set per {@link RoomStatus}.
+ * <p>
+ * Indexes are updated from registry callbacks row by row, so they are current while ROOM rows
+ * are still streaming in. A query starts from the smaller of the prefix set and the status
+ * bucket and orders the matches by player count with a counting sort; it never scans the
+ * whole room list.
+ * <p>
+ * Not thread-safe; owned by the FX thread.
+ */
+final class RoomIndex implements RoomRegistry.Listener {
+
+    private final RoomRegistry registry;
+    private final TrieNode root = new TrieNode();
+    private final IntSet[] byStatus = new IntSet[RoomStatus.values().length];
+
+    /** Incremented on every indexed change; lets callers skip re-querying. */
+    private int version;
+
+    /**
+     * Creates index and registers it as a registry listener.
+     *
+     * @param registry indexed registry.
+     */
+    RoomIndex(RoomRegistry registry) {
+        this.registry = registry;
+        for (int i = 0; i < byStatus.length; i++) {
+            byStatus[i] = new IntSet();
+        }
+        registry.addListener(this);
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    @Override
+    public void roomUpdated(int slot, String oldName, RoomStatus oldStatus, int oldPlayers) {
+        int id = registry.idAt(slot);
+        String name = registry.nameAt(slot);
+        RoomStatus status = registry.statusAt(slot);
+        if (oldName == null) {
+            insertName(name, id);
+            byStatus[status.ordinal()].add(id);
+        } else {
+            if (!oldName.equals(name)) {
+                removeName(oldName, id);
+                insertName(name, id);
+            }
+            if (oldStatus != status) {
+                byStatus[oldStatus.ordinal()].remove(id);
+                byStatus[status.ordinal()].add(id);
+            }
+        }
+        version++;
+    }
+
+    @Override
+    public void roomRemoved(int id, String name, RoomStatus status, int players) {
+        removeName(name, id);
+        byStatus[status.ordinal()].remove(id);
+        version++;
+    }
+
+    /**
+     * Returns number of rooms in a status bucket.
+     *
+     * @param status room status.
+     * @return room count.
+     */
+    int countByStatus(RoomStatus status) {
+        return byStatus[status.ordinal()].size();
+    }
+
+    /**
+     * Finds rooms matching a name prefix and status.
+     * <p>
+     * Input: filter values. Output: registry slots ordered by player count, then by room id.
+     * Slots are valid until the registry finishes its next update cycle.
+     *
+     * @param prefix           case-insensitive name prefix; empty matches all rooms.
+     * @param status           required status, or null for any.
+     * @param mostPlayersFirst true to list fuller rooms first.
+     * @return matching slots.
+     */
+    int[] query(String prefix, RoomStatus status, boolean mostPlayersFirst) {
+        TrieNode node = find(prefix);
+        if (node == null) {
+            return new int[0];
+        }
+        IntSet byName = node.ids;
+        IntSet bucket = status != null ? byStatus[status.ordinal()] : null;
+
+        int[] ids;
+        int count;
+        if (bucket != null && bucket.size() < byName.size()) {
+            ids = new int[bucket.size()];
+            count = filter(ids, bucket.copyTo(ids, 0), byName, null);
+        } else {
+            ids = new int[byName.size()];
+            count = filter(ids, byName.copyTo(ids, 0), null, status);
+        }
+        Arrays.sort(ids, 0, count);
+
+        // Stable counting sort of ids by player count.
+        int buckets = GameRoom.MAX_PLAYERS + 1;
+        int[] starts = new int[buckets + 1];
+        int[] slots = new int[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = registry.slotOf(ids[i]);
+            starts[playerBucket(slots[i], mostPlayersFirst) + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            starts[b + 1] += starts[b];
+        }
+        int[] ordered = new int[count];
+        for (int i = 0; i < count; i++) {
+            ordered[starts[playerBucket(slots[i], mostPlayersFirst)]++] = slots[i];
+        }
+        return ordered;
+    }
+
+    private int playerBucket(int slot, boolean mostPlayersFirst) {
+        int players = Math.min(registry.playersAt(slot), GameRoom.MAX_PLAYERS);
+        return mostPlayersFirst ? GameRoom.MAX_PLAYERS - players : players;
+    }
+
+    /**
+     * Compacts {@code ids[0, count)} to entries contained in {@code required} (if set) and having
+     * {@code status} (if set).
+     */
+    private int filter(int[] ids, int count, IntSet required, RoomStatus status) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int id = ids[i];
+            if (required != null && !required.contains(id)) {
+                continue;
+            }
+            if (status != null && registry.statusAt(registry.slotOf(id)) != status) {
+                continue;
+            }
+            ids[kept++] = id;
+        }
+        return kept;
+    }
+
+    private TrieNode find(String prefix) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(Character.toLowerCase(prefix.charAt(i)));
+        }
+        return node;
+    }
+
+    private void insertName(String name, int id) {
+        TrieNode node = root;
+        node.ids.add(id);
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            TrieNode next = node.child(c);
+            if (next == null) {
+                next = node.addChild(c);
+            }
+            next.ids.add(id);
+            node = next;
+        }
+    }
+
+    private void removeName(String name, int id) {
+        TrieNode node = root;
+        node.ids.remove(id);
+        for (int i = 0; i < name.length() && node != null; i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            TrieNode next = node.child(c);
+            if (next == null) {
+                return;
+            }
+            next.ids.remove(id);
+            if (next.ids.size() == 0) {
+                // No room passes through this branch any more.
+                node.removeChild(c);
+                return;
+            }
+            node = next;
+        }
+    }
+
+    /**
+     * Trie node with a small unsorted child table and the ids of all rooms below it.
+     */
+    private static final class TrieNode {
+        private static final char[] NO_LABELS = new char[0];
+        private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
+        private final IntSet ids = new IntSet();
+        private char[] labels = NO_LABELS;
+        private TrieNode[] children = NO_CHILDREN;
+        private int childCount;
+
+        TrieNode child(char label) {
+            for (int i = 0; i < childCount; i++) {
+                if (labels[i] == label) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        TrieNode addChild(char label) {
+            if (childCount == labels.length) {
+                int capacity = Math.max(2, childCount * 2);
+                labels = Arrays.copyOf(labels, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            TrieNode node = new TrieNode();
+            labels[childCount] = label;
+            children[childCount] = node;
+            childCount++;
+            return node;
+        }
+
+        void removeChild(char label) {
+            for (int i = 0; i < childCount; i++) {
+                if (labels[i] == label) {
+                    childCount--;
+                    labels[i] = labels[childCount];
+                    children[i] = children[childCount];
+                    children[childCount] = null;
+                    return;
+                }
+            }
+        }
+    }
+}
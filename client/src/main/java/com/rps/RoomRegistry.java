@@ -0,0 +1,396 @@
+package com.rps;
+
+import java.util.Arrays;
+
+/**
+ * Client-side table of rooms stored in parallel primitive arrays.
+ * <p>
+ * Rows are addressed by a dense slot number; an open-addressing {@code int -> slot} map finds
+ * the slot of a room id without boxing. A refresh is applied as an update cycle:
+ * {@link #beginUpdate()}, one {@link #applyRow(String, int, int)} per ROOM row and
+ * {@link #endUpdate()}, which drops rooms not seen in the cycle. Rows are parsed in place
+ * without splitting; names are compared against an inline char copy, so unchanged names are
+ * kept without touching their String (new ones are interned), and the display string
+ * of a room is rebuilt only after one of its fields changes. A refresh that changes nothing
+ * therefore allocates nothing.
+ * <p>
+ * Not thread-safe; owned by the FX thread.
+ */
+public final class RoomRegistry {
+
+    /** {@link #endUpdate()} flag: some room changed name, players or status. */
+    public static final int CONTENT_CHANGED = 1;
+
+    /** {@link #endUpdate()} flag: rooms were added or removed. */
+    public static final int STRUCTURE_CHANGED = 2;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final RoomStatus[] STATUSES = RoomStatus.values();
+
+    /** Characters of a room name kept inline (server ROOM_NAME_MAX). */
+    private static final int NAME_WIDTH = 32;
+
+    /** Inline name length marking a longer name that is compared through {@link #names}. */
+    private static final byte NAME_NOT_INLINE = -1;
+
+    /** Largest accepted room id. */
+    private static final int MAX_ID = 999_999_999;
+
+    /** Key marking a free map bucket; the server never assigns room id 0. */
+    private static final int FREE = 0;
+
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private char[] nameChars = new char[INITIAL_CAPACITY * NAME_WIDTH];
+    private byte[] nameLengths = new byte[INITIAL_CAPACITY];
+    private byte[] players = new byte[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private String[] displays = new String[INITIAL_CAPACITY];
+    private int[] seenInUpdate = new int[INITIAL_CAPACITY];
+    private GameRoom[] views = new GameRoom[INITIAL_CAPACITY];
+    private int size;
+
+    private int[] bucketIds = new int[INITIAL_CAPACITY * 2];
+    private int[] bucketSlots = new int[INITIAL_CAPACITY * 2];
+
+    private int update;
+    private int pendingChanges;
+    private Listener[] listeners = new Listener[0];
+
+    /**
+     * Receives per-room changes, e.g. to maintain secondary indexes incrementally.
+     */
+    public interface Listener {
+        /**
+         * Called after a room was added or changed.
+         *
+         * @param slot       slot of the room.
+         * @param oldName    previous name, null if the room is new.
+         * @param oldStatus  previous status, null if the room is new.
+         * @param oldPlayers previous player count, -1 if the room is new.
+         */
+        void roomUpdated(int slot, String oldName, RoomStatus oldStatus, int oldPlayers);
+
+        /**
+         * Called when a room disappeared from the list.
+         *
+         * @param id      room id.
+         * @param name    room name.
+         * @param status  last status.
+         * @param players last player count.
+         */
+        void roomRemoved(int id, String name, RoomStatus status, int players);
+    }
+
+    /**
+     * Adds listener of per-room changes.
+     *
+     * @param listener listener called in registration order.
+     */
+    public void addListener(Listener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    /**
+     * Starts an update cycle for a complete room list.
+     */
+    public void beginUpdate() {
+        update++;
+        pendingChanges = 0;
+    }
+
+    /**
+     * Inserts or updates one room from a ROOM row payload.
+     * <p>
+     * Input: {@code text[start, end)} in {@code <id> <name> <players>/<max> <state>} format.
+     * Output: registry row updated in place.
+     *
+     * @param text  source text, e.g. a ROOM line.
+     * @param start first character of the row.
+     * @param end   end of the row, exclusive.
+     * @return false if the row is malformed and was ignored.
+     */
+    public boolean applyRow(String text, int start, int end) {
+        int i = start;
+        int id = 0;
+        char c;
+        while (i < end && (c = text.charAt(i)) != ' ') {
+            if (c < '0' || c > '9' || id > MAX_ID / 10) {
+                return false;
+            }
+            id = id * 10 + (c - '0');
+            i++;
+        }
+        int nameStart = ++i;
+        int nameEnd = text.indexOf(' ', nameStart);
+        if (nameEnd < 0 || nameEnd >= end) {
+            return false;
+        }
+        i = nameEnd + 1;
+        int playerCount = 0;
+        while (i < end && (c = text.charAt(i)) != '/') {
+            if (c < '0' || c > '9' || playerCount > Byte.MAX_VALUE) {
+                return false;
+            }
+            playerCount = playerCount * 10 + (c - '0');
+            i++;
+        }
+        int statusStart = text.indexOf(' ', i) + 1;
+        if (statusStart <= 0 || statusStart > end) {
+            return false;
+        }
+        int statusEnd = end;
+        while (statusEnd > statusStart && text.charAt(statusEnd - 1) <= ' ') {
+            statusEnd--;
+        }
+        if (id <= 0 || nameEnd == nameStart || statusStart >= statusEnd || playerCount > Byte.MAX_VALUE) {
+            return false;
+        }
+        upsert(id, text, nameStart, nameEnd, playerCount, RoomStatus.parse(text, statusStart, statusEnd));
+        return true;
+    }
+
+    /**
+     * Finishes the update cycle and removes rooms that were not reported in it.
+     *
+     * @return combination of {@link #CONTENT_CHANGED} and {@link #STRUCTURE_CHANGED}, 0 if nothing changed.
+     */
+    public int endUpdate() {
+        int kept = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (seenInUpdate[slot] != update) {
+                fireRemoved(slot);
+                continue;
+            }
+            if (kept != slot) {
+                ids[kept] = ids[slot];
+                names[kept] = names[slot];
+                nameLengths[kept] = nameLengths[slot];
+                System.arraycopy(nameChars, slot * NAME_WIDTH, nameChars, kept * NAME_WIDTH, NAME_WIDTH);
+                players[kept] = players[slot];
+                statuses[kept] = statuses[slot];
+                displays[kept] = displays[slot];
+                seenInUpdate[kept] = update;
+            }
+            kept++;
+        }
+        if (kept != size) {
+            Arrays.fill(names, kept, size, null);
+            Arrays.fill(displays, kept, size, null);
+            size = kept;
+            rebuildIndex();
+            pendingChanges |= STRUCTURE_CHANGED;
+        }
+        int changes = pendingChanges;
+        pendingChanges = 0;
+        return changes;
+    }
+
+    /**
+     * Removes all rooms.
+     */
+    public void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            fireRemoved(slot);
+        }
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(displays, 0, size, null);
+        size = 0;
+        Arrays.fill(bucketIds, FREE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds slot of a room.
+     *
+     * @param id room id.
+     * @return slot, or -1 if the room is unknown.
+     */
+    public int slotOf(int id) {
+        int mask = bucketIds.length - 1;
+        for (int bucket = hash(id) & mask; ; bucket = (bucket + 1) & mask) {
+            int key = bucketIds[bucket];
+            if (key == id) {
+                return bucketSlots[bucket];
+            }
+            if (key == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    public int idAt(int slot) {
+        return ids[slot];
+    }
+
+    public String nameAt(int slot) {
+        return names[slot];
+    }
+
+    public int playersAt(int slot) {
+        return players[slot];
+    }
+
+    public RoomStatus statusAt(int slot) {
+        return STATUSES[statuses[slot]];
+    }
+
+    /**
+     * Returns display string of a room, built on first use after a change.
+     *
+     * @param slot room slot.
+     * @return text in {@code <id> <name> <players>/<max> <status>} format.
+     */
+    public String displayAt(int slot) {
+        String display = displays[slot];
+        if (display == null) {
+            display = ids[slot] + " " + names[slot] + " " + players[slot] + "/" + GameRoom.MAX_PLAYERS
+                    + " " + STATUSES[statuses[slot]];
+            displays[slot] = display;
+        }
+        return display;
+    }
+
+    /**
+     * Returns the reusable view of a slot.
+     *
+     * @param slot room slot.
+     * @return view bound to the slot.
+     */
+    public GameRoom viewAt(int slot) {
+        GameRoom view = views[slot];
+        if (view == null) {
+            view = new GameRoom(this, slot);
+            views[slot] = view;
+        }
+        return view;
+    }
+
+    private void upsert(int id, String text, int nameStart, int nameEnd, int playerCount, RoomStatus status) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            slot = size;
+            ensureCapacity(size + 1);
+            size++;
+            ids[slot] = id;
+            setName(slot, text, nameStart, nameEnd);
+            players[slot] = (byte) playerCount;
+            statuses[slot] = (byte) status.ordinal();
+            displays[slot] = null;
+            insertIndex(id, slot);
+            pendingChanges |= STRUCTURE_CHANGED;
+            for (Listener listener : listeners) {
+                listener.roomUpdated(slot, null, null, -1);
+            }
+        } else {
+            boolean changed = false;
+            String oldName = names[slot];
+            RoomStatus oldStatus = STATUSES[statuses[slot]];
+            int oldPlayers = players[slot];
+            if (!sameName(slot, text, nameStart, nameEnd)) {
+                setName(slot, text, nameStart, nameEnd);
+                changed = true;
+            }
+            if (players[slot] != playerCount) {
+                players[slot] = (byte) playerCount;
+                changed = true;
+            }
+            if (statuses[slot] != status.ordinal()) {
+                statuses[slot] = (byte) status.ordinal();
+                changed = true;
+            }
+            if (changed) {
+                displays[slot] = null;
+                pendingChanges |= CONTENT_CHANGED;
+                for (Listener listener : listeners) {
+                    listener.roomUpdated(slot, oldName, oldStatus, oldPlayers);
+                }
+            }
+        }
+        seenInUpdate[slot] = update;
+    }
+
+    private void fireRemoved(int slot) {
+        for (Listener listener : listeners) {
+            listener.roomRemoved(ids[slot], names[slot], STATUSES[statuses[slot]], players[slot]);
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        nameChars = Arrays.copyOf(nameChars, capacity * NAME_WIDTH);
+        nameLengths = Arrays.copyOf(nameLengths, capacity);
+        players = Arrays.copyOf(players, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        displays = Arrays.copyOf(displays, capacity);
+        seenInUpdate = Arrays.copyOf(seenInUpdate, capacity);
+        views = Arrays.copyOf(views, capacity);
+        bucketIds = new int[Integer.highestOneBit(capacity) * 4];
+        bucketSlots = new int[bucketIds.length];
+        rebuildIndex();
+    }
+
+    private void rebuildIndex() {
+        Arrays.fill(bucketIds, FREE);
+        for (int slot = 0; slot < size; slot++) {
+            insertIndex(ids[slot], slot);
+        }
+    }
+
+    private void insertIndex(int id, int slot) {
+        int mask = bucketIds.length - 1;
+        int bucket = hash(id) & mask;
+        while (bucketIds[bucket] != FREE && bucketIds[bucket] != id) {
+            bucket = (bucket + 1) & mask;
+        }
+        bucketIds[bucket] = id;
+        bucketSlots[bucket] = slot;
+    }
+
+    private void setName(int slot, String text, int nameStart, int nameEnd) {
+        int length = nameEnd - nameStart;
+        names[slot] = text.substring(nameStart, nameEnd).intern();
+        if (length <= NAME_WIDTH) {
+            text.getChars(nameStart, nameEnd, nameChars, slot * NAME_WIDTH);
+            nameLengths[slot] = (byte) length;
+        } else {
+            nameLengths[slot] = NAME_NOT_INLINE;
+        }
+    }
+
+    /**
+     * Compares stored name with {@code text[nameStart, nameEnd)}. Inline names are compared in the
+     * flat char array, which avoids dereferencing one String per room on every refresh.
+     */
+    private boolean sameName(int slot, String text, int nameStart, int nameEnd) {
+        int length = nameEnd - nameStart;
+        byte stored = nameLengths[slot];
+        if (stored == NAME_NOT_INLINE) {
+            return names[slot].length() == length && text.regionMatches(nameStart, names[slot], 0, length);
+        }
+        if (stored != length) {
+            return false;
+        }
+        int base = slot * NAME_WIDTH;
+        for (int i = 0; i < length; i++) {
+            if (nameChars[base + i] != text.charAt(nameStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,46 @@
+package com.rps;
+
+/**
+ * Room states reported in ROOM rows (server {@code get_room_state_name}).
+ */
+public enum RoomStatus {
+    OPEN,
+    FULL,
+    PLAYING,
+    PAUSED,
+    /** Any state name this client does not know. */
+    UNKNOWN;
+
+    /**
+     * Resolves state name in {@code text[start, end)} without allocating.
+     *
+     * @param text  source text.
+     * @param start first character of the state name.
+     * @param end   end of the state name, exclusive.
+     * @return matching status or {@link #UNKNOWN}.
+     */
+    static RoomStatus parse(String text, int start, int end) {
+        if (start >= end) {
+            return UNKNOWN;
+        }
+        // The first character (and length) picks the only candidate.
+        RoomStatus candidate = switch (text.charAt(start)) {
+            case 'O' -> OPEN;
+            case 'F' -> FULL;
+            case 'P' -> end - start == 7 ? PLAYING : PAUSED;
+            default -> UNKNOWN;
+        };
+        String name = candidate.name();
+        int length = end - start;
+        if (candidate == UNKNOWN || name.length() != length) {
+            return UNKNOWN;
+        }
+        // Plain loop: String.regionMatches is noticeably slower for names this short.
+        for (int i = 1; i < length; i++) {
+            if (name.charAt(i) != text.charAt(start + i)) {
+                return UNKNOWN;
+            }
+        }
+        return candidate;
+    }
+}
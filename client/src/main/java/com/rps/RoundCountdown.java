@@ -0,0 +1,68 @@
+package com.rps;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Round countdown driven by a monotonic deadline instead of accumulated ticks.
+ * <p>
+ * The deadline is computed once from the arrival time of the message that started the
+ * round, minus estimated one-way latency, so pulse jitter never accumulates. The display
+ * callback runs only when the number of whole seconds left changes.
+ */
+final class RoundCountdown extends AnimationTimer {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /** Receives remaining whole seconds whenever the value changes. */
+    private final IntConsumer display;
+
+    /** Monotonic deadline in {@link System#nanoTime()} time base. */
+    private long deadlineNanos;
+
+    /** Last value passed to {@link #display}, or -1 if nothing shown yet. */
+    private int lastShown = -1;
+
+    /**
+     * Creates a countdown.
+     *
+     * @param display callback receiving remaining seconds; called on the FX thread.
+     */
+    RoundCountdown(IntConsumer display) {
+        this.display = display;
+    }
+
+    /**
+     * Starts counting down to a deadline derived from server message arrival.
+     *
+     * @param startedAtNanos     {@link System#nanoTime()} when the round-start message arrived.
+     * @param durationSeconds    server-side round timeout.
+     * @param oneWayLatencyNanos estimated time the message spent on the wire.
+     */
+    void start(long startedAtNanos, int durationSeconds, long oneWayLatencyNanos) {
+        deadlineNanos = startedAtNanos + durationSeconds * NANOS_PER_SECOND - oneWayLatencyNanos;
+        lastShown = -1;
+        render(System.nanoTime());
+        if (lastShown > 0) {
+            super.start();
+        }
+    }
+
+    @Override
+    public void handle(long now) {
+        render(System.nanoTime());
+        if (lastShown == 0) {
+            stop();
+        }
+    }
+
+    private void render(long nowNanos) {
+        long remaining = deadlineNanos - nowNanos;
+        int seconds = remaining <= 0 ? 0 : (int) ((remaining + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        if (seconds != lastShown) {
+            lastShown = seconds;
+            display.accept(seconds);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.rps;
+
+import com.rps.network.ServerEvent;
+
+/**
+ * Typed view of an {@code R_RE} message.
+ * <p>
+ * Wire format: {@code R_RE <1|0|D|T> <move_yours> <move_opponents> <score_yours> <score_opponents>},
+ * where moves are {@code R}, {@code P}, {@code S} or {@code X} for a missed move.
+ */
+public final class RoundResult {
+
+    /** Round outcome from the receiving player's point of view. */
+    public enum Outcome {
+        WIN,
+        LOSS,
+        DRAW,
+        /** Round closed by the server timer; at least one move is missing. */
+        TIMEOUT
+    }
+
+    /** Move character the server sends for a player who did not move. */
+    public static final char NO_MOVE = 'X';
+
+    private final Outcome outcome;
+    private final char yourMove;
+    private final char opponentMove;
+    private final int yourScore;
+    private final int opponentScore;
+
+    /**
+     * Constructs round result.
+     *
+     * @param outcome       outcome of the round.
+     * @param yourMove      own move character.
+     * @param opponentMove  opponent move character.
+     * @param yourScore     own score after the round.
+     * @param opponentScore opponent score after the round.
+     */
+    public RoundResult(Outcome outcome, char yourMove, char opponentMove, int yourScore, int opponentScore) {
+        this.outcome = outcome;
+        this.yourMove = yourMove;
+        this.opponentMove = opponentMove;
+        this.yourScore = yourScore;
+        this.opponentScore = opponentScore;
+    }
+
+    /**
+     * Parses an {@code R_RE} event.
+     * <p>
+     * Input: event with command {@code R_RE}. Output: typed result.
+     *
+     * @param event parsed server message.
+     * @return round result.
+     * @throws IllegalArgumentException if the message is malformed.
+     */
+    public static RoundResult parse(ServerEvent event) {
+        if (event.getPartsCount() < 6) {
+            throw new IllegalArgumentException("Malformed R_RE: " + event.getFullMessage());
+        }
+        Outcome outcome = switch (event.getPart(1)) {
+            case "1" -> Outcome.WIN;
+            case "0" -> Outcome.LOSS;
+            case "D" -> Outcome.DRAW;
+            case "T" -> Outcome.TIMEOUT;
+            default -> throw new IllegalArgumentException("Unknown R_RE outcome: " + event.getFullMessage());
+        };
+        String yourMove = event.getPart(2);
+        String opponentMove = event.getPart(3);
+        if (yourMove.length() != 1 || opponentMove.length() != 1) {
+            throw new IllegalArgumentException("Malformed R_RE moves: " + event.getFullMessage());
+        }
+        try {
+            return new RoundResult(outcome, yourMove.charAt(0), opponentMove.charAt(0),
+                    Integer.parseInt(event.getPart(4)), Integer.parseInt(event.getPart(5)));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Malformed R_RE scores: " + event.getFullMessage(), ex);
+        }
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public char getYourMove() {
+        return yourMove;
+    }
+
+    public char getOpponentMove() {
+        return opponentMove;
+    }
+
+    public int getYourScore() {
+        return yourScore;
+    }
+
+    public int getOpponentScore() {
+        return opponentScore;
+    }
+
+    @Override
+    public String toString() {
+        return outcome + " " + yourMove + " vs " + opponentMove + " (" + yourScore + ":" + opponentScore + ")";
+    }
+}
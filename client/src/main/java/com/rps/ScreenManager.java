@@ -0,0 +1,106 @@
+package com.rps;
+
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Region;
+import javafx.stage.Stage;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Owns the single application {@link Scene} and swaps cached screen roots inside it.
+ * <p>
+ * Each screen is built once on first use and kept warm afterwards; navigation only
+ * replaces the center of a shell layout that also hosts the global connection label.
+ */
+final class ScreenManager {
+
+    /**
+     * Screens known to the client.
+     */
+    enum Screen {
+        LOGIN,
+        MANUAL_RECONNECT,
+        ROOMS,
+        LOBBY,
+        GAME
+    }
+
+    /** Stage that displays the shared scene. */
+    private final Stage stage;
+
+    /** Shell layout: status label on top, active screen in center. */
+    private final BorderPane shell = new BorderPane();
+
+    /** Scene shared by all screens. */
+    private final Scene scene = new Scene(shell);
+
+    /** Factories for screens that were not built yet. */
+    private final Map<Screen, Supplier<Region>> factories = new EnumMap<>(Screen.class);
+
+    /** Screens that were already built. */
+    private final Map<Screen, Region> roots = new EnumMap<>(Screen.class);
+
+    /** Currently displayed screen, or null before the first navigation. */
+    private Screen current;
+
+    /**
+     * Creates manager bound to a stage and a header node shown above every screen.
+     *
+     * @param stage  primary stage.
+     * @param header node placed on top of each screen, e.g. connection status label.
+     */
+    ScreenManager(Stage stage, Node header) {
+        this.stage = Objects.requireNonNull(stage, "stage");
+        shell.setTop(header);
+        BorderPane.setAlignment(header, Pos.CENTER);
+        stage.setScene(scene);
+    }
+
+    /**
+     * Registers a factory for a screen. The factory runs at most once.
+     *
+     * @param screen  screen key.
+     * @param factory builder of the screen root; preferred size of the root defines window size.
+     */
+    void register(Screen screen, Supplier<Region> factory) {
+        factories.put(screen, Objects.requireNonNull(factory, "factory"));
+    }
+
+    /**
+     * Displays the given screen, building it first if needed.
+     *
+     * @param screen screen to show.
+     */
+    void show(Screen screen) {
+        Region root = root(screen);
+        if (current == screen && shell.getCenter() == root) {
+            return;
+        }
+        boolean resize = current == null || root(current).getPrefWidth() != root.getPrefWidth()
+                || root(current).getPrefHeight() != root.getPrefHeight();
+        current = screen;
+        shell.setCenter(root);
+        if (resize && stage.isShowing()) {
+            stage.sizeToScene();
+        }
+    }
+
+    private Region root(Screen screen) {
+        Region root = roots.get(screen);
+        if (root == null) {
+            Supplier<Region> factory = factories.get(screen);
+            if (factory == null) {
+                throw new IllegalStateException("No factory registered for screen " + screen);
+            }
+            root = factory.get();
+            roots.put(screen, root);
+        }
+        return root;
+    }
+}
@@ -0,0 +1,47 @@
+package com.rps.bot;
+
+/**
+ * Factory for strategies named on the command line.
+ * <p>
+ * Specs: {@code random}, {@code frequency}, {@code markov[:k]}, {@code pattern[:length]}.
+ */
+public final class BotStrategies {
+
+    private static final int DEFAULT_MARKOV_ORDER = 2;
+    private static final int DEFAULT_PATTERN_LENGTH = 6;
+
+    private BotStrategies() {
+    }
+
+    /**
+     * Creates strategy from spec.
+     *
+     * @param spec strategy name with optional {@code :parameter}.
+     * @param seed random seed.
+     * @return new strategy instance.
+     * @throws IllegalArgumentException if the spec is unknown or its parameter is invalid.
+     */
+    public static BotStrategy create(String spec, long seed) {
+        int colon = spec.indexOf(':');
+        String name = (colon < 0 ? spec : spec.substring(0, colon)).trim().toLowerCase();
+        String parameter = colon < 0 ? null : spec.substring(colon + 1).trim();
+        return switch (name) {
+            case "random" -> new RandomStrategy(seed);
+            case "frequency" -> new FrequencyStrategy(seed);
+            case "markov" -> new MarkovStrategy(intParameter(parameter, DEFAULT_MARKOV_ORDER, spec), seed);
+            case "pattern" -> new PatternStrategy(intParameter(parameter, DEFAULT_PATTERN_LENGTH, spec), seed);
+            default -> throw new IllegalArgumentException("Unknown strategy: " + spec);
+        };
+    }
+
+    private static int intParameter(String parameter, int defaultValue, String spec) {
+        if (parameter == null || parameter.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(parameter);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid strategy parameter: " + spec, ex);
+        }
+    }
+}
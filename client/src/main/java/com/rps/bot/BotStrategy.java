@@ -0,0 +1,32 @@
+package com.rps.bot;
+
+import com.rps.RoundResult;
+
+/**
+ * Move selection policy for automated players.
+ * <p>
+ * Implementations are called from a single thread per game: {@link #nextMove()} on R_ST,
+ * {@link #onRoundResult(RoundResult)} on R_RE. Both must be O(1) so thousands of bots can
+ * share a few threads.
+ */
+public interface BotStrategy {
+
+    /**
+     * Chooses the move for the current round.
+     *
+     * @return move index, see {@link Moves}.
+     */
+    int nextMove();
+
+    /**
+     * Feeds the result of a finished round.
+     *
+     * @param result typed R_RE message.
+     */
+    void onRoundResult(RoundResult result);
+
+    /**
+     * Forgets the opponent model, e.g. when a new game against another opponent starts.
+     */
+    void reset();
+}
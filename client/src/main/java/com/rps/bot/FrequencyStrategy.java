@@ -0,0 +1,45 @@
+package com.rps.bot;
+
+import com.rps.RoundResult;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Counters the opponent's most frequent move so far.
+ * <p>
+ * The leading move is maintained on every update, so a decision is a single table lookup.
+ */
+public final class FrequencyStrategy implements BotStrategy {
+
+    private final int[] counts = new int[Moves.COUNT];
+    private final SplittableRandom random;
+    private int leader = Moves.NONE;
+
+    public FrequencyStrategy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int nextMove() {
+        return leader == Moves.NONE ? random.nextInt(Moves.COUNT) : Moves.counter(leader);
+    }
+
+    @Override
+    public void onRoundResult(RoundResult result) {
+        int move = Moves.fromChar(result.getOpponentMove());
+        if (move == Moves.NONE) {
+            return;
+        }
+        int count = ++counts[move];
+        if (leader == Moves.NONE || count > counts[leader]) {
+            leader = move;
+        }
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(counts, 0);
+        leader = Moves.NONE;
+    }
+}
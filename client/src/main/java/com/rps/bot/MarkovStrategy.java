@@ -0,0 +1,92 @@
+package com.rps.bot;
+
+import com.rps.RoundResult;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Order-k Markov model of the opponent: predicts the move that most often followed the
+ * opponent's last k moves and plays its counter.
+ * <p>
+ * The context is the last k opponent moves encoded in base 3 and rolled forward on every
+ * round. Transition counts live in one flat {@code int[3^k * 3]} array and the most likely
+ * successor of each context is kept up to date on increment, so both update and decision are O(1).
+ * Memory grows as {@code 4 * 3^k} ints; at {@link #MAX_ORDER} that is about 100 KiB per bot.
+ */
+public final class MarkovStrategy implements BotStrategy {
+
+    /** Highest supported order. */
+    public static final int MAX_ORDER = 8;
+
+    private final int order;
+    private final int contexts;
+    private final int[] counts;
+    private final int[] predicted;
+    private final SplittableRandom random;
+
+    /** Base-3 code of the last {@code order} opponent moves. */
+    private int context;
+
+    /** Opponent moves seen, saturating at {@code order}. */
+    private int seen;
+
+    /**
+     * Creates model.
+     *
+     * @param order number of previous opponent moves used as context, 1..{@link #MAX_ORDER}.
+     * @param seed  seed for moves while the context is not yet known.
+     */
+    public MarkovStrategy(int order, long seed) {
+        if (order < 1 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("Markov order must be 1.." + MAX_ORDER + ": " + order);
+        }
+        this.order = order;
+        int size = 1;
+        for (int i = 0; i < order; i++) {
+            size *= Moves.COUNT;
+        }
+        this.contexts = size;
+        this.counts = new int[size * Moves.COUNT];
+        this.predicted = new int[size];
+        this.random = new SplittableRandom(seed);
+        Arrays.fill(predicted, Moves.NONE);
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public int nextMove() {
+        int guess = seen == order ? predicted[context] : Moves.NONE;
+        return guess == Moves.NONE ? random.nextInt(Moves.COUNT) : Moves.counter(guess);
+    }
+
+    @Override
+    public void onRoundResult(RoundResult result) {
+        int move = Moves.fromChar(result.getOpponentMove());
+        if (move == Moves.NONE) {
+            return;
+        }
+        if (seen == order) {
+            int base = context * Moves.COUNT;
+            int count = ++counts[base + move];
+            int best = predicted[context];
+            if (best == Moves.NONE || count > counts[base + best]) {
+                predicted[context] = move;
+            }
+        } else {
+            seen++;
+        }
+        context = (context * Moves.COUNT + move) % contexts;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(counts, 0);
+        Arrays.fill(predicted, Moves.NONE);
+        context = 0;
+        seen = 0;
+    }
+}
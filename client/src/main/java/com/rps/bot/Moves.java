@@ -0,0 +1,62 @@
+package com.rps.bot;
+
+/**
+ * Integer encoding of moves used by strategies, with precomputed lookup tables.
+ * <p>
+ * Rock is 0, paper 1, scissors 2; {@link #NONE} marks a missed move.
+ * Move {@code (m + 1) % 3} beats move {@code m}.
+ */
+public final class Moves {
+
+    public static final int ROCK = 0;
+    public static final int PAPER = 1;
+    public static final int SCISSORS = 2;
+    public static final int NONE = -1;
+
+    /** Number of playable moves. */
+    public static final int COUNT = 3;
+
+    private static final char[] TO_CHAR = {'R', 'P', 'S'};
+    private static final int[] COUNTER = {PAPER, SCISSORS, ROCK};
+    private static final int[] FROM_CHAR = new int[128];
+
+    static {
+        java.util.Arrays.fill(FROM_CHAR, NONE);
+        FROM_CHAR['R'] = ROCK;
+        FROM_CHAR['P'] = PAPER;
+        FROM_CHAR['S'] = SCISSORS;
+    }
+
+    private Moves() {
+    }
+
+    /**
+     * Converts wire character to move.
+     *
+     * @param move {@code R}, {@code P} or {@code S}.
+     * @return move index, or {@link #NONE} for anything else (including {@code X}).
+     */
+    public static int fromChar(char move) {
+        return move < FROM_CHAR.length ? FROM_CHAR[move] : NONE;
+    }
+
+    /**
+     * Converts move to wire character.
+     *
+     * @param move move index 0..2.
+     * @return {@code R}, {@code P} or {@code S}.
+     */
+    public static char toChar(int move) {
+        return TO_CHAR[move];
+    }
+
+    /**
+     * Returns the move that beats given move.
+     *
+     * @param move move index 0..2.
+     * @return winning reply.
+     */
+    public static int counter(int move) {
+        return COUNTER[move];
+    }
+}
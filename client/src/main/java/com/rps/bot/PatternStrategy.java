@@ -0,0 +1,90 @@
+package com.rps.bot;
+
+import com.rps.RoundResult;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Pattern matcher over the opponent's history: finds the longest suffix of recent opponent
+ * moves that occurred before and counters the move that followed it last time.
+ * <p>
+ * Instead of scanning the history, every suffix length L keeps a table indexed by the base-3
+ * code of the last L moves holding the successor seen most recently. An update writes one slot
+ * per length and a decision probes at most {@code maxLength} slots, independent of game length.
+ */
+public final class PatternStrategy implements BotStrategy {
+
+    /** Longest supported pattern; tables total about 3^(L+1)/2 ints. */
+    public static final int MAX_LENGTH = 8;
+
+    private final int maxLength;
+    private final int[] modulus;
+    private final int[] codes;
+    private final int[][] successors;
+    private final SplittableRandom random;
+
+    /** Opponent moves seen, saturating at {@code maxLength}. */
+    private int seen;
+
+    /**
+     * Creates matcher.
+     *
+     * @param maxLength longest suffix to match, 1..{@link #MAX_LENGTH}.
+     * @param seed      seed for moves when no pattern matches.
+     */
+    public PatternStrategy(int maxLength, long seed) {
+        if (maxLength < 1 || maxLength > MAX_LENGTH) {
+            throw new IllegalArgumentException("Pattern length must be 1.." + MAX_LENGTH + ": " + maxLength);
+        }
+        this.maxLength = maxLength;
+        this.modulus = new int[maxLength + 1];
+        this.codes = new int[maxLength + 1];
+        this.successors = new int[maxLength + 1][];
+        int size = 1;
+        for (int length = 1; length <= maxLength; length++) {
+            size *= Moves.COUNT;
+            modulus[length] = size;
+            successors[length] = new int[size];
+            Arrays.fill(successors[length], Moves.NONE);
+        }
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int nextMove() {
+        for (int length = seen; length >= 1; length--) {
+            int next = successors[length][codes[length]];
+            if (next != Moves.NONE) {
+                return Moves.counter(next);
+            }
+        }
+        return random.nextInt(Moves.COUNT);
+    }
+
+    @Override
+    public void onRoundResult(RoundResult result) {
+        int move = Moves.fromChar(result.getOpponentMove());
+        if (move == Moves.NONE) {
+            return;
+        }
+        for (int length = 1; length <= seen; length++) {
+            successors[length][codes[length]] = move;
+        }
+        for (int length = 1; length <= maxLength; length++) {
+            codes[length] = (codes[length] * Moves.COUNT + move) % modulus[length];
+        }
+        if (seen < maxLength) {
+            seen++;
+        }
+    }
+
+    @Override
+    public void reset() {
+        for (int length = 1; length <= maxLength; length++) {
+            Arrays.fill(successors[length], Moves.NONE);
+        }
+        Arrays.fill(codes, 0);
+        seen = 0;
+    }
+}
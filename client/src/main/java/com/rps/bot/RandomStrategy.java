@@ -0,0 +1,32 @@
+package com.rps.bot;
+
+import com.rps.RoundResult;
+
+import java.util.SplittableRandom;
+
+/**
+ * Uniformly random moves; the unexploitable baseline.
+ */
+public final class RandomStrategy implements BotStrategy {
+
+    private final SplittableRandom random;
+
+    public RandomStrategy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public int nextMove() {
+        return random.nextInt(Moves.COUNT);
+    }
+
+    @Override
+    public void onRoundResult(RoundResult result) {
+        // Stateless.
+    }
+
+    @Override
+    public void reset() {
+        // Stateless.
+    }
+}
@@ -0,0 +1,78 @@
+package com.rps.history;
+
+import com.rps.RoundResult;
+
+/**
+ * Aggregate of history records produced by a streaming query.
+ */
+public final class HistoryStats {
+
+    private final int[] rounds = new int[RoundResult.Outcome.values().length];
+    private final int[] games = new int[RoundResult.Outcome.values().length];
+
+    void add(RoundRecord.Kind kind, RoundResult.Outcome outcome) {
+        (kind == RoundRecord.Kind.ROUND ? rounds : games)[outcome.ordinal()]++;
+    }
+
+    /**
+     * Returns number of rounds with given outcome.
+     *
+     * @param outcome round outcome.
+     * @return round count.
+     */
+    public int getRounds(RoundResult.Outcome outcome) {
+        return rounds[outcome.ordinal()];
+    }
+
+    /**
+     * Returns number of finished games with given outcome (WIN, LOSS or DRAW).
+     *
+     * @param outcome game outcome.
+     * @return game count.
+     */
+    public int getGames(RoundResult.Outcome outcome) {
+        return games[outcome.ordinal()];
+    }
+
+    public int getTotalRounds() {
+        return sum(rounds);
+    }
+
+    public int getTotalGames() {
+        return sum(games);
+    }
+
+    /**
+     * Returns share of won rounds among all recorded rounds, timeouts included.
+     *
+     * @return rate in [0, 1], 0 if there are no rounds.
+     */
+    public double getRoundWinRate() {
+        int total = getTotalRounds();
+        return total == 0 ? 0.0 : (double) getRounds(RoundResult.Outcome.WIN) / total;
+    }
+
+    /**
+     * Returns share of won games among finished games.
+     *
+     * @return rate in [0, 1], 0 if there are no games.
+     */
+    public double getGameWinRate() {
+        int total = getTotalGames();
+        return total == 0 ? 0.0 : (double) getGames(RoundResult.Outcome.WIN) / total;
+    }
+
+    private static int sum(int[] values) {
+        int total = 0;
+        for (int value : values) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games %d (win rate %.1f%%), rounds %d (win rate %.1f%%)",
+                getTotalGames(), getGameWinRate() * 100, getTotalRounds(), getRoundWinRate() * 100);
+    }
+}
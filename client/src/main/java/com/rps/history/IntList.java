@@ -0,0 +1,27 @@
+package com.rps.history;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints used for record-number indexes.
+ */
+final class IntList {
+
+    private int[] values = new int[16];
+    private int size;
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+}
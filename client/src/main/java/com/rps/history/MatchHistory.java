@@ -0,0 +1,467 @@
+package com.rps.history;
+
+import com.rps.RoundResult;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Append-only local store of played rounds and games.
+ * <p>
+ * Records are fixed-width (32 bytes) and written into a memory-mapped file grown in 4 MiB
+ * segments, so appending a round is a handful of stores into mapped memory with no system call.
+ * Opponent nicknames are interned into a small side file ({@code <file>.names}) and referenced
+ * by id. Secondary indexes by opponent and by day hold only record numbers; they are rebuilt
+ * by a sequential scan on open. Queries walk an index and decode records straight from the
+ * mapping, so aggregates such as win rate against one opponent never load the whole file.
+ * <p>
+ * Record layout, multi-byte fields big endian:
+ * <pre>
+ *  0 long  start time, epoch ms     16 int   game id        24 byte your move
+ *  8 int   duration, ms             20 short round          25 byte opponent move
+ * 12 int   opponent id              22 byte  kind           26 short your score
+ *                                   23 byte  outcome        28 short opponent score
+ * </pre>
+ * All methods are synchronized; one instance may be shared by many bot sessions. The record
+ * file is locked exclusively while open, so a second client on the same machine cannot append
+ * over the records and names of the first.
+ */
+public final class MatchHistory implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(MatchHistory.class.getName());
+
+    /** Size of one record in bytes. */
+    public static final int RECORD_BYTES = 32;
+
+    private static final int HEADER_BYTES = RECORD_BYTES;
+    private static final int MAGIC = 0x52505348; // "RPSH"
+    private static final int VERSION = 1;
+    private static final int SEGMENT_BYTES = 1 << 22;
+
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_COUNT = 8;
+
+    private static final int START = 0;
+    private static final int DURATION = 8;
+    private static final int OPPONENT = 12;
+    private static final int GAME = 16;
+    private static final int ROUND = 20;
+    private static final int KIND = 22;
+    private static final int OUTCOME = 23;
+    private static final int YOUR_MOVE = 24;
+    private static final int OPPONENT_MOVE = 25;
+    private static final int YOUR_SCORE = 26;
+    private static final int OPPONENT_SCORE = 28;
+
+    private static final RoundResult.Outcome[] OUTCOMES = RoundResult.Outcome.values();
+    private static final RoundRecord.Kind[] KINDS = RoundRecord.Kind.values();
+
+    /**
+     * Files open in this JVM. Closing any channel of a file drops all locks the process holds on
+     * it, so a second open in the same process must be refused before its channel exists.
+     */
+    private static final Set<Path> OPEN_FILES = ConcurrentHashMap.newKeySet();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Path namesFile;
+    private final ZoneId zone;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    /** Interned opponent nicknames; list index is the opponent id. */
+    private final List<String> opponents = new ArrayList<>();
+    private final Map<String, Integer> opponentIds = new HashMap<>();
+
+    /** Record numbers per opponent id. */
+    private final List<IntList> byOpponent = new ArrayList<>();
+
+    /** Record numbers per epoch day in {@link #zone}. */
+    private final NavigableMap<Long, IntList> byDay = new TreeMap<>();
+
+    private int count;
+    private int nextGameId = 1;
+
+    /** Cached day boundaries so appends within one day skip date conversion. */
+    private long dayStartMillis = Long.MAX_VALUE;
+    private long dayEndMillis = Long.MIN_VALUE;
+    private IntList dayIndex;
+
+    private boolean closed;
+
+    private MatchHistory(Path file, FileChannel channel, Path namesFile, ZoneId zone) {
+        this.file = file;
+        this.channel = channel;
+        this.namesFile = namesFile;
+        this.zone = zone;
+    }
+
+    /**
+     * Opens or creates history file, indexing days in the system time zone.
+     *
+     * @param file path of the record file.
+     * @return opened history.
+     * @throws IOException if the file cannot be mapped or has a foreign format.
+     */
+    public static MatchHistory open(Path file) throws IOException {
+        return open(file, ZoneId.systemDefault());
+    }
+
+    /**
+     * Opens or creates history file.
+     * <p>
+     * Input: path of the record file; the name side file is placed next to it.
+     * Output: history with indexes rebuilt from existing records, holding an exclusive lock on
+     * the file until closed.
+     *
+     * @param file path of the record file.
+     * @param zone zone that defines day boundaries of the date index.
+     * @return opened history.
+     * @throws IOException if the file is locked by another client, cannot be mapped or has a
+     *                     foreign format.
+     */
+    public static MatchHistory open(Path file, ZoneId zone) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        Path parent = key.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (!OPEN_FILES.add(key)) {
+            throw new IOException("History file " + file + " is already open in this client");
+        }
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(key, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            // Held until the channel is closed.
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                throw new IOException("History file " + file + " is in use by another client");
+            }
+            MatchHistory history = new MatchHistory(key, channel,
+                    key.resolveSibling(key.getFileName() + ".names"), zone);
+            history.load(channel.size() == 0);
+            return history;
+        } catch (IOException | RuntimeException ex) {
+            if (channel != null) {
+                channel.close();
+            }
+            OPEN_FILES.remove(key);
+            throw ex;
+        }
+    }
+
+    /**
+     * Allocates id for a new game; ids continue across restarts.
+     *
+     * @return game id.
+     */
+    public synchronized int beginGame() {
+        return nextGameId++;
+    }
+
+    /**
+     * Appends a round result.
+     *
+     * @param gameId          id from {@link #beginGame()}.
+     * @param opponent        opponent nickname, may be null if unknown.
+     * @param round           round number from R_ST.
+     * @param startedAtMillis wall-clock time of R_ST.
+     * @param durationMillis  time between R_ST and R_RE.
+     * @param result          typed R_RE message.
+     */
+    public synchronized void appendRound(int gameId, String opponent, int round, long startedAtMillis,
+                                         int durationMillis, RoundResult result) {
+        append(RoundRecord.Kind.ROUND, gameId, opponent, round, startedAtMillis, durationMillis,
+                result.getOutcome(), result.getYourMove(), result.getOpponentMove(),
+                result.getYourScore(), result.getOpponentScore());
+    }
+
+    /**
+     * Appends the final result of a game.
+     *
+     * @param gameId        id from {@link #beginGame()}.
+     * @param opponent      opponent nickname, may be null if unknown.
+     * @param rounds        number of rounds played.
+     * @param endedAtMillis wall-clock time of G_END.
+     * @param outcome       WIN, LOSS or DRAW.
+     * @param yourScore     own final score.
+     * @param opponentScore opponent final score.
+     */
+    public synchronized void appendGameEnd(int gameId, String opponent, int rounds, long endedAtMillis,
+                                           RoundResult.Outcome outcome, int yourScore, int opponentScore) {
+        append(RoundRecord.Kind.GAME_END, gameId, opponent, rounds, endedAtMillis, 0, outcome,
+                RoundResult.NO_MOVE, RoundResult.NO_MOVE, yourScore, opponentScore);
+    }
+
+    /**
+     * Aggregates all records against one opponent.
+     *
+     * @param opponent opponent nickname.
+     * @return round and game counts; empty if the opponent is unknown.
+     */
+    public synchronized HistoryStats statsAgainst(String opponent) {
+        HistoryStats stats = new HistoryStats();
+        Integer id = opponentIds.get(opponent);
+        if (id != null) {
+            accumulate(byOpponent.get(id), stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Aggregates all records in a date range.
+     *
+     * @param from first day, inclusive.
+     * @param to   last day, inclusive.
+     * @return round and game counts.
+     */
+    public synchronized HistoryStats statsBetween(LocalDate from, LocalDate to) {
+        HistoryStats stats = new HistoryStats();
+        for (IntList records : days(from, to)) {
+            accumulate(records, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Streams records against one opponent in append order.
+     *
+     * @param opponent opponent nickname.
+     * @param visitor  consumer called for every record; must not call back into this history.
+     */
+    public synchronized void forEachAgainst(String opponent, Consumer<RoundRecord> visitor) {
+        Integer id = opponentIds.get(opponent);
+        if (id != null) {
+            visit(byOpponent.get(id), visitor);
+        }
+    }
+
+    /**
+     * Streams records in a date range in append order per day.
+     *
+     * @param from    first day, inclusive.
+     * @param to      last day, inclusive.
+     * @param visitor consumer called for every record; must not call back into this history.
+     */
+    public synchronized void forEachBetween(LocalDate from, LocalDate to, Consumer<RoundRecord> visitor) {
+        for (IntList records : days(from, to)) {
+            visit(records, visitor);
+        }
+    }
+
+    /**
+     * Returns every opponent seen so far.
+     *
+     * @return copy of nicknames in first-seen order.
+     */
+    public synchronized List<String> getOpponents() {
+        return List.copyOf(opponents);
+    }
+
+    /**
+     * Returns number of stored records.
+     *
+     * @return record count.
+     */
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Writes dirty mapped pages to the storage device.
+     */
+    public synchronized void flush() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Flushes and closes the file. Mappings are released by the garbage collector.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flush();
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            LOG.warning("Failed to close match history: " + ex.getMessage());
+        } finally {
+            OPEN_FILES.remove(file);
+        }
+    }
+
+    private void load(boolean fresh) throws IOException {
+        MappedByteBuffer header = segment(0);
+        if (fresh) {
+            header.putInt(HEADER_MAGIC, MAGIC);
+            header.putInt(HEADER_VERSION, VERSION);
+            header.putLong(HEADER_COUNT, 0);
+        } else if (header.getInt(HEADER_MAGIC) != MAGIC || header.getInt(HEADER_VERSION) != VERSION) {
+            throw new IOException("Not a match history file (version " + VERSION + ")");
+        }
+
+        if (Files.exists(namesFile)) {
+            for (String name : Files.readAllLines(namesFile, StandardCharsets.UTF_8)) {
+                opponentIds.put(name, opponents.size());
+                opponents.add(name);
+                byOpponent.add(new IntList());
+            }
+        }
+
+        long stored = header.getLong(HEADER_COUNT);
+        long capacity = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+        count = (int) Math.min(stored, Math.min(capacity, Integer.MAX_VALUE));
+        for (int record = 0; record < count; record++) {
+            long offset = offset(record);
+            MappedByteBuffer segment = segment(offset);
+            int position = (int) (offset % SEGMENT_BYTES);
+            int opponent = segment.getInt(position + OPPONENT);
+            if (opponent < 0 || opponent >= opponents.size()) {
+                throw new IOException("Record " + record + " references unknown opponent " + opponent);
+            }
+            index(record, opponent, segment.getLong(position + START));
+            nextGameId = Math.max(nextGameId, segment.getInt(position + GAME) + 1);
+        }
+        LOG.info("Match history opened with " + count + " records, " + opponents.size() + " opponents");
+    }
+
+    private void append(RoundRecord.Kind kind, int gameId, String opponent, int round, long startedAtMillis,
+                        int durationMillis, RoundResult.Outcome outcome, char yourMove, char opponentMove,
+                        int yourScore, int opponentScore) {
+        if (closed) {
+            throw new IllegalStateException("Match history is closed");
+        }
+        try {
+            int opponentId = intern(opponent != null ? opponent : "?");
+            long offset = offset(count);
+            MappedByteBuffer segment = segment(offset);
+            int position = (int) (offset % SEGMENT_BYTES);
+            segment.putLong(position + START, startedAtMillis);
+            segment.putInt(position + DURATION, durationMillis);
+            segment.putInt(position + OPPONENT, opponentId);
+            segment.putInt(position + GAME, gameId);
+            segment.putShort(position + ROUND, (short) round);
+            segment.put(position + KIND, (byte) kind.ordinal());
+            segment.put(position + OUTCOME, (byte) outcome.ordinal());
+            segment.put(position + YOUR_MOVE, (byte) yourMove);
+            segment.put(position + OPPONENT_MOVE, (byte) opponentMove);
+            segment.putShort(position + YOUR_SCORE, (short) yourScore);
+            segment.putShort(position + OPPONENT_SCORE, (short) opponentScore);
+            // Publish the record only after its bytes are in place.
+            segments.get(0).putLong(HEADER_COUNT, count + 1L);
+            index(count, opponentId, startedAtMillis);
+            count++;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to append match history record", ex);
+        }
+    }
+
+    private int intern(String opponent) throws IOException {
+        Integer id = opponentIds.get(opponent);
+        if (id != null) {
+            return id;
+        }
+        Files.write(namesFile, (opponent + "\n").getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        int newId = opponents.size();
+        opponents.add(opponent);
+        opponentIds.put(opponent, newId);
+        byOpponent.add(new IntList());
+        return newId;
+    }
+
+    private void index(int record, int opponentId, long startedAtMillis) {
+        byOpponent.get(opponentId).add(record);
+        if (startedAtMillis < dayStartMillis || startedAtMillis >= dayEndMillis) {
+            ZonedDateTime time = Instant.ofEpochMilli(startedAtMillis).atZone(zone);
+            LocalDate day = time.toLocalDate();
+            dayStartMillis = day.atStartOfDay(zone).toInstant().toEpochMilli();
+            dayEndMillis = day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+            dayIndex = byDay.computeIfAbsent(day.toEpochDay(), key -> new IntList());
+        }
+        dayIndex.add(record);
+    }
+
+    private Collection<IntList> days(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        return byDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values();
+    }
+
+    private void accumulate(IntList records, HistoryStats stats) {
+        for (int i = 0; i < records.size(); i++) {
+            long offset = offset(records.get(i));
+            MappedByteBuffer segment = segments.get((int) (offset / SEGMENT_BYTES));
+            int position = (int) (offset % SEGMENT_BYTES);
+            stats.add(KINDS[segment.get(position + KIND)], OUTCOMES[segment.get(position + OUTCOME)]);
+        }
+    }
+
+    private void visit(IntList records, Consumer<RoundRecord> visitor) {
+        for (int i = 0; i < records.size(); i++) {
+            visitor.accept(read(records.get(i)));
+        }
+    }
+
+    private RoundRecord read(int record) {
+        long offset = offset(record);
+        MappedByteBuffer segment = segments.get((int) (offset / SEGMENT_BYTES));
+        int position = (int) (offset % SEGMENT_BYTES);
+        return new RoundRecord(
+                KINDS[segment.get(position + KIND)],
+                segment.getLong(position + START),
+                segment.getInt(position + DURATION),
+                opponents.get(segment.getInt(position + OPPONENT)),
+                segment.getInt(position + GAME),
+                segment.getShort(position + ROUND),
+                OUTCOMES[segment.get(position + OUTCOME)],
+                (char) segment.get(position + YOUR_MOVE),
+                (char) segment.get(position + OPPONENT_MOVE),
+                segment.getShort(position + YOUR_SCORE),
+                segment.getShort(position + OPPONENT_SCORE));
+    }
+
+    private static long offset(int record) {
+        return HEADER_BYTES + (long) record * RECORD_BYTES;
+    }
+
+    /**
+     * Returns mapped segment containing given file offset, mapping (and growing the file) on demand.
+     */
+    private MappedByteBuffer segment(long offset) throws IOException {
+        int index = (int) (offset / SEGMENT_BYTES);
+        while (segments.size() <= index) {
+            long start = (long) segments.size() * SEGMENT_BYTES;
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, start, SEGMENT_BYTES));
+        }
+        return segments.get(index);
+    }
+}
@@ -0,0 +1,153 @@
+package com.rps.history;
+
+import com.rps.RoundResult;
+import com.rps.network.EventBus;
+import com.rps.network.ServerEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Feeds one session's game events into a {@link MatchHistory}.
+ * <p>
+ * Tracks the current opponent (P_JOINED, OPP_INF or {@link #setOpponent(String)}), opens a game
+ * on G_ST, appends a record on every R_RE and closes the game on G_END. Listeners run on the
+ * session's bus thread, so the recorder keeps no locks of its own.
+ */
+public final class MatchRecorder implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(MatchRecorder.class.getName());
+
+    private final MatchHistory history;
+    private final Supplier<String> ownName;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
+
+    private volatile String opponent;
+
+    /** Opponent set by {@link #setOpponent(String)}; wins over protocol events until G_END. */
+    private volatile String pinnedOpponent;
+    private int gameId;
+    private int round;
+    private long roundStartedAtMillis;
+    private long roundStartedAtNanos;
+    private int yourScore;
+    private int opponentScore;
+
+    /**
+     * Creates recorder and subscribes it to the bus.
+     *
+     * @param history store to append to.
+     * @param bus     event bus of the session.
+     * @param ownName supplier of the local nickname, used to decode the G_END winner.
+     */
+    public MatchRecorder(MatchHistory history, EventBus bus, Supplier<String> ownName) {
+        this.history = Objects.requireNonNull(history, "history");
+        this.ownName = Objects.requireNonNull(ownName, "ownName");
+        subscriptions.add(bus.subscribe("P_JOINED", this::onPlayerJoined));
+        subscriptions.add(bus.subscribe("OPP_INF", this::onOpponentInfo));
+        subscriptions.add(bus.subscribe("G_ST", this::onGameStart));
+        subscriptions.add(bus.subscribe("R_ST", this::onRoundStart));
+        subscriptions.add(bus.subscribe("R_RE", this::onRoundResult));
+        subscriptions.add(bus.subscribe("G_END", this::onGameEnd));
+    }
+
+    /**
+     * Sets opponent of the next game explicitly, e.g. a participant name chosen by a tournament
+     * runner. P_JOINED and OPP_INF are ignored until that game ends.
+     *
+     * @param opponent opponent name.
+     */
+    public void setOpponent(String opponent) {
+        this.pinnedOpponent = opponent;
+    }
+
+    private String currentOpponent() {
+        String pinned = pinnedOpponent;
+        return pinned != null ? pinned : opponent;
+    }
+
+    private void onPlayerJoined(ServerEvent event) {
+        String name = event.getPart(1);
+        if (name != null && !name.equals(ownName.get())) {
+            opponent = name;
+        }
+    }
+
+    private void onOpponentInfo(ServerEvent event) {
+        String name = event.getPart(1);
+        if (name != null && !"NONE".equals(name)) {
+            opponent = name;
+        }
+    }
+
+    private void onGameStart(ServerEvent event) {
+        gameId = history.beginGame();
+        round = 0;
+        yourScore = 0;
+        opponentScore = 0;
+    }
+
+    private void onRoundStart(ServerEvent event) {
+        if (gameId == 0) {
+            // Joined mid-game after a reconnect.
+            gameId = history.beginGame();
+        }
+        try {
+            round = Integer.parseInt(event.getPart(1));
+        } catch (NumberFormatException ex) {
+            round++;
+        }
+        roundStartedAtMillis = System.currentTimeMillis();
+        roundStartedAtNanos = event.getReceivedAtNanos();
+    }
+
+    private void onRoundResult(ServerEvent event) {
+        if (gameId == 0 || roundStartedAtNanos == 0) {
+            return;
+        }
+        RoundResult result;
+        try {
+            result = RoundResult.parse(event);
+        } catch (IllegalArgumentException ex) {
+            LOG.fine("Round not recorded: " + ex.getMessage());
+            return;
+        }
+        int duration = (int) TimeUnit.NANOSECONDS.toMillis(event.getReceivedAtNanos() - roundStartedAtNanos);
+        history.appendRound(gameId, currentOpponent(), round, roundStartedAtMillis, duration, result);
+        yourScore = result.getYourScore();
+        opponentScore = result.getOpponentScore();
+        roundStartedAtNanos = 0;
+    }
+
+    private void onGameEnd(ServerEvent event) {
+        if (gameId == 0) {
+            return;
+        }
+        String winner = event.getPart(1);
+        RoundResult.Outcome outcome;
+        if ("D".equals(winner)) {
+            outcome = RoundResult.Outcome.DRAW;
+        } else if ("opp_l".equals(winner) || Objects.equals(winner, ownName.get())) {
+            outcome = RoundResult.Outcome.WIN;
+        } else {
+            outcome = RoundResult.Outcome.LOSS;
+        }
+        history.appendGameEnd(gameId, currentOpponent(), round, System.currentTimeMillis(), outcome, yourScore, opponentScore);
+        gameId = 0;
+        roundStartedAtNanos = 0;
+        pinnedOpponent = null;
+    }
+
+    /**
+     * Unsubscribes from the bus. The history itself stays open.
+     */
+    @Override
+    public void close() {
+        subscriptions.forEach(EventBus.Subscription::unsubscribe);
+        subscriptions.clear();
+    }
+}
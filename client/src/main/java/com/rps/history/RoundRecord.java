@@ -0,0 +1,104 @@
+package com.rps.history;
+
+import com.rps.RoundResult;
+
+/**
+ * One decoded entry of the match history: either a played round or the end of a game.
+ */
+public final class RoundRecord {
+
+    /** Kind of history entry. */
+    public enum Kind {
+        /** Result of one round (R_RE). */
+        ROUND,
+        /** Final result of a game (G_END); moves are {@link RoundResult#NO_MOVE}. */
+        GAME_END
+    }
+
+    private final Kind kind;
+    private final long startedAtMillis;
+    private final int durationMillis;
+    private final String opponent;
+    private final int gameId;
+    private final int round;
+    private final RoundResult.Outcome outcome;
+    private final char yourMove;
+    private final char opponentMove;
+    private final int yourScore;
+    private final int opponentScore;
+
+    RoundRecord(Kind kind, long startedAtMillis, int durationMillis, String opponent, int gameId, int round,
+                RoundResult.Outcome outcome, char yourMove, char opponentMove, int yourScore, int opponentScore) {
+        this.kind = kind;
+        this.startedAtMillis = startedAtMillis;
+        this.durationMillis = durationMillis;
+        this.opponent = opponent;
+        this.gameId = gameId;
+        this.round = round;
+        this.outcome = outcome;
+        this.yourMove = yourMove;
+        this.opponentMove = opponentMove;
+        this.yourScore = yourScore;
+        this.opponentScore = opponentScore;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns wall-clock time of R_ST (rounds) or G_END (game ends).
+     *
+     * @return epoch milliseconds.
+     */
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    /**
+     * Returns time between R_ST and R_RE; 0 for game ends.
+     *
+     * @return duration in milliseconds.
+     */
+    public int getDurationMillis() {
+        return durationMillis;
+    }
+
+    public String getOpponent() {
+        return opponent;
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public RoundResult.Outcome getOutcome() {
+        return outcome;
+    }
+
+    public char getYourMove() {
+        return yourMove;
+    }
+
+    public char getOpponentMove() {
+        return opponentMove;
+    }
+
+    public int getYourScore() {
+        return yourScore;
+    }
+
+    public int getOpponentScore() {
+        return opponentScore;
+    }
+
+    @Override
+    public String toString() {
+        return kind + " game " + gameId + " round " + round + " vs " + opponent + ": " + outcome
+                + " " + yourMove + " vs " + opponentMove + " (" + yourScore + ":" + opponentScore + ")";
+    }
+}
@@ -0,0 +1,109 @@
+package com.rps.network;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads shared by all client sessions hosted in one JVM.
+ * <p>
+ * Responsibilities:
+ * <ul>
+ *     <li>Provide one scheduler for watchdogs, reconnect attempts and deadlines.</li>
+ *     <li>Provide one I/O pool on which per-connection writers are serialized.</li>
+ * </ul>
+ * Sessions never own threads other than their blocking socket reader, so the number of
+ * pooled threads stays constant no matter how many sessions are open.
+ */
+public final class ClientRuntime {
+
+    private static final Object SHARED_LOCK = new Object();
+    private static ClientRuntime shared;
+
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService ioPool;
+
+    /**
+     * Creates runtime with thread counts derived from available processors.
+     */
+    public ClientRuntime() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors() / 2),
+                Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Creates runtime with explicit pool sizes.
+     *
+     * @param schedulerThreads number of scheduler threads.
+     * @param ioThreads        number of threads used for socket writes.
+     */
+    public ClientRuntime(int schedulerThreads, int ioThreads) {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(
+                Math.max(1, schedulerThreads), new NamedThreadFactory("client-scheduler"));
+        timer.setRemoveOnCancelPolicy(true);
+        this.scheduler = timer;
+        this.ioPool = Executors.newFixedThreadPool(Math.max(1, ioThreads), new NamedThreadFactory("client-io"));
+    }
+
+    /**
+     * Returns lazily created runtime shared by the whole process.
+     *
+     * @return shared runtime instance.
+     */
+    public static ClientRuntime shared() {
+        synchronized (SHARED_LOCK) {
+            if (shared == null) {
+                shared = new ClientRuntime();
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * Returns shared scheduler for periodic and delayed tasks.
+     *
+     * @return scheduled executor; tasks must not block for long.
+     */
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns shared pool on which per-connection writers run.
+     *
+     * @return executor service for socket writes.
+     */
+    ExecutorService ioPool() {
+        return ioPool;
+    }
+
+    /**
+     * Stops all shared threads. Sessions using this runtime stop working afterwards.
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        ioPool.shutdownNow();
+    }
+
+    /**
+     * Thread factory for shared pools; names and daemonizes threads.
+     */
+    private static final class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger index = new AtomicInteger();
+
+        private NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + "-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
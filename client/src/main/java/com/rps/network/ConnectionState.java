@@ -0,0 +1,35 @@
+package com.rps.network;
+
+/**
+ * Lifecycle state of the connection held by {@link NetworkManager}.
+ * <p>
+ * Transitions:
+ * <pre>
+ * CLOSED --connect--> CONNECTING --established--> OPEN --soft timeout--> DEGRADED
+ *                         |                        |  ^                         |
+ *                         |                        |  +--------message----------+
+ *                         +--failed--> CLOSED      +--beginResume--> RESUMING --endResume--> OPEN
+ * any --disconnect / connection lost--> CLOSED
+ * </pre>
+ */
+public enum ConnectionState {
+    /** TCP connect in progress. */
+    CONNECTING,
+    /** Connected and the server was heard from recently. */
+    OPEN,
+    /** Connected, but the server has been silent longer than the soft timeout. */
+    DEGRADED,
+    /** Connected again after a drop, RECONNECT sent and not answered yet. */
+    RESUMING,
+    /** No connection. */
+    CLOSED;
+
+    /**
+     * Checks whether a socket is established in this state.
+     *
+     * @return true for OPEN, DEGRADED and RESUMING.
+     */
+    public boolean isConnected() {
+        return this == OPEN || this == DEGRADED || this == RESUMING;
+    }
+}
@@ -0,0 +1,164 @@
+package com.rps.network;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Opens the connection speculatively while the user is still on the login screen.
+ * <p>
+ * Each time the entered address changes, {@link #prepare(String, int)} schedules a connect
+ * after a short debounce. The warm socket answers server PINGs and runs the inactivity
+ * watchdog like any other connection, so pressing Connect only costs the HELLO round trip
+ * once {@link #claim(String, int)} hands it over. A warm socket to an address that is no
+ * longer entered is closed, and so is one left unclaimed for {@link #IDLE_LIMIT_MILLIS}, so a
+ * login screen left alone does not hold one of the server's client slots.
+ * <p>
+ * Thread-safe and non-blocking: connects run through {@link NetworkManager#connectAsync(String, int)},
+ * and {@link #claim(String, int)} hands over a connect still in progress as its future.
+ */
+public final class ConnectionWarmer {
+    private static final Logger LOG = Logger.getLogger(ConnectionWarmer.class.getName());
+
+    /** Quiet period after the last edit before connecting, so typing does not open sockets. */
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    /** Lifetime of an unclaimed warm connection; below the server's soft timeout of 6 s. */
+    static final long IDLE_LIMIT_MILLIS = 5_000;
+
+    private final NetworkManager networkManager;
+    private final ScheduledExecutorService scheduler;
+
+    /** Address of the scheduled or open warm connection; null if there is none. */
+    private String host;
+    private int port;
+
+    /** Pending debounced connect; null once it ran or was cancelled. */
+    private ScheduledFuture<?> pending;
+
+    /** Warm connect owned by this warmer, in progress or done; null if there is none. */
+    private CompletableFuture<Void> connecting;
+
+    /** Closes {@link #connecting} once it was idle too long; null if there is none. */
+    private ScheduledFuture<?> idleClose;
+
+    /**
+     * Creates warmer for given connection.
+     *
+     * @param networkManager connection to open early.
+     * @param scheduler      scheduler running the debounce.
+     */
+    public ConnectionWarmer(NetworkManager networkManager, ScheduledExecutorService scheduler) {
+        this.networkManager = Objects.requireNonNull(networkManager, "networkManager");
+        this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+    }
+
+    /**
+     * Warms a connection to the given address, replacing a warm connection to another one.
+     *
+     * @param host server host.
+     * @param port server port.
+     */
+    public synchronized void prepare(String host, int port) {
+        if (host.equals(this.host) && port == this.port && (pending != null || isUsable())) {
+            return;
+        }
+        discard();
+        this.host = host;
+        this.port = port;
+        pending = scheduler.schedule(this::connectNow, DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands the warm connection to the caller if it leads to the given address. A connect
+     * still waiting for the debounce is started right away.
+     *
+     * @param host server host the user connects to.
+     * @param port server port the user connects to.
+     * @return future completed once the connection is open and only HELLO is missing; null if
+     * the caller has to connect itself.
+     */
+    public synchronized CompletableFuture<Void> claim(String host, int port) {
+        boolean matches = host.equals(this.host) && port == this.port;
+        if (matches && pending != null) {
+            pending.cancel(false);
+            startConnect();
+        }
+        CompletableFuture<Void> claimed = matches && isUsable() ? connecting : null;
+        if (claimed != null) {
+            LOG.info("Using warm connection to " + host + ":" + port);
+            cancelIdleClose();
+            connecting = null;
+        } else {
+            discard();
+        }
+        this.host = null;
+        return claimed;
+    }
+
+    /**
+     * Cancels a scheduled connect and closes the warm connection, if any.
+     */
+    public synchronized void discard() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        cancelIdleClose();
+        if (connecting != null) {
+            connecting = null;
+            LOG.info("Closing warm connection to " + host + ":" + port);
+            networkManager.disconnect();
+        }
+        host = null;
+    }
+
+    private synchronized void connectNow() {
+        if (pending == null || host == null) {
+            return;
+        }
+        startConnect();
+    }
+
+    private void startConnect() {
+        pending = null;
+        String target = host + ":" + port;
+        CompletableFuture<Void> started = networkManager.connectAsync(host, port);
+        connecting = started;
+        idleClose = scheduler.schedule(() -> closeIdle(started), IDLE_LIMIT_MILLIS, TimeUnit.MILLISECONDS);
+        started.whenComplete((ignored, ex) -> {
+            if (ex == null) {
+                LOG.info("Warm connection open to " + target);
+            } else {
+                LOG.fine(() -> "Warm connect to " + target + " failed: " + ex.getMessage());
+            }
+        });
+    }
+
+    private synchronized void closeIdle(CompletableFuture<Void> started) {
+        if (connecting != started) {
+            return;
+        }
+        idleClose = null;
+        LOG.info("Warm connection unclaimed for " + IDLE_LIMIT_MILLIS + " ms");
+        discard();
+    }
+
+    private void cancelIdleClose() {
+        if (idleClose != null) {
+            idleClose.cancel(false);
+            idleClose = null;
+        }
+    }
+
+    /**
+     * Checks whether the warm connect is in progress or open.
+     */
+    private boolean isUsable() {
+        return connecting != null
+                && (!connecting.isDone() || (!connecting.isCompletedExceptionally() && networkManager.isConnected()));
+    }
+}
@@ -5,30 +5,57 @@ import javafx.application.Platform;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public final class EventBus {
     private static final Logger LOG = Logger.getLogger(EventBus.class.getName());
+    private static final int INVALID_STREAK_LIMIT = 3;
+
+    /** Lanes of commands not in the default game lane, see {@link EventLane}. */
+    private static final Map<String, EventLane> DEFAULT_LANES = Map.of(
+            "PING", EventLane.CONTROL,
+            "R_LIST", EventLane.BULK,
+            "ROOM", EventLane.BULK,
+            "R_LOADED", EventLane.BULK);
 
     private final Executor dispatcher;
+    /** True without a dispatcher: listeners run on the publishing thread and lanes are ignored. */
+    private final boolean direct;
+    private final Map<String, EventLane> lanes = new ConcurrentHashMap<>(DEFAULT_LANES);
+    private final Queue<Delivery> gameLane = new ConcurrentLinkedQueue<>();
+    private final Queue<Delivery> bulkLane = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
     private final Map<String, CopyOnWriteArrayList<Consumer<ServerEvent>>> listeners = new ConcurrentHashMap<>();
     private final CopyOnWriteArrayList<Consumer<ServerEvent>> wildcardListeners = new CopyOnWriteArrayList<>();
 
-    private int invalidStreak = 0;
-    private Runnable onTooManyInvalid;
+    /** Consecutive invalid events; reset by a valid one. Updated from the reader and FX threads. */
+    private final AtomicInteger invalidStreak = new AtomicInteger();
+    private volatile Runnable onTooManyInvalid;
+    private volatile HandlerProfiler profiler;
 
     public EventBus() {
-        this(Runnable::run);
+        this(null);
     }
 
+    /**
+     * Creates bus delivering queued lanes through given dispatcher, see {@link EventLane}.
+     *
+     * @param dispatcher runs one drain pass per task, e.g. {@code Platform::runLater}; null runs
+     *                   every listener on the publishing thread.
+     */
     public EventBus(Executor dispatcher) {
+        this.direct = dispatcher == null;
         this.dispatcher = dispatcher != null ? dispatcher : Runnable::run;
     }
 
@@ -63,14 +90,17 @@ public final class EventBus {
 
     public void publish(ServerEvent event) {
         Objects.requireNonNull(event, "event");
-        wildcardListeners.forEach(listener -> dispatch(listener, event));
+        EventLane lane = getLane(event.getCommand());
+        // Wildcard listeners expect the dispatcher thread, so they never run in the control lane.
+        EventLane wildcardLane = lane == EventLane.CONTROL ? EventLane.GAME : lane;
+        wildcardListeners.forEach(listener -> dispatch(listener, event, wildcardLane));
         List<Consumer<ServerEvent>> handlers = listeners.get(event.getCommand());
         if (handlers != null) {
             recordValidEvent();
-            handlers.forEach(listener -> dispatch(listener, event));
+            handlers.forEach(listener -> dispatch(listener, event, lane));
         } else {
             recordInvalidEvent();
-            LOG.warning("No listeners for event: " + event.getCommand());
+            LOG.warning(() -> "No listeners for event: " + event.getCommand());
         }
     }
 
@@ -84,11 +114,89 @@ public final class EventBus {
         return handlers != null ? handlers.size() : 0;
     }
 
-    private void dispatch(Consumer<ServerEvent> listener, ServerEvent event) {
+    /**
+     * Assigns a command to a delivery lane; later publications of the command use it.
+     *
+     * @param command command name.
+     * @param lane    lane for its listeners.
+     */
+    public void setLane(String command, EventLane lane) {
+        lanes.put(Objects.requireNonNull(command, "command"), Objects.requireNonNull(lane, "lane"));
+    }
+
+    /**
+     * Returns delivery lane of a command.
+     *
+     * @param command command name.
+     * @return assigned lane, {@link EventLane#GAME} if none was assigned.
+     */
+    public EventLane getLane(String command) {
+        return lanes.getOrDefault(command, EventLane.GAME);
+    }
+
+    /**
+     * Attaches a profiler that times every listener invocation; null disables profiling.
+     *
+     * @param profiler profiler instance or null.
+     */
+    public void setProfiler(HandlerProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    private void dispatch(Consumer<ServerEvent> listener, ServerEvent event, EventLane lane) {
+        long publishedAt = profiler != null ? System.nanoTime() : 0;
+        if (direct || lane == EventLane.CONTROL) {
+            deliver(listener, event, publishedAt);
+            return;
+        }
+        (lane == EventLane.BULK ? bulkLane : gameLane).add(new Delivery(listener, event, publishedAt));
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            dispatcher.execute(() -> invokeListener(listener, event));
+            dispatcher.execute(this::drain);
         } catch (RejectedExecutionException ex) {
-            LOG.log(Level.WARNING, "Dispatcher rejected event " + event.getCommand(), ex);
+            drainScheduled.set(false);
+            LOG.log(Level.WARNING, "Dispatcher rejected event delivery", ex);
+        }
+    }
+
+    /**
+     * Runs one pass on the dispatcher: game deliveries first, bulk ones while the game lane is
+     * empty or out of budget, until both budgets are spent or both lanes are empty. Leftovers
+     * go to the next pass so the dispatcher thread can render in between.
+     */
+    private void drain() {
+        // Cleared first: a listener running a nested event loop (e.g. showAndWait) lets the
+        // pass scheduled by later events deliver them meanwhile.
+        drainScheduled.set(false);
+        int gameBudget = EventLane.GAME.getBudget();
+        int bulkBudget = EventLane.BULK.getBudget();
+        while (true) {
+            Delivery next = gameBudget > 0 ? gameLane.poll() : null;
+            if (next != null) {
+                gameBudget--;
+            } else if (bulkBudget > 0 && (next = bulkLane.poll()) != null) {
+                bulkBudget--;
+            } else {
+                break;
+            }
+            deliver(next.listener, next.event, next.publishedAt);
+        }
+        if (!gameLane.isEmpty() || !bulkLane.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void deliver(Consumer<ServerEvent> listener, ServerEvent event, long publishedAt) {
+        if (publishedAt != 0) {
+            invokeProfiled(listener, event, publishedAt);
+        } else {
+            invokeListener(listener, event);
         }
     }
 
@@ -100,6 +208,31 @@ public final class EventBus {
         }
     }
 
+    private void invokeProfiled(Consumer<ServerEvent> listener, ServerEvent event, long publishedAt) {
+        long startedAt = System.nanoTime();
+        invokeListener(listener, event);
+        HandlerProfiler current = profiler;
+        if (current != null) {
+            current.record(listener, event, startedAt - publishedAt, System.nanoTime() - startedAt);
+        }
+    }
+
+    /**
+     * Listener invocation waiting in a lane.
+     */
+    private static final class Delivery {
+        private final Consumer<ServerEvent> listener;
+        private final ServerEvent event;
+        /** Publish time for the profiler, 0 when profiling was off. */
+        private final long publishedAt;
+
+        private Delivery(Consumer<ServerEvent> listener, ServerEvent event, long publishedAt) {
+            this.listener = listener;
+            this.event = event;
+            this.publishedAt = publishedAt;
+        }
+    }
+
     public interface Subscription extends AutoCloseable {
         void unsubscribe();
 
@@ -114,17 +247,29 @@ public final class EventBus {
     }
 
     public void recordValidEvent() {
-        invalidStreak = 0;
+        if (invalidStreak.get() != 0) {
+            invalidStreak.set(0);
+        }
     }
 
+    /**
+     * Counts an invalid event. Every third consecutive one fires the too-many-invalid action
+     * exactly once, also when invalid events are recorded from several threads at a time.
+     */
     public void recordInvalidEvent() {
-        if (onTooManyInvalid == null) {
+        Runnable action = onTooManyInvalid;
+        if (action == null) {
             return;
         }
-        invalidStreak = invalidStreak + 1;
-        if (invalidStreak >= 3) {
-            invalidStreak = 0;
-            onTooManyInvalid.run();
+        while (true) {
+            int streak = invalidStreak.get();
+            int next = streak + 1 >= INVALID_STREAK_LIMIT ? 0 : streak + 1;
+            if (invalidStreak.compareAndSet(streak, next)) {
+                if (next == 0) {
+                    action.run();
+                }
+                return;
+            }
         }
     }
 }
@@ -0,0 +1,35 @@
+package com.rps.network;
+
+/**
+ * Delivery lane of a command published on an {@link EventBus} with an asynchronous dispatcher.
+ * <p>
+ * Queued lanes are drained in passes of one dispatcher task (one {@code Platform.runLater} on the
+ * JavaFX bus). A pass takes game events before bulk events and stops when both lanes used up their
+ * budget, so the UI gets a pulse between passes and a game event waits for at most one pass of
+ * bulk work, however long the room list is. Order is kept within a lane, not across lanes; a
+ * listener that must not act on an event overtaken by a later one compares
+ * {@link ServerEvent#getSequence()}.
+ */
+public enum EventLane {
+    /** Connection upkeep such as PING; listeners run on the publishing thread without a queue. */
+    CONTROL(0),
+    /** Game flow, replies and everything not assigned elsewhere. */
+    GAME(64),
+    /** Room list traffic (R_LIST, ROOM, R_LOADED), which can arrive in large bursts. */
+    BULK(32);
+
+    private final int budget;
+
+    EventLane(int budget) {
+        this.budget = budget;
+    }
+
+    /**
+     * Returns number of listener invocations this lane may run per dispatcher pass.
+     *
+     * @return budget, 0 for the unqueued control lane.
+     */
+    public int getBudget() {
+        return budget;
+    }
+}
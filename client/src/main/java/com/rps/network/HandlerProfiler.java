@@ -0,0 +1,219 @@
+package com.rps.network;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Collects timing statistics for {@link EventBus} listener invocations.
+ * <p>
+ * Responsibilities:
+ * <ul>
+ *     <li>Measure queue delay (publish to invocation) and run time per listener and command.</li>
+ *     <li>Report the slowest listeners by worst and average run time.</li>
+ *     <li>Capture the event whose handler exceeded the stall threshold.</li>
+ * </ul>
+ * A listener is identified by its class; every lambda or method reference has a class of its
+ * own, so two handlers of one command are told apart.
+ */
+public final class HandlerProfiler {
+    private static final Logger LOG = Logger.getLogger(HandlerProfiler.class.getName());
+    private static final long DEFAULT_STALL_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private final long stallThresholdNanos;
+    private final Map<HandlerKey, HandlerStats> stats = new ConcurrentHashMap<>();
+    private final AtomicReference<Sample> slowestSinceMark = new AtomicReference<>();
+
+    /**
+     * Creates profiler with default stall threshold of one 60 Hz frame (16 ms).
+     */
+    public HandlerProfiler() {
+        this(DEFAULT_STALL_THRESHOLD_NANOS);
+    }
+
+    /**
+     * Creates profiler with custom stall threshold.
+     *
+     * @param stallThresholdNanos run time after which a single invocation is logged as a stall.
+     */
+    public HandlerProfiler(long stallThresholdNanos) {
+        this.stallThresholdNanos = stallThresholdNanos > 0 ? stallThresholdNanos : DEFAULT_STALL_THRESHOLD_NANOS;
+    }
+
+    /**
+     * Records a single listener invocation.
+     *
+     * @param listener    listener that was invoked.
+     * @param event       event passed to the listener.
+     * @param queuedNanos time spent between publish and start of invocation.
+     * @param runNanos    time spent inside the listener.
+     */
+    void record(Object listener, ServerEvent event, long queuedNanos, long runNanos) {
+        HandlerKey key = new HandlerKey(listener.getClass(), event.getCommand());
+        stats.computeIfAbsent(key, k -> new HandlerStats()).add(queuedNanos, runNanos);
+
+        Sample sample = new Sample(key, event, runNanos);
+        slowestSinceMark.accumulateAndGet(sample,
+                (current, candidate) -> current == null || candidate.runNanos > current.runNanos ? candidate : current);
+
+        if (runNanos >= stallThresholdNanos) {
+            LOG.warning(() -> "Slow handler " + key.handlerName() + " for " + event.getCommand() + ": "
+                    + toMillis(runNanos) + " ms (queued " + toMillis(queuedNanos) + " ms), event: "
+                    + event.getFullMessage());
+        }
+    }
+
+    /**
+     * Returns slowest invocation recorded since the previous call and starts a new window.
+     * Used by the pulse monitor to attribute a long frame to the offending event.
+     *
+     * @return slowest sample or null when nothing was dispatched in the window.
+     */
+    public Sample takeSlowestSinceMark() {
+        return slowestSinceMark.getAndSet(null);
+    }
+
+    /**
+     * Builds a report of listeners ordered by their worst run time.
+     *
+     * @param limit maximum number of listener and command pairs to include.
+     * @return human readable lines, one per listener and command.
+     */
+    public List<String> slowestHandlers(int limit) {
+        List<Map.Entry<HandlerKey, HandlerStats>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<HandlerKey, HandlerStats> e) -> e.getValue().maxRunNanos.get()).reversed());
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            HandlerKey key = entries.get(i).getKey();
+            HandlerStats s = entries.get(i).getValue();
+            long count = s.count.sum();
+            lines.add(String.format("%-10s %-32s count=%d avg=%.3f ms max=%.3f ms avgQueue=%.3f ms maxQueue=%.3f ms",
+                    key.command, key.handlerName(), count,
+                    count > 0 ? toMillis(s.totalRunNanos.sum() / count) : 0.0,
+                    toMillis(s.maxRunNanos.get()),
+                    count > 0 ? toMillis(s.totalQueuedNanos.sum() / count) : 0.0,
+                    toMillis(s.maxQueuedNanos.get())));
+        }
+        return lines;
+    }
+
+    /**
+     * Logs {@link #slowestHandlers(int)} report at INFO level.
+     *
+     * @param limit maximum number of listener and command pairs to include.
+     */
+    public void logReport(int limit) {
+        List<String> lines = slowestHandlers(limit);
+        if (lines.isEmpty()) {
+            return;
+        }
+        LOG.info("Event handler timings (slowest first):\n  " + String.join("\n  ", lines));
+    }
+
+    /**
+     * Clears all collected statistics.
+     */
+    public void reset() {
+        stats.clear();
+        slowestSinceMark.set(null);
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Single listener invocation captured for stall attribution.
+     */
+    public static final class Sample {
+        private final HandlerKey key;
+        private final ServerEvent event;
+        private final long runNanos;
+
+        private Sample(HandlerKey key, ServerEvent event, long runNanos) {
+            this.key = key;
+            this.event = event;
+            this.runNanos = runNanos;
+        }
+
+        /**
+         * Returns name of the listener that was invoked, see {@link HandlerProfiler}.
+         *
+         * @return listener class name without package.
+         */
+        public String getHandler() {
+            return key.handlerName();
+        }
+
+        public ServerEvent getEvent() {
+            return event;
+        }
+
+        public long getRunNanos() {
+            return runNanos;
+        }
+    }
+
+    /**
+     * Listener class and command that statistics are kept for.
+     */
+    private static final class HandlerKey {
+        private final Class<?> listenerClass;
+        private final String command;
+
+        private HandlerKey(Class<?> listenerClass, String command) {
+            this.listenerClass = listenerClass;
+            this.command = command;
+        }
+
+        /** Class name without package and without the address suffix of lambda classes. */
+        String handlerName() {
+            String name = listenerClass.getName();
+            int slash = name.indexOf('/');
+            if (slash >= 0) {
+                name = name.substring(0, slash);
+            }
+            return name.substring(name.lastIndexOf('.') + 1);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof HandlerKey)) {
+                return false;
+            }
+            HandlerKey other = (HandlerKey) o;
+            return listenerClass == other.listenerClass && command.equals(other.command);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * listenerClass.hashCode() + command.hashCode();
+        }
+    }
+
+    private static final class HandlerStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalRunNanos = new LongAdder();
+        private final LongAdder totalQueuedNanos = new LongAdder();
+        private final AtomicLong maxRunNanos = new AtomicLong();
+        private final AtomicLong maxQueuedNanos = new AtomicLong();
+
+        void add(long queuedNanos, long runNanos) {
+            count.increment();
+            totalRunNanos.add(runNanos);
+            totalQueuedNanos.add(queuedNanos);
+            maxRunNanos.accumulateAndGet(runNanos, Math::max);
+            maxQueuedNanos.accumulateAndGet(queuedNanos, Math::max);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.rps.network;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estimates round-trip time to the server from request/response pairs.
+ * <p>
+ * A probe is started when a request with a well-known reply is sent and finished when
+ * that reply arrives. Samples are smoothed with the same weights TCP uses for SRTT
+ * (new = 7/8 old + 1/8 sample).
+ * <p>
+ * A probe that will not get its reply must not be kept, or the next reply of that command
+ * would be timed from the old request. A new probe therefore replaces an older one for the same
+ * reply, and all probes are dropped on an {@code ERR} (it answers one of them in place of the
+ * expected reply) and when the connection is closed or replaced.
+ */
+public final class LatencyEstimator {
+
+    /** Round-trip time assumed before the first sample is taken. */
+    private static final long INITIAL_RTT_NANOS = 0L;
+
+    /** Probes older than this are treated as lost and ignored. */
+    private static final long PROBE_EXPIRY_NANOS = 5_000_000_000L;
+
+    private final Map<String, Long> pendingProbes = new ConcurrentHashMap<>();
+    private final AtomicLong smoothedRttNanos = new AtomicLong(INITIAL_RTT_NANOS);
+    private volatile boolean hasSample;
+
+    /**
+     * Marks the moment a request was handed to the network layer.
+     *
+     * @param replyCommand command of the server reply that completes the probe.
+     */
+    void startProbe(String replyCommand) {
+        pendingProbes.put(replyCommand, System.nanoTime());
+    }
+
+    /**
+     * Drops every pending probe, e.g. when the connection is lost.
+     */
+    void clearProbes() {
+        pendingProbes.clear();
+    }
+
+    /**
+     * Completes a pending probe when its reply arrives.
+     *
+     * @param event received server event.
+     */
+    void onReply(ServerEvent event) {
+        if ("ERR".equals(event.getCommand())) {
+            clearProbes();
+            return;
+        }
+        Long sentAt = pendingProbes.remove(event.getCommand());
+        if (sentAt == null) {
+            return;
+        }
+        long sample = event.getReceivedAtNanos() - sentAt;
+        if (sample <= 0 || sample > PROBE_EXPIRY_NANOS) {
+            return;
+        }
+        if (!hasSample) {
+            smoothedRttNanos.set(sample);
+            hasSample = true;
+            return;
+        }
+        smoothedRttNanos.accumulateAndGet(sample, (old, s) -> old - (old >> 3) + (s >> 3));
+    }
+
+    /**
+     * Returns smoothed round-trip time.
+     *
+     * @return RTT in nanoseconds, 0 if no sample was collected yet.
+     */
+    public long getRttNanos() {
+        return smoothedRttNanos.get();
+    }
+
+    /**
+     * Returns estimated one-way latency (half of the smoothed round-trip time).
+     *
+     * @return latency in nanoseconds, 0 if no sample was collected yet.
+     */
+    public long getOneWayNanos() {
+        return smoothedRttNanos.get() / 2;
+    }
+}
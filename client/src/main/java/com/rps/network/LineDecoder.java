@@ -0,0 +1,224 @@
+package com.rps.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+/**
+ * Splits the inbound byte stream into CRLF-terminated lines.
+ * <p>
+ * Bytes are read into one direct buffer that is reused for the whole connection, and line
+ * ends are found eight bytes at a time with a SWAR (SIMD within a register) search on
+ * {@code long} words. Each line is handed out as a {@link Line} view over the buffer; text is
+ * only decoded when the view is turned into a {@link String}, and lines that are pure ASCII
+ * (all protocol traffic except nicknames) skip the UTF-8 decoder.
+ * <p>
+ * A frame may not exceed the server's {@code LINE_BUF} of {@value #MAX_FRAME_BYTES} bytes
+ * including CRLF. Longer lines are skipped up to their terminator and counted, so a
+ * misbehaving peer cannot make the client buffer without bound.
+ * <p>
+ * Not thread-safe; used by the connection's reader thread only.
+ */
+final class LineDecoder {
+    private static final Logger LOG = Logger.getLogger(LineDecoder.class.getName());
+
+    /** Server {@code LINE_BUF}: longest frame, terminator included. */
+    static final int MAX_FRAME_BYTES = 512;
+
+    private static final int BUFFER_BYTES = 8 * 1024;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LF_PATTERN = ONES * '\n';
+
+    /** Receives decoded lines; the view is valid only during the call. */
+    interface LineSink {
+        void onLine(Line line);
+    }
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final Line line = new Line();
+
+    /** Offset of the first byte of the current, unterminated line. */
+    private int lineStart;
+
+    /** Offset where the LF search resumes. */
+    private int scanFrom;
+
+    /** True while skipping the rest of an oversized line. */
+    private boolean discarding;
+
+    private long oversizedLines;
+
+    /**
+     * Reads once from the channel and emits every line completed by the new bytes.
+     *
+     * @param channel blocking channel to read from.
+     * @param sink    receiver of complete lines.
+     * @return number of bytes read, or -1 at end of stream.
+     * @throws IOException if reading fails.
+     */
+    int readFrom(ReadableByteChannel channel, LineSink sink) throws IOException {
+        int read = channel.read(buffer);
+        if (read > 0) {
+            drain(sink);
+        }
+        return read;
+    }
+
+    /**
+     * Returns number of lines dropped for exceeding {@link #MAX_FRAME_BYTES}.
+     *
+     * @return oversized line count.
+     */
+    long getOversizedLines() {
+        return oversizedLines;
+    }
+
+    private void drain(LineSink sink) {
+        int end = buffer.position();
+        int lf;
+        while ((lf = indexOfLf(scanFrom, end)) >= 0) {
+            int frameBytes = lf + 1 - lineStart;
+            if (discarding || frameBytes > MAX_FRAME_BYTES) {
+                discarding = false;
+                oversizedLines++;
+                LOG.warning("Dropped line longer than " + MAX_FRAME_BYTES + " bytes");
+            } else {
+                int length = lf - lineStart;
+                if (length > 0 && buffer.get(lf - 1) == '\r') {
+                    length--;
+                }
+                line.bind(lineStart, length);
+                sink.onLine(line);
+            }
+            lineStart = lf + 1;
+            scanFrom = lineStart;
+        }
+        scanFrom = end;
+        if (end - lineStart >= MAX_FRAME_BYTES) {
+            // No terminator within the limit: drop what we have and skip to the next LF.
+            discarding = true;
+            lineStart = end;
+        }
+        compact(end);
+    }
+
+    /** Moves the unterminated tail to the start of the buffer. */
+    private void compact(int end) {
+        if (lineStart == 0) {
+            return;
+        }
+        int pending = end - lineStart;
+        if (pending > 0) {
+            buffer.put(0, buffer, lineStart, pending);
+        }
+        buffer.position(pending);
+        scanFrom -= lineStart;
+        lineStart = 0;
+    }
+
+    private int indexOfLf(int from, int to) {
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            long x = buffer.getLong(i) ^ LF_PATTERN;
+            // Lowest set high bit marks the first zero byte, i.e. the first LF of the word.
+            long found = (x - ONES) & ~x & HIGH_BITS;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * One received line without its terminator, viewed in place in the read buffer.
+     */
+    final class Line implements CharSequence {
+        private final byte[] scratch = new byte[MAX_FRAME_BYTES];
+        private int start;
+        private int length;
+
+        private void bind(int start, int length) {
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        /**
+         * Returns byte at given index as a char; exact for ASCII lines.
+         */
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (buffer.get(start + index) & 0xFF);
+        }
+
+        /**
+         * Compares the line with ASCII text without decoding it.
+         *
+         * @param text ASCII text.
+         * @return true if the line is exactly {@code text}.
+         */
+        boolean contentEquals(String text) {
+            if (text.length() != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(start + i) != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isBlank() {
+            for (int i = 0; i < length; i++) {
+                byte b = buffer.get(start + i);
+                if (b != ' ' && b != '\t' && b != '\r') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return toString().subSequence(from, to);
+        }
+
+        /**
+         * Decodes the line: a plain byte copy for ASCII, UTF-8 otherwise.
+         */
+        @Override
+        public String toString() {
+            buffer.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, isAscii() ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+        }
+
+        private boolean isAscii() {
+            int i = 0;
+            long bits = 0;
+            for (; i + Long.BYTES <= length; i += Long.BYTES) {
+                bits |= buffer.getLong(start + i);
+            }
+            for (; i < length; i++) {
+                bits |= scratch[i];
+            }
+            return (bits & HIGH_BITS) == 0;
+        }
+    }
+}
@@ -1,20 +1,26 @@
 package com.rps.network;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.Closeable;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.net.InetSocketAddress;
-import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicStampedReference;
 import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -24,30 +30,63 @@ import java.util.logging.Logger;
  * Responsibilities:
  * <ul>
  *     <li>Open and close a TCP socket.</li>
- *     <li>Read and write line-based messages in background threads.</li>
+ *     <li>Read and write line-based messages in background threads; inbound lines are framed
+ *     by {@link LineDecoder} over a direct buffer.</li>
+ *     <li>Let {@link LineInterceptor}s consume control lines on the reader thread before they
+ *     are decoded.</li>
  *     <li>Emit soft and hard timeouts based on inactivity.</li>
+ *     <li>Track the {@link ConnectionState}.</li>
  * </ul>
+ * <p>
+ * Every connect starts a new epoch, stored as the stamp of the state. A connection only
+ * changes the state while its epoch is current, so a superseded connect or a reader exiting
+ * after {@link #disconnect()} cannot clobber the state of a newer connection. Closing never
+ * waits for the reader or writer of the old connection.
  */
 public final class NetworkManager {
     private static final Logger LOG = Logger.getLogger(NetworkManager.class.getName());
     private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(6);
     private static final Duration DEFAULT_HARD_TIMEOUT = Duration.ofSeconds(45);
+    private static final int WRITE_BUFFER_CHARS = 1024;
+    private static final long READER_STACK_BYTES = 256 * 1024;
+    private static final int OUTBOUND_CAPACITY = 256;
+    private static final Duration DEFAULT_BLOCK_TIMEOUT = Duration.ofMillis(200);
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+    private static final byte[] PONG_LINE = "PONG\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    /** Consumes an inbound line before it is decoded, on the reader thread. */
+    interface LineInterceptor {
+        /**
+         * Inspects a line; the view is valid only during the call and must not allocate.
+         *
+         * @param line received line.
+         * @return true if the line was handled and must not be passed on.
+         */
+        boolean intercept(LineDecoder.Line line);
+    }
+
+    private final ClientRuntime runtime;
 
     private final Duration softTimeout;
     private final Duration hardTimeout;
-    private final Object lifecycleLock = new Object();
-    private final Object writerLock = new Object();
-    private final AtomicBoolean intentionalClose = new AtomicBoolean(false);
+    private final AtomicStampedReference<ConnectionState> state =
+            new AtomicStampedReference<>(ConnectionState.CLOSED, 0);
+    private final AtomicReference<Connection> current = new AtomicReference<>();
+    private final List<Consumer<ConnectionState>> stateListeners = new CopyOnWriteArrayList<>();
     private final AtomicBoolean softTimeoutTriggered = new AtomicBoolean(false);
     private final AtomicBoolean hardTimeoutTriggered = new AtomicBoolean(false);
     private final AtomicLong lastMessageAt = new AtomicLong();
+    private final Queue<String> priorityQueue = new ConcurrentLinkedQueue<>();
+    private final OutboundQueue outbound = new OutboundQueue(OUTBOUND_CAPACITY);
 
-    private Socket socket;
-    private BufferedReader reader;
-    private BufferedWriter writer;
-    private ExecutorService writerExecutor;
-    private ScheduledExecutorService watchdogExecutor;
-    private Thread readerThread;
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.FAIL_FAST;
+    private volatile long blockTimeoutNanos = DEFAULT_BLOCK_TIMEOUT.toNanos();
+    private volatile boolean retainUnsent;
+    private volatile LineInterceptor[] interceptors = new LineInterceptor[0];
+    /** Sees every outbound line and its connection epoch in wire order, under the writer lock. */
+    private volatile ObjIntConsumer<String> onLineWritten;
+    /** Sees every line that was accepted by a send method but will never be written. */
+    private volatile Consumer<String> onLineDropped;
 
     private Consumer<String> onMessageReceived;
     private Runnable onDisconnected;
@@ -55,10 +94,19 @@ public final class NetworkManager {
     private Runnable onHardTimeout;
 
     /**
-     * Creates new manager with default soft and hard timeouts.
+     * Creates new manager with default soft and hard timeouts on the shared runtime.
      */
     public NetworkManager() {
-        this(DEFAULT_TIMEOUT, DEFAULT_HARD_TIMEOUT);
+        this(ClientRuntime.shared(), DEFAULT_TIMEOUT, DEFAULT_HARD_TIMEOUT);
+    }
+
+    /**
+     * Creates new manager with default soft and hard timeouts on given runtime.
+     *
+     * @param runtime shared threads used for writing and inactivity checks.
+     */
+    public NetworkManager(ClientRuntime runtime) {
+        this(runtime, DEFAULT_TIMEOUT, DEFAULT_HARD_TIMEOUT);
     }
 
     /**
@@ -67,7 +115,7 @@ public final class NetworkManager {
      * @param softTimeout inactivity duration before soft timeout callback is fired.
      */
     public NetworkManager(Duration softTimeout) {
-        this(softTimeout, DEFAULT_HARD_TIMEOUT);
+        this(ClientRuntime.shared(), softTimeout, DEFAULT_HARD_TIMEOUT);
     }
 
     /**
@@ -77,63 +125,262 @@ public final class NetworkManager {
      * @param hardTimeout inactivity duration before hard timeout callback is fired.
      */
     public NetworkManager(Duration softTimeout, Duration hardTimeout) {
+        this(ClientRuntime.shared(), softTimeout, hardTimeout);
+    }
+
+    /**
+     * Creates manager with custom runtime, soft and hard timeout values.
+     *
+     * @param runtime     shared threads used for writing and inactivity checks.
+     * @param softTimeout inactivity duration before soft timeout callback is fired.
+     * @param hardTimeout inactivity duration before hard timeout callback is fired.
+     */
+    public NetworkManager(ClientRuntime runtime, Duration softTimeout, Duration hardTimeout) {
+        this.runtime = Objects.requireNonNull(runtime, "runtime");
         this.softTimeout = softTimeout != null ? softTimeout : DEFAULT_TIMEOUT;
         this.hardTimeout = hardTimeout != null ? hardTimeout : DEFAULT_HARD_TIMEOUT;
     }
 
     /**
-     * Opens a new TCP connection to given host and port.
+     * Opens a new TCP connection to given host and port, blocking the calling thread until the
+     * socket is established. A connection that is still open is closed first.
      *
      * @param host remote host name or IP address.
      * @param port remote TCP port number (1-65535).
-     * @throws IOException              if network connection fails.
+     * @throws IOException              if network connection fails or was superseded by a newer
+     *                                  connect or a disconnect.
      * @throws IllegalArgumentException if port is out of range.
      */
     public void connect(String host, int port) throws IOException {
-        Objects.requireNonNull(host, "host");
-        if (port <= 0 || port > 65_535) {
-            throw new IllegalArgumentException("port");
-        }
-        LOG.info("Connecting to " + host + ":" + port);
-        synchronized (lifecycleLock) {
-            disconnectInternal();
-            socket = new Socket();
-            socket.connect(new InetSocketAddress(host, port), 1000);
-            reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
-            writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
-            writerExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("network-writer"));
-            watchdogExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("network-watchdog"));
-            lastMessageAt.set(System.nanoTime());
-            resetTimeoutFlags();
-            intentionalClose.set(false);
-            startReaderThread();
-            startWatchdog();
+        validateAddress(host, port);
+        int epoch = beginConnect(host, port);
+        Connection connection = open(epoch, host, port);
+        if (!install(connection)) {
+            throw new IOException("Connect to " + host + ":" + port + " was superseded");
         }
+        Thread reader = new Thread(null, () -> readLoop(connection), "network-reader", READER_STACK_BYTES);
+        reader.setDaemon(true);
+        reader.start();
     }
 
     /**
-     * Closes current TCP connection if present and marks it as intentional.
+     * Opens a new TCP connection without blocking the caller. A connection that is still open
+     * is closed first, without waiting for its threads.
+     * <p>
+     * The connect runs on the thread that afterwards reads from the new socket, so no pool
+     * thread is held while the handshake is in flight.
+     *
+     * @param host remote host name or IP address.
+     * @param port remote TCP port number (1-65535).
+     * @return future completed once the state is {@link ConnectionState#OPEN}; completed
+     * exceptionally with an {@link IOException} if the connect fails or is superseded.
+     * @throws IllegalArgumentException if port is out of range.
+     */
+    public CompletableFuture<Void> connectAsync(String host, int port) {
+        validateAddress(host, port);
+        int epoch = beginConnect(host, port);
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Thread reader = new Thread(null, () -> {
+            Connection connection;
+            try {
+                connection = open(epoch, host, port);
+            } catch (IOException ex) {
+                result.completeExceptionally(ex);
+                return;
+            }
+            if (!install(connection)) {
+                result.completeExceptionally(new IOException("Connect to " + host + ":" + port + " was superseded"));
+                return;
+            }
+            result.complete(null);
+            readLoop(connection);
+        }, "network-reader", READER_STACK_BYTES);
+        reader.setDaemon(true);
+        reader.start();
+        return result;
+    }
+
+    /**
+     * Closes current TCP connection if present and marks it as intentional, so
+     * no disconnect callback is fired. Returns at once; the reader thread exits on its own.
      * Input: none, Output: none.
      */
     public void disconnect() {
-        intentionalClose.set(true);
-        disconnectInternal();
+        advance(ConnectionState.CLOSED);
+        releaseCurrent();
+        resetTimeoutFlags();
+    }
+
+    /**
+     * Marks the connection as resuming a previous session after RECONNECT was sent.
+     *
+     * @return true if the state moved to {@link ConnectionState#RESUMING}.
+     */
+    public boolean beginResume() {
+        Connection connection = current.get();
+        return connection != null
+                && (transition(connection.epoch, ConnectionState.OPEN, ConnectionState.RESUMING)
+                || transition(connection.epoch, ConnectionState.DEGRADED, ConnectionState.RESUMING));
+    }
+
+    /**
+     * Ends the resume phase once the server answered RECONNECT.
+     *
+     * @return true if the state moved back to {@link ConnectionState#OPEN}.
+     */
+    public boolean endResume() {
+        Connection connection = current.get();
+        return connection != null && transition(connection.epoch, ConnectionState.RESUMING, ConnectionState.OPEN);
+    }
+
+    /**
+     * Returns current lifecycle state.
+     *
+     * @return connection state, never null.
+     */
+    public ConnectionState getState() {
+        return state.getReference();
+    }
+
+    /**
+     * Returns epoch of the current state; every connect and disconnect starts a new one.
+     *
+     * @return epoch, increasing over the lifetime of the manager.
+     */
+    int getEpoch() {
+        return state.getStamp();
+    }
+
+    /**
+     * Registers listener notified after every state change. It runs on the thread that made
+     * the change and must not block.
+     *
+     * @param listener receives the new state.
+     */
+    public void addStateListener(Consumer<ConnectionState> listener) {
+        stateListeners.add(Objects.requireNonNull(listener, "listener"));
     }
 
     /**
      * Sends a single text line to server, appending CRLF.
+     * <p>
+     * The line goes through the bounded outbound queue; when it is full the configured
+     * {@link OverflowPolicy} decides whether the caller waits or this line is rejected. The
+     * default never waits, as lines are sent from FX handlers. While there is no connection
+     * the line is retained for replay if {@link #setRetainUnsent(boolean)} is on, and dropped
+     * otherwise.
      *
      * @param message non-null string payload to send.
+     * @return true if the line was queued or retained, false if it was dropped.
      */
-    public void send(String message) {
+    public boolean send(String message) {
         Objects.requireNonNull(message, "message");
-        ExecutorService executor = this.writerExecutor;
-        if (executor == null || executor.isShutdown()) {
-            LOG.warning("Writer executor unavailable, dropping message");
-            return;
+        Connection connection = current.get();
+        if (connection == null || connection.isReleased()) {
+            return retainWhileDown(message);
         }
         LOG.info("CLIENT: " + message);
-        executor.execute(() -> writeSafely(message));
+        boolean queued = outbound.offer(message, overflowPolicy, blockTimeoutNanos);
+        reportDropped();
+        if (!queued) {
+            LOG.warning("Outbound queue full (" + overflowPolicy + "), dropping message: " + message);
+            return false;
+        }
+        scheduleDrain(connection);
+        return true;
+    }
+
+    /**
+     * Sends a time-critical line ahead of messages already waiting in the writer queue.
+     * The line is written by the next writer task, before any queued regular message. Unsent
+     * priority lines are retained like regular ones.
+     *
+     * @param message non-null string payload to send.
+     * @return true if the line was queued or retained, false if it was dropped.
+     */
+    public boolean sendPriority(String message) {
+        Objects.requireNonNull(message, "message");
+        Connection connection = current.get();
+        if (connection == null || connection.isReleased()) {
+            return retainWhileDown(message);
+        }
+        LOG.info("CLIENT (priority): " + message);
+        priorityQueue.offer(message);
+        try {
+            connection.writerExecutor.execute(() -> flushPriority(connection));
+        } catch (RejectedExecutionException ex) {
+            // The connection is closing; unless clearing it already took the line, handle it here.
+            if (priorityQueue.remove(message)) {
+                return retainWhileDown(message);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Answers a server PING on the calling thread, ahead of queued lines.
+     * <p>
+     * The reply is written from a pre-encoded direct buffer of the connection, so nothing is
+     * allocated. Writers flush before releasing the writer lock, which keeps the reply on a line
+     * boundary; it waits at most for the line currently being written.
+     *
+     * @return true if the reply was written.
+     */
+    boolean sendPong() {
+        Connection connection = current.get();
+        if (connection == null || connection.isReleased()) {
+            return false;
+        }
+        try {
+            synchronized (connection.writerLock) {
+                ByteBuffer frame = connection.pongFrame;
+                frame.rewind();
+                while (frame.hasRemaining()) {
+                    connection.channel.write(frame);
+                }
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Failed to send PONG", ex);
+            connection.closeChannel();
+            return false;
+        }
+        if (LOG.isLoggable(Level.FINE)) {
+            LOG.fine("CLIENT (control): PONG");
+        }
+        return true;
+    }
+
+    /**
+     * Adds an interceptor run for every inbound line, in registration order, before the line is
+     * decoded and passed to the message callback.
+     *
+     * @param interceptor interceptor; runs on the reader thread and must not block.
+     */
+    synchronized void addInterceptor(LineInterceptor interceptor) {
+        LineInterceptor[] next = Arrays.copyOf(interceptors, interceptors.length + 1);
+        next[next.length - 1] = Objects.requireNonNull(interceptor, "interceptor");
+        interceptors = next;
+    }
+
+    /**
+     * Registers callback invoked for every line right before it is written to the socket, in wire
+     * order, priority lines included; raw control frames such as PONG are not reported. The
+     * callback also gets the epoch of the connection the line is written to, see {@link #getEpoch()}.
+     *
+     * @param handler callback; runs under the writer lock and must not block.
+     */
+    void setOnLineWritten(ObjIntConsumer<String> handler) {
+        this.onLineWritten = handler;
+    }
+
+    /**
+     * Registers callback invoked for every line that a send method accepted but that will never
+     * be written: evicted, cleared with its connection, or retained and then discarded.
+     *
+     * @param handler callback; may run under internal locks and must not block.
+     */
+    void setOnLineDropped(Consumer<String> handler) {
+        this.onLineDropped = handler;
     }
 
     /**
@@ -172,88 +419,417 @@ public final class NetworkManager {
         this.onHardTimeout = handler;
     }
 
+    /**
+     * Sets what {@link #send(String)} does when the outbound queue is full.
+     *
+     * @param policy       overflow policy.
+     * @param blockTimeout longest wait under {@link OverflowPolicy#BLOCK}.
+     */
+    public void setOverflowPolicy(OverflowPolicy policy, Duration blockTimeout) {
+        this.overflowPolicy = Objects.requireNonNull(policy, "policy");
+        this.blockTimeoutNanos = blockTimeout != null ? blockTimeout.toNanos() : DEFAULT_BLOCK_TIMEOUT.toNanos();
+    }
+
+    /**
+     * Enables keeping lines that were not written when the connection dropped.
+     * Retained lines are sent again by {@link #replayRetained()} after the session is resumed.
+     *
+     * @param retain true to retain unsent lines.
+     */
+    public void setRetainUnsent(boolean retain) {
+        this.retainUnsent = retain;
+        if (!retain) {
+            outbound.discardRetained();
+            reportDropped();
+        }
+    }
+
+    /**
+     * Queues retained lines ahead of anything sent since the reconnect.
+     * Called once the server confirmed the resumed session (REC_OK).
+     */
+    public void replayRetained() {
+        int replayed = outbound.replayRetained();
+        reportDropped();
+        if (replayed == 0) {
+            return;
+        }
+        LOG.info("Replaying " + replayed + " unsent message(s)");
+        Connection connection = current.get();
+        if (connection != null && !connection.isReleased()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    /**
+     * Drops retained lines, e.g. when a new session is started instead of resumed.
+     */
+    public void discardRetained() {
+        int discarded = outbound.discardRetained();
+        reportDropped();
+        if (discarded > 0) {
+            LOG.info("Discarded " + discarded + " unsent message(s) of previous session");
+        }
+    }
+
+    /**
+     * Returns number of lines waiting in the outbound queue.
+     *
+     * @return current queue depth.
+     */
+    public int getOutboundDepth() {
+        return outbound.depth();
+    }
+
+    /**
+     * Returns the largest outbound queue depth seen so far.
+     *
+     * @return high-water mark, at most {@link #getOutboundCapacity()}.
+     */
+    public int getOutboundHighWaterMark() {
+        return outbound.highWaterMark();
+    }
+
+    public int getOutboundCapacity() {
+        return outbound.capacity();
+    }
+
+    /**
+     * Returns number of lines evicted or rejected because the queue was full.
+     *
+     * @return dropped line count.
+     */
+    public long getOutboundDropped() {
+        return outbound.dropped();
+    }
+
     /**
      * Checks whether there is an active connected socket.
      *
      * @return true if connected, false otherwise.
      */
     public boolean isConnected() {
-        Socket current = this.socket;
-        return current != null && current.isConnected() && !current.isClosed();
+        return state.getReference().isConnected();
     }
 
-    private void writeSafely(String message) {
-        BufferedWriter currentWriter = writer;
-        if (currentWriter == null) {
-            return;
+    /**
+     * Returns threads this manager runs on.
+     *
+     * @return client runtime.
+     */
+    ClientRuntime getRuntime() {
+        return runtime;
+    }
+
+    /**
+     * Returns number of inbound lines dropped for exceeding the server's line limit.
+     *
+     * @return oversized line count of the current connection.
+     */
+    public long getOversizedLineCount() {
+        Connection connection = current.get();
+        return connection != null ? connection.decoder.getOversizedLines() : 0;
+    }
+
+    private static void validateAddress(String host, int port) {
+        Objects.requireNonNull(host, "host");
+        if (port <= 0 || port > 65_535) {
+            throw new IllegalArgumentException("port");
         }
+    }
+
+    /**
+     * Starts a new epoch in state CONNECTING and releases the previous connection.
+     *
+     * @return epoch of the new connection.
+     */
+    private int beginConnect(String host, int port) {
+        LOG.info("Connecting to " + host + ":" + port);
+        int epoch = advance(ConnectionState.CONNECTING);
+        releaseCurrent();
+        return epoch;
+    }
+
+    /**
+     * Performs the blocking TCP connect for given epoch.
+     */
+    private Connection open(int epoch, String host, int port) throws IOException {
+        SocketChannel channel = SocketChannel.open();
         try {
-            synchronized (writerLock) {
-                currentWriter.write(message);
-                currentWriter.write("\r\n");
-                currentWriter.flush();
+            channel.socket().connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            return new Connection(epoch, channel, runtime);
+        } catch (IOException | RuntimeException ex) {
+            closeQuietly(channel);
+            transition(epoch, ConnectionState.CONNECTING, ConnectionState.CLOSED);
+            throw ex;
+        }
+    }
+
+    /**
+     * Makes the connection current and moves CONNECTING to OPEN.
+     *
+     * @return false if a newer connect or a disconnect superseded it; it is released then.
+     */
+    private boolean install(Connection connection) {
+        Connection previous = current.getAndSet(connection);
+        if (previous != null && previous.release()) {
+            clearQueues();
+        }
+        lastMessageAt.set(System.nanoTime());
+        resetTimeoutFlags();
+        // A disconnect bumps the epoch before swapping the connection out, so either this
+        // transition fails or the disconnect releases the connection installed above.
+        if (!transition(connection.epoch, ConnectionState.CONNECTING, ConnectionState.OPEN)) {
+            current.compareAndSet(connection, null);
+            connection.release();
+            return false;
+        }
+        connection.watchdog = runtime.scheduler().scheduleAtFixedRate(
+                () -> checkInactivity(connection), 1, 1, TimeUnit.SECONDS);
+        if (connection.isReleased()) {
+            connection.watchdog.cancel(false);
+        }
+        return true;
+    }
+
+    private void releaseCurrent() {
+        Connection previous = current.getAndSet(null);
+        if (previous != null && previous.release()) {
+            clearQueues();
+        }
+    }
+
+    private void clearQueues() {
+        // Priority lines were due ahead of the queued ones, so they are retained first.
+        List<String> unsent = new ArrayList<>();
+        String line;
+        while ((line = priorityQueue.poll()) != null) {
+            if (retainUnsent && !OutboundQueue.isIdempotent(line)) {
+                outbound.retain(line);
+            } else {
+                unsent.add(line);
             }
-        } catch (IOException ex) {
-            LOG.log(Level.WARNING, "Failed to send message: " + message, ex);
-            forceCloseSocket();
         }
+        outbound.clear(retainUnsent);
+        unsent.forEach(this::reportDropped);
+        reportDropped();
     }
 
     /**
-     * Background loop that continuously reads lines from socket
-     * and dispatches them to the registered listener.
+     * Keeps a line sent while there is no connection, if unsent lines are retained.
+     *
+     * @return true if the line was retained.
+     */
+    private boolean retainWhileDown(String message) {
+        if (retainUnsent && !OutboundQueue.isIdempotent(message)) {
+            LOG.info("Not connected, retaining message: " + message);
+            outbound.retain(message);
+            reportDropped();
+            return true;
+        }
+        LOG.warning("Not connected, dropping message: " + message);
+        return false;
+    }
+
+    /**
+     * Moves to given state in a new epoch, superseding every connection made so far.
+     *
+     * @return the new epoch.
      */
-    private void startReaderThread() {
-        readerThread = new Thread(this::readLoop, "network-reader");
-        readerThread.setDaemon(true);
-        readerThread.start();
+    private int advance(ConnectionState next) {
+        int[] stamp = new int[1];
+        while (true) {
+            ConnectionState previous = state.get(stamp);
+            int epoch = stamp[0] + 1;
+            if (state.compareAndSet(previous, next, stamp[0], epoch)) {
+                notifyState(next);
+                return epoch;
+            }
+        }
     }
 
     /**
-     * Periodic task run by watchdog executor to detect inactivity.
-     * Computes elapsed time and invokes soft/hard timeout callbacks.
+     * Changes state on behalf of a connection while its epoch is current.
+     *
+     * @param epoch    epoch of the connection.
+     * @param expected required current state, or null for any.
+     * @param next     new state.
+     * @return true if the state is now {@code next}.
      */
-    private void startWatchdog() {
-        shutdownExecutor(watchdogExecutor);
-        watchdogExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("network-watchdog"));
-        watchdogExecutor.scheduleAtFixedRate(this::checkInactivity, 1, 1, TimeUnit.SECONDS);
+    private boolean transition(int epoch, ConnectionState expected, ConnectionState next) {
+        int[] stamp = new int[1];
+        while (true) {
+            ConnectionState previous = state.get(stamp);
+            if (stamp[0] != epoch || (expected != null && previous != expected)) {
+                return false;
+            }
+            if (previous == next) {
+                return true;
+            }
+            if (state.compareAndSet(previous, next, epoch, epoch)) {
+                notifyState(next);
+                return true;
+            }
+        }
     }
 
-    private void readLoop() {
+    private void notifyState(ConnectionState next) {
+        LOG.fine(() -> "Connection state " + next);
+        for (Consumer<ConnectionState> listener : stateListeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException ex) {
+                LOG.log(Level.WARNING, "State listener failed", ex);
+            }
+        }
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (!connection.drainScheduled.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            String line;
-            while (!Thread.currentThread().isInterrupted() && reader != null && (line = reader.readLine()) != null) {
-                lastMessageAt.set(System.nanoTime());
-                resetTimeoutFlags();
-                Consumer<String> handler = onMessageReceived;
-                if (handler != null) {
-                    handler.accept(line);
+            connection.writerExecutor.execute(() -> drainOutbound(connection));
+        } catch (RejectedExecutionException ex) {
+            connection.drainScheduled.set(false);
+            LOG.warning("Writer closed, message stays queued");
+        }
+    }
+
+    /**
+     * Writes priority lines and then everything in the outbound queue, flushing once.
+     */
+    private void drainOutbound(Connection connection) {
+        // Cleared before polling so that a line offered during the drain schedules a new one.
+        connection.drainScheduled.set(false);
+        flushPriority(connection);
+        String line = null;
+        try {
+            synchronized (connection.writerLock) {
+                while ((line = outbound.poll()) != null) {
+                    reportWritten(connection, line);
+                    connection.writer.write(line);
+                    connection.writer.write("\r\n");
                 }
+                connection.writer.flush();
+            }
+        } catch (IOException ex) {
+            LOG.log(Level.WARNING, "Failed to send message: " + line, ex);
+            if (retainUnsent && line != null && !OutboundQueue.isIdempotent(line)) {
+                outbound.retain(line);
+                reportDropped();
+            }
+            // The reader notices the closed channel and reports the lost connection.
+            connection.closeChannel();
+        }
+    }
+
+    private void flushPriority(Connection connection) {
+        String message;
+        while ((message = priorityQueue.poll()) != null) {
+            writeSafely(connection, message);
+        }
+    }
+
+    private void writeSafely(Connection connection, String message) {
+        try {
+            synchronized (connection.writerLock) {
+                reportWritten(connection, message);
+                connection.writer.write(message);
+                connection.writer.write("\r\n");
+                connection.writer.flush();
             }
         } catch (IOException ex) {
-            if (!intentionalClose.get()) {
+            LOG.log(Level.WARNING, "Failed to send message: " + message, ex);
+            if (retainUnsent && !OutboundQueue.isIdempotent(message)) {
+                outbound.retain(message);
+                reportDropped();
+            }
+            connection.closeChannel();
+        }
+    }
+
+    /**
+     * Passes lines the outbound queue dropped to the drop listener.
+     */
+    private void reportDropped() {
+        outbound.takeDropped().forEach(this::reportDropped);
+    }
+
+    private void reportDropped(String line) {
+        Consumer<String> handler = onLineDropped;
+        if (handler != null) {
+            handler.accept(line);
+        }
+    }
+
+    private void reportWritten(Connection connection, String line) {
+        ObjIntConsumer<String> handler = onLineWritten;
+        if (handler != null) {
+            handler.accept(line, connection.epoch);
+        }
+    }
+
+    /**
+     * Reads lines from the socket and dispatches them until the connection ends.
+     * Fires the disconnect callback only if the connection ended on its own and is still current.
+     */
+    private void readLoop(Connection connection) {
+        try {
+            LineDecoder.LineSink sink = line -> dispatchLine(connection, line);
+            while (connection.decoder.readFrom(connection.channel, sink) >= 0) {
+                // Lines are dispatched by the decoder as they complete.
+            }
+        } catch (IOException ex) {
+            if (!connection.isReleased()) {
                 LOG.log(Level.WARNING, "Connection closed unexpectedly", ex);
             }
         } finally {
-            boolean wasIntentional = intentionalClose.getAndSet(false);
-            resetTimeoutFlags();
-            disconnectInternal();
-            if (!wasIntentional) {
-                Runnable handler = onDisconnected;
-                if (handler != null) {
-                    handler.run();
-                }
+            if (connection.release()) {
+                connectionLost(connection);
+            }
+        }
+    }
+
+    private void connectionLost(Connection connection) {
+        if (current.compareAndSet(connection, null)) {
+            clearQueues();
+        }
+        if (!transition(connection.epoch, null, ConnectionState.CLOSED)) {
+            return;
+        }
+        resetTimeoutFlags();
+        Runnable handler = onDisconnected;
+        if (handler != null) {
+            handler.run();
+        }
+    }
+
+    private void dispatchLine(Connection connection, LineDecoder.Line line) {
+        lastMessageAt.set(System.nanoTime());
+        resetTimeoutFlags();
+        if (state.getReference() == ConnectionState.DEGRADED) {
+            transition(connection.epoch, ConnectionState.DEGRADED, ConnectionState.OPEN);
+        }
+        for (LineInterceptor interceptor : interceptors) {
+            if (interceptor.intercept(line)) {
+                return;
             }
         }
+        Consumer<String> handler = onMessageReceived;
+        if (handler != null && !line.isBlank()) {
+            handler.accept(line.toString());
+        }
     }
 
-    private void checkInactivity() {
-        if (!isConnected()) {
+    private void checkInactivity(Connection connection) {
+        if (connection.isReleased()) {
             return;
         }
         Duration elapsed = Duration.ofNanos(System.nanoTime() - lastMessageAt.get());
         if (!softTimeoutTriggered.get() && elapsed.compareTo(softTimeout) >= 0) {
             softTimeoutTriggered.set(true);
+            transition(connection.epoch, ConnectionState.OPEN, ConnectionState.DEGRADED);
             Runnable handler = onSoftTimeout;
             if (handler != null) {
                 LOG.info("Soft timeout triggered after " + elapsed.toSeconds() + " seconds");
@@ -275,65 +851,7 @@ public final class NetworkManager {
         hardTimeoutTriggered.set(false);
     }
 
-    private void forceCloseSocket() {
-        synchronized (lifecycleLock) {
-            if (socket != null && !socket.isClosed()) {
-                try {
-                    socket.close();
-                } catch (IOException ex) {
-                    LOG.log(Level.FINE, "Error closing socket", ex);
-                }
-            }
-        }
-    }
-
-    private void disconnectInternal() {
-        synchronized (lifecycleLock) {
-//            resetTimeoutFlags();
-            closeReaderThread();
-            closeSocket();
-            closeQuietly(reader);
-            closeQuietly(writer);
-            reader = null;
-            writer = null;
-            shutdownExecutor(writerExecutor);
-            writerExecutor = null;
-            shutdownExecutor(watchdogExecutor);
-            watchdogExecutor = null;
-        }
-    }
-
-    private void closeReaderThread() {
-        Thread thread = readerThread;
-        if (thread == null) {
-            return;
-        }
-        readerThread = null;
-        if (Thread.currentThread() == thread) {
-            return;
-        }
-        thread.interrupt();
-        try {
-            thread.join(200);
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
-    private void closeSocket() {
-        if (socket != null) {
-            try {
-                socket.shutdownInput();
-                socket.shutdownOutput();
-                socket.close();
-            } catch (IOException ignored) {
-            } finally {
-                socket = null;
-            }
-        }
-    }
-
-    private void closeQuietly(Closeable closeable) {
+    private static void closeQuietly(Closeable closeable) {
         if (closeable != null) {
             try {
                 closeable.close();
@@ -342,33 +860,55 @@ public final class NetworkManager {
         }
     }
 
-    private void shutdownExecutor(ExecutorService executor) {
-        if (executor != null && !executor.isShutdown()) {
-            executor.shutdownNow();
-            try {
-                executor.awaitTermination(200, TimeUnit.MILLISECONDS);
-            } catch (InterruptedException ex) {
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-
     /**
-     * Simple thread factory that assigns a name prefix and marks threads as daemons.
+     * One TCP connection with its writer and watchdog. Released exactly once, by whoever
+     * supersedes it or by its reader when the socket ends.
      */
-    private static final class NamedThreadFactory implements ThreadFactory {
-        private final String prefix;
-        private int index = 0;
+    private static final class Connection {
+        private final int epoch;
+        private final SocketChannel channel;
+        private final LineDecoder decoder = new LineDecoder();
+        private final BufferedWriter writer;
+        private final SerialExecutor writerExecutor;
+        private final Object writerLock = new Object();
+        private final ByteBuffer pongFrame = ByteBuffer.allocateDirect(PONG_LINE.length).put(PONG_LINE).flip();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private volatile ScheduledFuture<?> watchdog;
+
+        private Connection(int epoch, SocketChannel channel, ClientRuntime runtime) throws IOException {
+            this.epoch = epoch;
+            this.channel = channel;
+            this.writer = new BufferedWriter(
+                    new OutputStreamWriter(channel.socket().getOutputStream(), StandardCharsets.UTF_8),
+                    WRITE_BUFFER_CHARS);
+            this.writerExecutor = new SerialExecutor(runtime.ioPool());
+        }
 
-        private NamedThreadFactory(String prefix) {
-            this.prefix = prefix;
+        private boolean isReleased() {
+            return released.get();
+        }
+
+        /**
+         * Stops the writer and watchdog and closes the channel, which wakes the reader.
+         *
+         * @return true for the caller that released it.
+         */
+        private boolean release() {
+            if (!released.compareAndSet(false, true)) {
+                return false;
+            }
+            writerExecutor.shutdown();
+            ScheduledFuture<?> task = watchdog;
+            if (task != null) {
+                task.cancel(false);
+            }
+            closeChannel();
+            return true;
         }
 
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread thread = new Thread(r, prefix + "-" + index++);
-            thread.setDaemon(true);
-            return thread;
+        private void closeChannel() {
+            closeQuietly(channel);
         }
     }
 }
@@ -0,0 +1,300 @@
+package com.rps.network;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded ring of lines waiting for the connection writer.
+ * <p>
+ * Producers are the UI and network threads calling {@link NetworkManager#send(String)}; the
+ * single consumer is the writer task. Depth and high-water mark are tracked so a stalled
+ * socket shows up before lines are lost. Lines still queued when the connection drops can be
+ * retained and put back in front of the queue once the session is resumed. Lines that were
+ * queued or retained and then dropped are collected for {@link #takeDropped()}, so requests
+ * waiting for them can be failed.
+ */
+final class OutboundQueue {
+
+    /** Ring size; also bounds the retained backlog so a long outage cannot grow it without limit. */
+    private final int capacity;
+    private final String[] ring;
+    private final ArrayDeque<String> retained = new ArrayDeque<>();
+    /** Lines dropped after being queued or retained, until taken. */
+    private final List<String> droppedLines = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+
+    private int head;
+    private int size;
+    private int highWaterMark;
+    private long dropped;
+
+    OutboundQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity");
+        }
+        this.capacity = capacity;
+        this.ring = new String[capacity];
+    }
+
+    /**
+     * Returns true for lines that may be coalesced or dropped without changing the session.
+     *
+     * @param line protocol line without CRLF.
+     * @return true for PONG and LIST.
+     */
+    static boolean isIdempotent(String line) {
+        return "PONG".equals(line) || "LIST".equals(line);
+    }
+
+    /**
+     * Appends a line, applying the overflow policy when the ring is full.
+     *
+     * @param line        protocol line without CRLF.
+     * @param policy      overflow policy for this line.
+     * @param blockNanos  longest wait under {@link OverflowPolicy#BLOCK}.
+     * @return true if the line was queued or coalesced, false if it was rejected.
+     */
+    boolean offer(String line, OverflowPolicy policy, long blockNanos) {
+        boolean idempotent = isIdempotent(line);
+        long remaining = blockNanos;
+        lock.lock();
+        try {
+            if (idempotent && indexOf(line) >= 0) {
+                return true;
+            }
+            while (size == capacity) {
+                // Only idempotent lines are evicted; dropping any other line would change the session.
+                int victim = oldestIdempotent();
+                if (victim >= 0) {
+                    droppedLines.add(ring[(head + victim) % capacity]);
+                    removeAt(victim);
+                    dropped++;
+                    break;
+                }
+                if (policy != OverflowPolicy.BLOCK || idempotent || remaining <= 0) {
+                    dropped++;
+                    return false;
+                }
+                try {
+                    remaining = notFull.awaitNanos(remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    dropped++;
+                    return false;
+                }
+            }
+            ring[(head + size) % capacity] = line;
+            size++;
+            if (size > highWaterMark) {
+                highWaterMark = size;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the oldest line.
+     *
+     * @return line, or null if the queue is empty.
+     */
+    String poll() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return null;
+            }
+            String line = ring[head];
+            ring[head] = null;
+            head = (head + 1) % capacity;
+            size--;
+            notFull.signal();
+            return line;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Empties the queue after the connection closed.
+     *
+     * @param retain true to keep non-idempotent lines for {@link #replayRetained()}.
+     */
+    void clear(boolean retain) {
+        lock.lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                int index = (head + i) % capacity;
+                String line = ring[index];
+                ring[index] = null;
+                if (retain && !isIdempotent(line)) {
+                    retain(line);
+                } else {
+                    droppedLines.add(line);
+                }
+            }
+            head = 0;
+            size = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Keeps a line whose write failed so it can be replayed.
+     *
+     * @param line protocol line without CRLF.
+     */
+    void retain(String line) {
+        lock.lock();
+        try {
+            if (retained.size() == capacity) {
+                droppedLines.add(retained.pollFirst());
+                dropped++;
+            }
+            retained.addLast(line);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves retained lines to the front of the queue, ahead of anything sent since.
+     * Lines that no longer fit are dropped.
+     *
+     * @return number of lines put back.
+     */
+    int replayRetained() {
+        lock.lock();
+        try {
+            int replayed = 0;
+            while (!retained.isEmpty()) {
+                String line = retained.pollLast();
+                if (size == capacity) {
+                    dropped += retained.size() + 1;
+                    droppedLines.add(line);
+                    droppedLines.addAll(retained);
+                    retained.clear();
+                    break;
+                }
+                head = (head - 1 + capacity) % capacity;
+                ring[head] = line;
+                size++;
+                replayed++;
+            }
+            highWaterMark = Math.max(highWaterMark, size);
+            return replayed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets retained lines, e.g. when a new session is started instead of resumed.
+     *
+     * @return number of lines dropped.
+     */
+    int discardRetained() {
+        lock.lock();
+        try {
+            int count = retained.size();
+            droppedLines.addAll(retained);
+            retained.clear();
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the lines dropped since the last call.
+     *
+     * @return dropped lines, oldest first; empty if none.
+     */
+    List<String> takeDropped() {
+        lock.lock();
+        try {
+            if (droppedLines.isEmpty()) {
+                return List.of();
+            }
+            List<String> lines = new ArrayList<>(droppedLines);
+            droppedLines.clear();
+            return lines;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int depth() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int highWaterMark() {
+        lock.lock();
+        try {
+            return highWaterMark;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int retainedCount() {
+        lock.lock();
+        try {
+            return retained.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long dropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    private int indexOf(String line) {
+        for (int i = 0; i < size; i++) {
+            if (line.equals(ring[(head + i) % capacity])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int oldestIdempotent() {
+        for (int i = 0; i < size; i++) {
+            if (isIdempotent(ring[(head + i) % capacity])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Removes the entry at queue position {@code offset}, shifting later entries forward. */
+    private void removeAt(int offset) {
+        for (int i = offset; i < size - 1; i++) {
+            ring[(head + i) % capacity] = ring[(head + i + 1) % capacity];
+        }
+        ring[(head + size - 1) % capacity] = null;
+        size--;
+    }
+}
@@ -0,0 +1,18 @@
+package com.rps.network;
+
+/**
+ * What {@link NetworkManager#send(String)} does when the outbound queue is full.
+ * <p>
+ * Idempotent lines ({@code PONG}, {@code LIST}) are handled the same under every policy: a
+ * duplicate of a line already waiting is coalesced, and the oldest waiting idempotent line is
+ * evicted first to make room.
+ */
+public enum OverflowPolicy {
+    /**
+     * Wait for the writer to make room, up to the configured block timeout. Only for callers
+     * that may stall, never the FX thread.
+     */
+    BLOCK,
+    /** Reject the new line at once; the default. */
+    FAIL_FAST
+}
@@ -0,0 +1,312 @@
+package com.rps.network;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Logger;
+
+/**
+ * Requests sent by the asynchronous {@link ProtocolHandler} API that still wait for a reply.
+ * <p>
+ * The server handles the commands of one connection strictly in order and answers every
+ * command except PONG with exactly one line, its reply or an {@code ERR}. Entries are therefore
+ * queued in wire order, when their line is written (see {@link #onWritten(String, int)}), and a line
+ * sent without a future, such as READY, MOVE or RECONNECT, gets a placeholder entry. A reply
+ * completes the oldest entry that expects its command, and an {@code ERR} answers the oldest
+ * entry; an {@code ERR} for a placeholder is not attributed to any request. This lets several
+ * requests be in flight at once without tags on the wire, also next to fire-and-forget commands
+ * and priority lines that overtake queued ones.
+ * <p>
+ * A request whose deadline passes is failed at once but stays queued until its late reply
+ * arrives, so that reply cannot be taken for the answer to a newer request.
+ * <p>
+ * Replies only ever come from the connection a line was written to. Every new connection epoch
+ * therefore {@link #reset(int, Throwable) resets} the queue, and lines written with an older
+ * epoch, i.e. to a connection already replaced or closed, are not queued. A request whose line
+ * is not written yet outlives the reset, as the line may be retained and replayed on the next
+ * connection; it fails when the line is reported {@link #onDropped(String) dropped}.
+ */
+final class PendingRequests {
+    private static final Logger LOG = Logger.getLogger(PendingRequests.class.getName());
+
+    /** Expired requests whose reply never came are dropped after this long. */
+    private static final long ABANDON_AFTER_NANOS = 30_000_000_000L;
+
+    /** Successful replies of commands sent without a future; other commands only draw ERR. */
+    private static final Map<String, Set<String>> PLACEHOLDER_REPLIES = Map.of(
+            "HELLO", Set.of("WELCOME"),
+            "LIST", Set.of("R_LIST"),
+            "CREATE", Set.of("R_CREATED"),
+            "JOIN", Set.of("R_JOINED"),
+            "READY", Set.of("OK"),
+            "LEAVE", Set.of("OK"),
+            "MOVE", Set.of("M_ACC"),
+            "GET_OPP", Set.of("OPP_INF"),
+            "RECONNECT", Set.of("REC_OK"));
+
+    /** Entries in wire order; guarded by itself, like {@link #unwritten}. */
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+
+    /** Registered requests whose line has not been written yet. */
+    private final ArrayDeque<Pending> unwritten = new ArrayDeque<>();
+    private final ScheduledExecutorService scheduler;
+
+    /** Connection epoch whose lines are queued; older ones are ignored. Guarded by {@link #queue}. */
+    private int epoch;
+
+    PendingRequests(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Registers a request before it is sent; it joins the reply order when its line is written.
+     *
+     * @param line    line that will be sent; matched by identity in {@link #onWritten(String, int)}.
+     * @param replies commands that complete the request.
+     * @param options tag and deadline.
+     * @return future completed with the reply event.
+     */
+    CompletableFuture<ServerEvent> register(String line, Set<String> replies, RequestOptions options) {
+        Pending pending = new Pending(line, replies, options.getTag(), false);
+        synchronized (queue) {
+            purgeAbandoned(pending.createdAt);
+            unwritten.addLast(pending);
+        }
+        if (options.getDeadline() != null) {
+            long nanos = options.getDeadline().toNanos();
+            pending.timer = scheduler.schedule(() -> pending.future.completeExceptionally(
+                    new TimeoutException(describe(pending) + " got no reply within "
+                            + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms")), nanos, TimeUnit.NANOSECONDS);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Removes a request that could not be sent.
+     *
+     * @param future future returned by {@link #register(String, Set, RequestOptions)}.
+     */
+    void forget(CompletableFuture<ServerEvent> future) {
+        synchronized (queue) {
+            unwritten.removeIf(pending -> pending.future == future);
+            queue.removeIf(pending -> pending.future == future);
+        }
+    }
+
+    /**
+     * Queues the entry of a line about to be written; called by the writer in wire order,
+     * before the line can reach the server.
+     *
+     * @param line  line being written.
+     * @param epoch epoch of the connection it is written to.
+     */
+    void onWritten(String line, int epoch) {
+        Pending stale = null;
+        synchronized (queue) {
+            boolean current = epoch >= this.epoch;
+            for (Iterator<Pending> it = unwritten.iterator(); it.hasNext(); ) {
+                Pending pending = it.next();
+                if (pending.line == line) {
+                    it.remove();
+                    if (current) {
+                        queue.addLast(pending);
+                        return;
+                    }
+                    stale = pending;
+                    break;
+                }
+            }
+            if (current) {
+                int space = line.indexOf(' ');
+                String command = space < 0 ? line : line.substring(0, space);
+                if (command.equals("PONG")) {
+                    return;
+                }
+                Pending placeholder = new Pending(line, PLACEHOLDER_REPLIES.getOrDefault(command, Set.of()), null, true);
+                purgeAbandoned(placeholder.createdAt);
+                queue.addLast(placeholder);
+                return;
+            }
+        }
+        if (stale != null) {
+            fail(stale, new IllegalStateException("Connection closed, cannot send " + line));
+        }
+    }
+
+    /**
+     * Fails the request of a line that will never be written.
+     *
+     * @param line dropped line; matched by identity.
+     */
+    void onDropped(String line) {
+        Pending dropped = null;
+        synchronized (queue) {
+            for (Iterator<Pending> it = unwritten.iterator(); it.hasNext(); ) {
+                Pending pending = it.next();
+                if (pending.line == line) {
+                    it.remove();
+                    dropped = pending;
+                    break;
+                }
+            }
+        }
+        if (dropped != null) {
+            fail(dropped, new IllegalStateException("Connection closed, cannot send " + line));
+        }
+    }
+
+    /**
+     * Completes the request answered by given event, if any.
+     *
+     * @param event received server event.
+     * @return true if the event answered a request registered with {@link #register}, false if
+     *         it answered nothing or a line sent without one.
+     */
+    boolean onReply(ServerEvent event) {
+        Pending matched = null;
+        boolean error = "ERR".equals(event.getCommand());
+        synchronized (queue) {
+            if (queue.isEmpty()) {
+                return false;
+            }
+            if (error) {
+                matched = queue.pollFirst();
+            } else {
+                for (Iterator<Pending> it = queue.iterator(); it.hasNext(); ) {
+                    Pending pending = it.next();
+                    if (pending.replies.contains(event.getCommand())) {
+                        it.remove();
+                        matched = pending;
+                        break;
+                    }
+                }
+            }
+        }
+        if (matched == null) {
+            return false;
+        }
+        if (matched.placeholder) {
+            if (error) {
+                Pending answered = matched;
+                LOG.fine(() -> "ERR answers " + answered.line + ": " + event.getFullMessage());
+            }
+            return false;
+        }
+        if (matched.timer != null) {
+            matched.timer.cancel(false);
+        }
+        boolean completed = error
+                ? matched.future.completeExceptionally(new ServerErrorException(event, matched.tag))
+                : matched.future.complete(event);
+        if (!completed) {
+            Pending late = matched;
+            LOG.fine(() -> "Late reply for " + describe(late) + ": " + event.getFullMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Fails every pending request, e.g. when the session is closed.
+     *
+     * @param cause failure reason.
+     */
+    void failAll(Throwable cause) {
+        List<Pending> drained;
+        synchronized (queue) {
+            drained = new ArrayList<>(unwritten);
+            drained.addAll(queue);
+            unwritten.clear();
+            queue.clear();
+        }
+        for (Pending pending : drained) {
+            if (!pending.placeholder) {
+                fail(pending, cause);
+            }
+        }
+    }
+
+    /**
+     * Starts a connection epoch: fails every request already written and drops placeholders,
+     * as no reply to a line written before can arrive any more. Requests not written yet stay.
+     *
+     * @param epoch new connection epoch; an older one keeps the current epoch.
+     * @param cause failure reason.
+     */
+    void reset(int epoch, Throwable cause) {
+        List<Pending> drained;
+        synchronized (queue) {
+            this.epoch = Math.max(this.epoch, epoch);
+            drained = new ArrayList<>(queue);
+            queue.clear();
+        }
+        for (Pending pending : drained) {
+            if (!pending.placeholder) {
+                fail(pending, cause);
+            }
+        }
+    }
+
+    /**
+     * Returns number of requests with a future that still wait for a reply.
+     *
+     * @return count without placeholders.
+     */
+    int size() {
+        synchronized (queue) {
+            int size = unwritten.size();
+            for (Pending pending : queue) {
+                if (!pending.placeholder) {
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+
+    private void purgeAbandoned(long now) {
+        while (!queue.isEmpty()) {
+            Pending head = queue.peekFirst();
+            if (!(head.placeholder || head.future.isDone()) || now - head.createdAt < ABANDON_AFTER_NANOS) {
+                return;
+            }
+            queue.pollFirst();
+        }
+    }
+
+    private static void fail(Pending pending, Throwable cause) {
+        if (pending.timer != null) {
+            pending.timer.cancel(false);
+        }
+        pending.future.completeExceptionally(cause);
+    }
+
+    private static String describe(Pending pending) {
+        return "Request " + (pending.tag != null ? "[" + pending.tag + "] " : "") + "awaiting " + pending.replies;
+    }
+
+    private static final class Pending {
+        private final String line;
+        private final Set<String> replies;
+        private final String tag;
+        /** True for a line sent without a future; its reply or ERR only keeps the order. */
+        private final boolean placeholder;
+        private final long createdAt = System.nanoTime();
+        private final CompletableFuture<ServerEvent> future = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> timer;
+
+        private Pending(String line, Set<String> replies, String tag, boolean placeholder) {
+            this.line = line;
+            this.replies = replies;
+            this.tag = tag;
+            this.placeholder = placeholder;
+        }
+    }
+}
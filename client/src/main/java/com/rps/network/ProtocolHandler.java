@@ -1,8 +1,11 @@
 package com.rps.network;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 /**
@@ -13,15 +16,28 @@ import java.util.logging.Logger;
  *     <li>Transforms outgoing operations into text commands.</li>
  *     <li>Parses incoming text lines into {@link ServerEvent}.</li>
  *     <li>Aggregates multi-line responses such as room list.</li>
+ *     <li>Correlates replies with requests made through the asynchronous API.</li>
  * </ul>
+ * Requests with a well-known reply ({@link #joinRoom(String, RequestOptions)},
+ * {@link #createRoom(String, RequestOptions)}, {@link #requestOpponentInfo(RequestOptions)})
+ * return a future completed with that reply or failed with {@link ServerErrorException} on
+ * {@code ERR}. Because the server answers in order and sends no correlation ids, an ERR is
+ * attributed to the oldest pending request; commands without a future should not be sent
+ * while such requests are in flight if they can fail.
  */
 public final class ProtocolHandler {
     private static final Logger LOG = Logger.getLogger(ProtocolHandler.class.getName());
 
+    private static final Set<String> JOIN_REPLIES = Set.of("R_JOINED");
+    private static final Set<String> CREATE_REPLIES = Set.of("R_CREATED");
+    private static final Set<String> OPP_INFO_REPLIES = Set.of("OPP_INF");
+    private static final Set<String> MOVE_REPLIES = Set.of("M_ACC");
+
     private final NetworkManager networkManager;
     private final EventBus eventBus;
-    private final RoomListAssembler roomListAssembler = new RoomListAssembler();
-
+    private final RoomListAssembler roomListAssembler;
+    private final LatencyEstimator latencyEstimator = new LatencyEstimator();
+    private final PendingRequests pendingRequests;
 
     /**
      * Creates a new protocol handler and attaches it to given network manager and event bus.
@@ -32,18 +48,54 @@ public final class ProtocolHandler {
     public ProtocolHandler(NetworkManager networkManager, EventBus eventBus) {
         this.networkManager = Objects.requireNonNull(networkManager, "networkManager");
         this.eventBus = Objects.requireNonNull(eventBus, "eventBus");
+        this.pendingRequests = new PendingRequests(networkManager.getRuntime().scheduler());
+        this.roomListAssembler = new RoomListAssembler(networkManager.getRuntime().scheduler(),
+                this::publishRoomsLoaded);
+        this.networkManager.addInterceptor(this::interceptControl);
+        this.networkManager.setOnLineWritten(pendingRequests::onWritten);
+        this.networkManager.setOnLineDropped(pendingRequests::onDropped);
+        // Replies to lines written before a reconnect or disconnect never come.
+        this.networkManager.addStateListener(state -> {
+            if (state == ConnectionState.CONNECTING || state == ConnectionState.CLOSED) {
+                latencyEstimator.clearProbes();
+                pendingRequests.reset(networkManager.getEpoch(),
+                        new IOException("Connection " + (state == ConnectionState.CLOSED ? "closed" : "replaced")));
+            }
+        });
         this.networkManager.setOnMessageReceived(this::handleIncomingMessage);
         registerInternalHandlers();
     }
 
     private void registerInternalHandlers() {
-        eventBus.subscribe("R_LIST", roomListAssembler::handleHeader); // TODO ???
-        eventBus.subscribe("ROOM", roomListAssembler::handleRoom);
         eventBus.subscribe("R_CREATED", event -> requestRooms()); // TODO ???
+        // Canonical PING lines never get here, see interceptControl; this answers other spellings.
         eventBus.subscribe("PING", event -> respondPing());
     }
 
-    private void handleIncomingMessage(String rawMessage) {
+    /**
+     * Fast path ahead of parsing and the event bus: answers heartbeats on the reader thread
+     * without allocating, so a busy UI thread cannot delay PONG into the server's soft timeout.
+     *
+     * @param line received line.
+     * @return true if the line was a heartbeat and has been answered.
+     */
+    private boolean interceptControl(LineDecoder.Line line) {
+        if (!line.contentEquals("PING")) {
+            return false;
+        }
+        networkManager.sendPong();
+        return true;
+    }
+
+    /**
+     * Parses one inbound line and publishes it; called by the reader thread.
+     * <p>
+     * An ERR that answers a request is reported through that request's future only, so bus
+     * listeners see just the errors nobody asked for.
+     *
+     * @param rawMessage line without terminator.
+     */
+    void handleIncomingMessage(String rawMessage) {
         if (rawMessage == null || rawMessage.isBlank()) {
             return;
         }
@@ -53,7 +105,23 @@ public final class ProtocolHandler {
         }
         String command = tokens.get(0);
         ServerEvent event = new ServerEvent(command, tokens, rawMessage);
+        latencyEstimator.onReply(event);
+        if (command.equals("ERR")) {
+            if (pendingRequests.onReply(event)) {
+                eventBus.recordValidEvent();
+            } else {
+                eventBus.publish(event);
+            }
+            return;
+        }
         eventBus.publish(event);
+        // Counted here rather than on the bus, so that R_LOADED is created right after its last row.
+        if (command.equals("R_LIST")) {
+            roomListAssembler.handleHeader(event);
+        } else if (command.equals("ROOM")) {
+            roomListAssembler.handleRoom(event);
+        }
+        pendingRequests.onReply(event);
     }
 
     /**
@@ -62,6 +130,9 @@ public final class ProtocolHandler {
      * @param nickname non-null player nickname string.
      */
     public void sendHello(String nickname) {
+        latencyEstimator.startProbe("WELCOME");
+        // A new session starts; lines kept from a previous one must not reach it.
+        networkManager.discardRetained();
         networkManager.send("HELLO " + nickname);
     }
 
@@ -69,6 +140,7 @@ public final class ProtocolHandler {
      * Requests list of rooms from server (LIST command).
      */
     public void requestRooms() {
+        latencyEstimator.startProbe("R_LIST");
         networkManager.send("LIST");
     }
 
@@ -76,18 +148,42 @@ public final class ProtocolHandler {
      * Sends CREATE command in order to create new room on server.
      *
      * @param name room name without spaces.
+     * @return future completed with {@code R_CREATED <id>}.
      */
-    public void createRoom(String name) {
-        networkManager.send("CREATE " + name);
+    public CompletableFuture<ServerEvent> createRoom(String name) {
+        return createRoom(name, RequestOptions.none());
+    }
+
+    /**
+     * Sends CREATE command with given tag and deadline.
+     *
+     * @param name    room name without spaces.
+     * @param options correlation tag and deadline.
+     * @return future completed with {@code R_CREATED <id>}.
+     */
+    public CompletableFuture<ServerEvent> createRoom(String name, RequestOptions options) {
+        return request("CREATE " + name, CREATE_REPLIES, options);
     }
 
     /**
      * Sends JOIN command for given room identifier.
      *
      * @param id textual room identifier.
+     * @return future completed with {@code R_JOINED}.
+     */
+    public CompletableFuture<ServerEvent> joinRoom(String id) {
+        return joinRoom(id, RequestOptions.none());
+    }
+
+    /**
+     * Sends JOIN command with given tag and deadline.
+     *
+     * @param id      textual room identifier.
+     * @param options correlation tag and deadline.
+     * @return future completed with {@code R_JOINED}.
      */
-    public void joinRoom(String id) {
-        networkManager.send("JOIN " + id);
+    public CompletableFuture<ServerEvent> joinRoom(String id, RequestOptions options) {
+        return request("JOIN " + id, JOIN_REPLIES, options);
     }
 
     /**
@@ -98,12 +194,25 @@ public final class ProtocolHandler {
     }
 
     /**
-     * Sends MOVE command with move code.
+     * Sends MOVE command with move code through the priority write path.
+     * <p>
+     * Unlike the other requests, a move made while the connection is down is not refused: if
+     * unsent lines are retained, it is replayed after the session is resumed and its future
+     * waits for that.
      *
      * @param move one of "R", "P", "S".
+     * @return future completed with {@code M_ACC}, or failed with the {@code ERR} refusing the
+     *         move or when the move cannot be sent.
      */
-    public void sendMove(String move) {
-        networkManager.send("MOVE " + move);
+    public CompletableFuture<ServerEvent> sendMove(String move) {
+        latencyEstimator.startProbe("M_ACC");
+        String line = "MOVE " + move;
+        CompletableFuture<ServerEvent> future = pendingRequests.register(line, MOVE_REPLIES, RequestOptions.none());
+        if (!networkManager.sendPriority(line)) {
+            pendingRequests.forget(future);
+            future.completeExceptionally(new IllegalStateException("Not connected, cannot send " + line));
+        }
+        return future;
     }
 
     /**
@@ -115,16 +224,29 @@ public final class ProtocolHandler {
 
     /**
      * Requests opponent info in current lobby (GET_OPPONENT).
+     *
+     * @return future completed with {@code OPP_INF}.
      */
-    public void requestOpponentInfo() {
-        networkManager.send("GET_OPP");
+    public CompletableFuture<ServerEvent> requestOpponentInfo() {
+        return requestOpponentInfo(RequestOptions.none());
+    }
+
+    /**
+     * Requests opponent info with given tag and deadline.
+     *
+     * @param options correlation tag and deadline.
+     * @return future completed with {@code OPP_INF}.
+     */
+    public CompletableFuture<ServerEvent> requestOpponentInfo(RequestOptions options) {
+        latencyEstimator.startProbe("OPP_INF");
+        return request("GET_OPP", OPP_INFO_REPLIES, options);
     }
 
     /**
      * Responds to server ping (PING) with PONG message.
      */
     public void respondPing() {
-        networkManager.send("PONG");
+        networkManager.sendPong();
     }
 
     /**
@@ -137,59 +259,51 @@ public final class ProtocolHandler {
     }
 
     /**
-     * Aggregates multi-line ROOM_LIST/ROOM sequence into single ROOMS_LOADED event.
+     * Fails all requests still waiting for a reply, e.g. after the connection was lost.
+     *
+     * @param cause failure passed to the pending futures.
      */
-    private final class RoomListAssembler {
-        private final List<String> rooms = new ArrayList<>();
-        private int expected = 0;
+    public void failPendingRequests(Throwable cause) {
+        pendingRequests.failAll(cause);
+    }
 
-        void handleHeader(ServerEvent event) {
-            synchronized (rooms) {
-                expected = parseCount(event.getPart(1));
-                rooms.clear();
-                if (expected == 0) {
-                    publishRooms(List.of());
-                }
-            }
-        }
+    /**
+     * Returns number of asynchronous requests waiting for a reply.
+     *
+     * @return pending request count.
+     */
+    public int getPendingRequestCount() {
+        return pendingRequests.size();
+    }
 
-        void handleRoom(ServerEvent event) {
-            synchronized (rooms) {
-                if (expected == 0) {
-                    return;
-                }
-                rooms.add(extractRoomPayload(event.getFullMessage()));
-                if (rooms.size() >= expected) {
-                    publishRooms(new ArrayList<>(rooms));
-                    rooms.clear();
-                    expected = 0;
-                }
-            }
+    private CompletableFuture<ServerEvent> request(String line, Set<String> replies, RequestOptions options) {
+        Objects.requireNonNull(options, "options");
+        if (!networkManager.isConnected()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Not connected, cannot send " + line));
         }
-
-        private void publishRooms(List<String> snapshot) {
-            String roomsData = String.join("|", snapshot);
-            List<String> payload = new ArrayList<>();
-            payload.add("R_LOADED");
-            if (!roomsData.isEmpty()) {
-                payload.add(roomsData);
-            }
-            String fullMessage = payload.size() > 1 ? "R_LOADED " + roomsData : "ROOMS_LOADED";
-            eventBus.publish(new ServerEvent("R_LOADED", payload, fullMessage));
+        CompletableFuture<ServerEvent> future = pendingRequests.register(line, replies, options);
+        if (!networkManager.send(line)) {
+            pendingRequests.forget(future);
+            future.completeExceptionally(new IllegalStateException("Outbound queue full, cannot send " + line));
         }
+        return future;
+    }
 
-        private int parseCount(String raw) {
-            try {
-                return raw != null ? Integer.parseInt(raw) : 0;
-            } catch (NumberFormatException ex) {
-                LOG.warning(() -> "Invalid ROOM_LIST count: " + raw);
-                return 0;
-            }
-        }
+    /**
+     * Announces an ended room list as {@code R_LOADED <count>}, also when it was flushed incomplete.
+     */
+    private void publishRoomsLoaded(int rooms) {
+        String count = String.valueOf(rooms);
+        eventBus.publish(new ServerEvent("R_LOADED", new String[]{"R_LOADED", count}, "R_LOADED " + count));
+    }
 
-        private String extractRoomPayload(String fullMessage) {
-            return fullMessage.length() > 5 ? fullMessage.substring(5) : "";
-        }
+    /**
+     * Returns estimator of round-trip time fed by request/response pairs.
+     *
+     * @return latency estimator bound to this connection.
+     */
+    public LatencyEstimator getLatencyEstimator() {
+        return latencyEstimator;
     }
 
     /**
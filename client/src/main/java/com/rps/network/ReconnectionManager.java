@@ -1,9 +1,9 @@
 package com.rps.network;
 
-import java.io.IOException;
 import java.time.Duration;
 import java.util.Objects;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
@@ -19,6 +19,10 @@ import java.util.logging.Logger;
  *     <li>Send RECONNECT command when connection is re-opened.</li>
  *     <li>Expose callbacks for reconnect success and failure.</li>
  * </ul>
+ * <p>
+ * Attempts never block the scheduler: each one starts {@link NetworkManager#connectAsync(String, int)}
+ * and sends RECONNECT from its completion. A tick that finds the previous attempt still in
+ * flight is skipped.
  */
 public final class ReconnectionManager {
     private static final Logger LOG = Logger.getLogger(ReconnectionManager.class.getName());
@@ -32,7 +36,7 @@ public final class ReconnectionManager {
     private final Duration autoWindow;
     private final AtomicReference<State> state = new AtomicReference<>(State.IDLE);
     private final AtomicInteger attempts = new AtomicInteger();
-    private final Object connectLock = new Object();
+    private final AtomicBoolean attemptInFlight = new AtomicBoolean(false);
 
     private ScheduledFuture<?> autoTask;
     private Runnable onAutoReconnectFailed;
@@ -40,6 +44,7 @@ public final class ReconnectionManager {
     private volatile String lastToken;
     private volatile String host;
     private volatile int port;
+    private volatile long lastConfirmedAtNanos;
 
     /**
      * Creates reconnection manager with default intervals and window.
@@ -51,7 +56,23 @@ public final class ReconnectionManager {
     public ReconnectionManager(NetworkManager networkManager,
                                ProtocolHandler protocolHandler,
                                EventBus eventBus) {
-        this(networkManager, protocolHandler, eventBus, Runnable::run,
+        this(networkManager, protocolHandler, eventBus, ClientRuntime.shared(), Runnable::run,
+                Duration.ofSeconds(2), Duration.ofSeconds(45));
+    }
+
+    /**
+     * Creates reconnection manager with default intervals and window on given runtime.
+     *
+     * @param networkManager  underlying network manager.
+     * @param protocolHandler protocol handler used to send RECONNECT command.
+     * @param eventBus        event dispatcher to listen for RECONNECT_OK and ERR.
+     * @param runtime         shared scheduler source for reconnect attempts.
+     */
+    public ReconnectionManager(NetworkManager networkManager,
+                               ProtocolHandler protocolHandler,
+                               EventBus eventBus,
+                               ClientRuntime runtime) {
+        this(networkManager, protocolHandler, eventBus, runtime, Runnable::run,
                 Duration.ofSeconds(2), Duration.ofSeconds(45));
     }
 
@@ -61,6 +82,7 @@ public final class ReconnectionManager {
      * @param networkManager  underlying network manager.
      * @param protocolHandler protocol handler used to send RECONNECT command.
      * @param eventBus        event dispatcher to listen for RECONNECT_OK and ERR.
+     * @param runtime          shared scheduler source for reconnect attempts.
      * @param callbackExecutor executor for callback execution, or null for default.
      * @param interval         initial reconnection interval (minimum delay between attempts).
      * @param autoWindow       maximum time window for automatic reconnection attempts.
@@ -68,6 +90,7 @@ public final class ReconnectionManager {
     public ReconnectionManager(NetworkManager networkManager,
                                ProtocolHandler protocolHandler,
                                EventBus eventBus,
+                               ClientRuntime runtime,
                                Executor callbackExecutor,
                                Duration interval,
                                Duration autoWindow) {
@@ -77,7 +100,7 @@ public final class ReconnectionManager {
         this.callbackExecutor = callbackExecutor != null ? callbackExecutor : Runnable::run;
         this.interval = interval;
         this.autoWindow = autoWindow;
-        this.scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("reconnect"));
+        this.scheduler = Objects.requireNonNull(runtime, "runtime").scheduler();
         registerEventHandlers();
     }
 
@@ -155,6 +178,15 @@ public final class ReconnectionManager {
         return current == State.AUTO || current == State.MANUAL;
     }
 
+    /**
+     * Returns arrival time of the last RECONNECT confirmation.
+     *
+     * @return {@link System#nanoTime()} timestamp, 0 if no reconnect was confirmed yet.
+     */
+    public long getLastConfirmedAtNanos() {
+        return lastConfirmedAtNanos;
+    }
+
     /**
      * Aborts automatic reconnection and resets internal state to idle.
      */
@@ -165,11 +197,11 @@ public final class ReconnectionManager {
     }
 
     /**
-     * Shuts down internal scheduler and cancels any pending tasks.
+     * Cancels any pending tasks. The shared scheduler keeps running for other sessions.
      */
     public void shutdown() {
         cancelAutoTask();
-        scheduler.shutdownNow();
+        state.set(State.IDLE);
     }
 
     private void autoAttempt() {
@@ -186,16 +218,19 @@ public final class ReconnectionManager {
     }
 
     private void attemptReconnect() {
-        synchronized (connectLock) {
-            try {
-                networkManager.disconnect();
-                networkManager.connect(host, port);
-                protocolHandler.sendReconnect(lastToken);
-
-            } catch (IOException ex) {
-                LOG.log(Level.WARNING, "Reconnection attempt failed");
-            }
+        if (!attemptInFlight.compareAndSet(false, true)) {
+            LOG.fine("Previous reconnection attempt still in flight");
+            return;
         }
+        networkManager.connectAsync(host, port).whenComplete((ignored, ex) -> {
+            attemptInFlight.set(false);
+            if (ex != null) {
+                LOG.log(Level.WARNING, "Reconnection attempt failed: " + ex.getMessage());
+                return;
+            }
+            networkManager.beginResume();
+            protocolHandler.sendReconnect(lastToken);
+        });
     }
 
     private void registerEventHandlers() {
@@ -204,6 +239,9 @@ public final class ReconnectionManager {
     }
 
     private void handleReconnectOk(ServerEvent event) {
+        lastConfirmedAtNanos = event.getReceivedAtNanos();
+        networkManager.endResume();
+        networkManager.replayRetained();
         cancelAutoTask();
         state.set(State.IDLE);
         callbackExecutor.execute(() -> {
@@ -220,6 +258,8 @@ public final class ReconnectionManager {
             return;
         }
         LOG.info("Reconnection token rejected by server");
+        networkManager.endResume();
+        networkManager.discardRetained();
         State previous = state.getAndSet(State.IDLE);
         cancelAutoTask();
         if (previous == State.AUTO) {
@@ -255,6 +295,7 @@ public final class ReconnectionManager {
     }
 
     private void failAutoReconnect() {
+        networkManager.discardRetained();
         cancelAutoTask();
         state.set(State.IDLE);
         callbackExecutor.execute(() -> {
@@ -283,23 +324,4 @@ public final class ReconnectionManager {
         AUTO,
         MANUAL
     }
-
-    /**
-     * Thread factory for reconnection scheduler; names and daemonizes threads.
-     */
-    private static final class NamedThreadFactory implements ThreadFactory {
-        private final String prefix;
-        private int index = 0;
-
-        private NamedThreadFactory(String prefix) {
-            this.prefix = prefix;
-        }
-
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread thread = new Thread(r, prefix + "-" + index++);
-            thread.setDaemon(true);
-            return thread;
-        }
-    }
 }
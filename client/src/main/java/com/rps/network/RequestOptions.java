@@ -0,0 +1,61 @@
+package com.rps.network;
+
+import java.time.Duration;
+
+/**
+ * Per-request settings of the asynchronous {@link ProtocolHandler} API.
+ * <p>
+ * The tag is a client-side correlation label: it is not sent to the server (the protocol has
+ * no field for it) but is carried by the failure of the request and by log lines, so callers
+ * that pipeline several requests can tell them apart. Instances are immutable.
+ */
+public final class RequestOptions {
+
+    private static final RequestOptions NONE = new RequestOptions(null, null);
+
+    private final String tag;
+    private final Duration deadline;
+
+    private RequestOptions(String tag, Duration deadline) {
+        this.tag = tag;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns options without tag and deadline.
+     *
+     * @return shared default options.
+     */
+    public static RequestOptions none() {
+        return NONE;
+    }
+
+    /**
+     * Returns copy with given correlation tag.
+     *
+     * @param tag caller-chosen label; may be null.
+     * @return new options.
+     */
+    public RequestOptions tagged(String tag) {
+        return new RequestOptions(tag, deadline);
+    }
+
+    /**
+     * Returns copy with given deadline.
+     *
+     * @param deadline time after which the request fails with {@link java.util.concurrent.TimeoutException};
+     *                 null or non-positive for no deadline.
+     * @return new options.
+     */
+    public RequestOptions withDeadline(Duration deadline) {
+        return new RequestOptions(tag, deadline != null && !deadline.isNegative() && !deadline.isZero() ? deadline : null);
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public Duration getDeadline() {
+        return deadline;
+    }
+}
@@ -0,0 +1,131 @@
+package com.rps.network;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Tracks the multi-line R_LIST/ROOM sequence of one session and reports when a list ended.
+ * <p>
+ * The rooms screen applies every ROOM row by room id as it arrives, so rows are only counted
+ * here against the R_LIST count; the row that reaches it ends the list. A new header supersedes
+ * a list still being received, and rows after the end of their list are not counted.
+ * <p>
+ * A list whose rows stop arriving, e.g. because a ROOM line was lost, is ended one to two
+ * {@link #FLUSH_AFTER_MILLIS} check intervals after its last row, so it never blocks the next
+ * refresh.
+ * <p>
+ * No lock is taken, so rows can be delivered from any thread.
+ */
+final class RoomListAssembler {
+    private static final Logger LOG = Logger.getLogger(RoomListAssembler.class.getName());
+
+    /** Interval of the check that ends an incomplete list without progress. */
+    static final long FLUSH_AFTER_MILLIS = 500;
+
+    private final ScheduledExecutorService scheduler;
+    /** Receives the row count of each ended list, complete or flushed; runs on the thread that ended it. */
+    private final IntConsumer listener;
+    private final AtomicReference<Batch> batch = new AtomicReference<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    /**
+     * Creates assembler for one session.
+     *
+     * @param scheduler runs the flush of stalled lists.
+     * @param listener  receives the row count of each ended list.
+     */
+    RoomListAssembler(ScheduledExecutorService scheduler, IntConsumer listener) {
+        this.scheduler = scheduler;
+        this.listener = listener;
+    }
+
+    void handleHeader(ServerEvent event) {
+        int expected = parseCount(event.getPart(1));
+        if (expected == 0) {
+            batch.set(null);
+            listener.accept(0);
+            return;
+        }
+        Batch previous = batch.getAndSet(new Batch(expected));
+        if (previous != null) {
+            LOG.info(() -> "Room list superseded after " + previous.stored.get() + "/" + previous.expected + " rows");
+        }
+        scheduleFlush();
+    }
+
+    void handleRoom(ServerEvent event) {
+        Batch current = batch.get();
+        if (current == null) {
+            return;
+        }
+        int stored = current.stored.incrementAndGet();
+        if (stored == current.expected && batch.compareAndSet(current, null)) {
+            listener.accept(stored);
+        }
+    }
+
+    private void scheduleFlush() {
+        if (!flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.schedule(this::checkFlush, FLUSH_AFTER_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            flushScheduled.set(false);
+        }
+    }
+
+    /**
+     * Ends the current list if no row arrived since the previous check. One check is pending
+     * at a time; it re-arms itself while a list is being received. Progress is read from the
+     * row counter, so rows never touch the clock.
+     */
+    private void checkFlush() {
+        flushScheduled.set(false);
+        Batch current = batch.get();
+        if (current == null) {
+            return;
+        }
+        int stored = current.stored.get();
+        if (stored != current.storedAtLastCheck) {
+            current.storedAtLastCheck = stored;
+        } else if (batch.compareAndSet(current, null)) {
+            LOG.warning("Room list flushed with " + stored + "/" + current.expected
+                    + " rows, no progress for " + FLUSH_AFTER_MILLIS + " ms");
+            listener.accept(Math.min(stored, current.expected));
+        }
+        if (batch.get() != null) {
+            scheduleFlush();
+        }
+    }
+
+    private static int parseCount(String raw) {
+        try {
+            return raw != null ? Math.max(Integer.parseInt(raw), 0) : 0;
+        } catch (NumberFormatException ex) {
+            LOG.warning(() -> "Invalid ROOM_LIST count: " + raw);
+            return 0;
+        }
+    }
+
+    /**
+     * Row counter of one list.
+     */
+    private static final class Batch {
+        private final int expected;
+        private final AtomicInteger stored = new AtomicInteger();
+
+        /** Row count seen by the previous flush check; only touched by the scheduler. */
+        private int storedAtLastCheck = -1;
+
+        private Batch(int expected) {
+            this.expected = expected;
+        }
+    }
+}
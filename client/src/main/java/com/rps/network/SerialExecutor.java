@@ -0,0 +1,83 @@
+package com.rps.network;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs tasks one at a time, in submission order, on top of a shared executor.
+ * <p>
+ * Gives each connection a private ordered writer without dedicating a thread to it.
+ * A drain runs at most {@link #BATCH} tasks before yielding the pool thread, so one busy
+ * connection cannot starve the others.
+ */
+final class SerialExecutor implements Executor {
+    private static final Logger LOG = Logger.getLogger(SerialExecutor.class.getName());
+    private static final int BATCH = 64;
+
+    private final Executor delegate;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private volatile boolean shutdown;
+
+    SerialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Serial executor is shut down");
+        }
+        tasks.offer(task);
+        schedule();
+    }
+
+    /**
+     * Stops accepting tasks and drops the ones not started yet.
+     */
+    void shutdown() {
+        shutdown = true;
+        tasks.clear();
+    }
+
+    boolean isShutdown() {
+        return shutdown;
+    }
+
+    private void schedule() {
+        if (!scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            delegate.execute(this::drain);
+        } catch (RejectedExecutionException ex) {
+            scheduled.set(false);
+            throw ex;
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            int ran = 0;
+            while (!shutdown && ran < BATCH && (task = tasks.poll()) != null) {
+                ran++;
+                try {
+                    task.run();
+                } catch (RuntimeException ex) {
+                    LOG.log(Level.WARNING, "Serial task failed", ex);
+                }
+            }
+        } finally {
+            scheduled.set(false);
+            if (!shutdown && !tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
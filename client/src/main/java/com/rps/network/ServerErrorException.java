@@ -0,0 +1,41 @@
+package com.rps.network;
+
+/**
+ * Failure of an asynchronous request answered by {@code ERR <code> <message>}.
+ */
+public final class ServerErrorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ServerEvent event;
+    private final String tag;
+
+    /**
+     * Constructs exception for given error reply.
+     *
+     * @param event ERR event received in reply.
+     * @param tag   correlation tag of the request; may be null.
+     */
+    public ServerErrorException(ServerEvent event, String tag) {
+        super((tag != null ? "[" + tag + "] " : "") + event.getFullMessage());
+        this.event = event;
+        this.tag = tag;
+    }
+
+    public ServerEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns numeric error code sent by server.
+     *
+     * @return error code such as {@code "104"}, or null if missing.
+     */
+    public String getCode() {
+        return event.getPart(1);
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -3,16 +3,23 @@ package com.rps.network;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class ServerEvent {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     private final String command;
     private final String[] parts;
     private final String fullMessage;
+    private final long receivedAtNanos;
+    private final long sequence;
 
     public ServerEvent(String command, String[] parts, String fullMessage) {
         this.command = Objects.requireNonNull(command, "command");
         this.parts = parts != null ? parts.clone() : new String[]{command};
         this.fullMessage = Objects.requireNonNull(fullMessage, "fullMessage");
+        this.receivedAtNanos = System.nanoTime();
+        this.sequence = SEQUENCE.incrementAndGet();
     }
 
     public ServerEvent(String command, List<String> parts, String fullMessage) {
@@ -31,6 +38,26 @@ public final class ServerEvent {
         return fullMessage;
     }
 
+    /**
+     * Returns {@link System#nanoTime()} captured when the event was parsed from the wire.
+     *
+     * @return monotonic arrival timestamp in nanoseconds.
+     */
+    public long getReceivedAtNanos() {
+        return receivedAtNanos;
+    }
+
+    /**
+     * Returns position of the event in creation order. Events of one connection are created by
+     * its reader thread, so their sequence follows the wire order even where the bus delivers
+     * them out of order, see {@link EventLane}.
+     *
+     * @return sequence number, increasing across all events of the JVM.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
     public String getPart(int index) {
         return (index >= 0 && index < parts.length) ? parts[index] : null;
     }
@@ -0,0 +1,216 @@
+package com.rps.tournament;
+
+import com.rps.ClientSession;
+import com.rps.RoundResult;
+import com.rps.bot.BotStrategy;
+import com.rps.bot.Moves;
+import com.rps.history.MatchHistory;
+import com.rps.history.MatchRecorder;
+import com.rps.network.EventBus;
+import com.rps.network.ProtocolHandler;
+import com.rps.network.ServerEvent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Headless player driving one {@link ClientSession} through the protocol.
+ * <p>
+ * Room requests use the asynchronous {@link ProtocolHandler} API; the HELLO handshake predates
+ * it and is correlated through a single pending future. Once a game starts, rounds are played automatically
+ * from the session's network thread by the {@link BotStrategy} of the participant the bot is
+ * leased to.
+ */
+final class BotPlayer {
+    private static final Logger LOG = Logger.getLogger(BotPlayer.class.getName());
+
+    /** Commands the bot receives but does not act on. */
+    private static final String[] IGNORED = {
+            "OK", "R_CREATED", "R_JOINED", "P_JOINED", "P_READY", "P_UNREADY", "P_LEFT", "OPP_INF", "R_LIST", "ROOM", "R_LOADED", "G_ST", "M_ACC", "G_PAUSE", "G_RES"
+    };
+
+    private final ClientSession session;
+    private final String nickname;
+    private final LatencyHistogram roundLatency;
+    /** Strategy of the participant the bot currently plays for; set per match. */
+    private volatile BotStrategy strategy;
+
+    /** Reply awaited by the current request, completed with the reply event. */
+    private volatile PendingReply pending;
+
+    /** Completed with the G_END winner of the game in progress. */
+    private volatile CompletableFuture<String> game;
+
+    /** Arrival time of the current R_ST. */
+    private volatile long roundStartedAt;
+
+    /** Records played rounds; null unless {@link #recordTo(MatchHistory)} was called. */
+    private MatchRecorder recorder;
+
+    BotPlayer(ClientSession session, String nickname, LatencyHistogram roundLatency) {
+        this.session = session;
+        this.nickname = nickname;
+        this.roundLatency = roundLatency;
+        EventBus bus = session.getEventBus();
+        for (String command : IGNORED) {
+            bus.subscribe(command, event -> { });
+        }
+        bus.subscribe("WELCOME", this::complete);
+        bus.subscribe("ERR", this::fail);
+        bus.subscribe("R_ST", this::onRoundStart);
+        bus.subscribe("R_RE", this::onRoundResult);
+        bus.subscribe("G_END", this::onGameEnd);
+    }
+
+    String getNickname() {
+        return nickname;
+    }
+
+    ClientSession getSession() {
+        return session;
+    }
+
+    /**
+     * Sets the strategy for the next games; called when the bot is leased to a participant.
+     *
+     * @param strategy strategy of that participant.
+     */
+    void setStrategy(BotStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    /**
+     * Records every following game of this bot into the history.
+     *
+     * @param history shared history store.
+     */
+    void recordTo(MatchHistory history) {
+        recorder = new MatchRecorder(history, session.getEventBus(), () -> nickname);
+    }
+
+    /**
+     * Connects and authenticates without blocking the calling thread.
+     *
+     * @param host server host.
+     * @param port server port.
+     * @return future completed when WELCOME arrives.
+     */
+    CompletableFuture<ServerEvent> connect(String host, int port) {
+        return session.getNetworkManager().connectAsync(host, port)
+                .thenCompose(ignored -> request("WELCOME", () -> session.getProtocolHandler().sendHello(nickname)));
+    }
+
+    /**
+     * Creates a room.
+     *
+     * @param name room name without spaces.
+     * @return future completed with the new room id.
+     */
+    CompletableFuture<String> createRoom(String name) {
+        return session.getProtocolHandler().createRoom(name).thenApply(event -> event.getPart(1));
+    }
+
+    /**
+     * Joins a room.
+     *
+     * @param roomId room id.
+     * @return future completed on R_JOINED.
+     */
+    CompletableFuture<ServerEvent> joinRoom(String roomId) {
+        return session.getProtocolHandler().joinRoom(roomId);
+    }
+
+    /**
+     * Marks the bot ready and plays the game that follows.
+     *
+     * @param opponent participant name of the opponent, used in the match history.
+     * @return future completed with the G_END winner field.
+     */
+    CompletableFuture<String> readyAndPlay(String opponent) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        strategy.reset();
+        if (recorder != null) {
+            recorder.setOpponent(opponent);
+        }
+        game = result;
+        session.getProtocolHandler().markReady();
+        return result;
+    }
+
+    /**
+     * Fails any in-flight request or game, e.g. after a match timeout.
+     *
+     * @param cause failure reason.
+     */
+    void abort(Throwable cause) {
+        PendingReply current = pending;
+        if (current != null) {
+            current.future.completeExceptionally(cause);
+        }
+        session.getProtocolHandler().failPendingRequests(cause);
+        CompletableFuture<String> currentGame = game;
+        if (currentGame != null) {
+            currentGame.completeExceptionally(cause);
+        }
+    }
+
+    private CompletableFuture<ServerEvent> request(String replyCommand, Runnable send) {
+        PendingReply reply = new PendingReply(replyCommand);
+        pending = reply;
+        send.run();
+        return reply.future;
+    }
+
+    private void complete(ServerEvent event) {
+        PendingReply current = pending;
+        if (current != null && current.command.equals(event.getCommand())) {
+            pending = null;
+            current.future.complete(event);
+        }
+    }
+
+    private void fail(ServerEvent event) {
+        PendingReply current = pending;
+        if (current != null) {
+            pending = null;
+            current.future.completeExceptionally(new IllegalStateException(event.getFullMessage()));
+        }
+    }
+
+    private void onRoundStart(ServerEvent event) {
+        roundStartedAt = event.getReceivedAtNanos();
+        ProtocolHandler protocol = session.getProtocolHandler();
+        protocol.sendMove(String.valueOf(Moves.toChar(strategy.nextMove())));
+    }
+
+    private void onRoundResult(ServerEvent event) {
+        long startedAt = roundStartedAt;
+        if (startedAt != 0) {
+            roundLatency.record(event.getReceivedAtNanos() - startedAt);
+        }
+        try {
+            strategy.onRoundResult(RoundResult.parse(event));
+        } catch (IllegalArgumentException ex) {
+            LOG.warning("Bot " + nickname + " ignored round result: " + ex.getMessage());
+            session.getEventBus().recordInvalidEvent();
+        }
+    }
+
+    private void onGameEnd(ServerEvent event) {
+        CompletableFuture<String> current = game;
+        game = null;
+        roundStartedAt = 0;
+        if (current != null) {
+            current.complete(event.getPart(1));
+        }
+    }
+
+    private static final class PendingReply {
+        private final String command;
+        private final CompletableFuture<ServerEvent> future = new CompletableFuture<>();
+
+        private PendingReply(String command) {
+            this.command = command;
+        }
+    }
+}
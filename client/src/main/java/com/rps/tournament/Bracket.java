@@ -0,0 +1,66 @@
+package com.rps.tournament;
+
+import java.util.List;
+
+/**
+ * Schedule of matches between tournament participants.
+ * <p>
+ * Participants are identified by their seed index (0 = top seed). Implementations are
+ * driven from a single runner thread and need no synchronization.
+ */
+interface Bracket {
+
+    /**
+     * Returns pairings that may start now. Called again after every result; an empty list
+     * means the remaining pairings depend on results that are still pending.
+     *
+     * @return pairings not returned before.
+     */
+    List<Pairing> nextPairings();
+
+    /**
+     * Records outcome of a finished pairing.
+     *
+     * @param pairing pairing returned by {@link #nextPairings()}.
+     * @param outcome result of the match.
+     */
+    void onResult(Pairing pairing, Outcome outcome);
+
+    /**
+     * Returns whether all matches were played.
+     *
+     * @return true when the tournament is over.
+     */
+    boolean isFinished();
+
+    /**
+     * Result of a single match from the point of view of the home participant.
+     */
+    enum Outcome {
+        HOME_WIN,
+        AWAY_WIN,
+        DRAW,
+        /** Match could not be completed (connection loss, timeout). */
+        VOID
+    }
+
+    /**
+     * Two participants scheduled to play each other.
+     */
+    final class Pairing {
+        final int home;
+        final int away;
+        final int round;
+
+        Pairing(int home, int away, int round) {
+            this.home = home;
+            this.away = away;
+            this.round = round;
+        }
+
+        @Override
+        public String toString() {
+            return "R" + round + " " + home + " vs " + away;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.rps.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-elimination bracket seeded top against bottom.
+ * <p>
+ * A round is released once the previous one is complete. Odd participant counts give the
+ * top seed a bye; drawn or void matches are decided in favour of the better seed.
+ */
+final class EliminationBracket implements Bracket {
+
+    private List<Integer> alive = new ArrayList<>();
+    private final List<Integer> advancing = new ArrayList<>();
+    private int round;
+    private int pendingInRound;
+
+    EliminationBracket(int participants) {
+        for (int i = 0; i < participants; i++) {
+            alive.add(i);
+        }
+    }
+
+    @Override
+    public List<Pairing> nextPairings() {
+        if (pendingInRound > 0 || isFinished()) {
+            return List.of();
+        }
+        round++;
+        List<Pairing> pairings = new ArrayList<>();
+        int lo = 0;
+        int hi = alive.size() - 1;
+        if (alive.size() % 2 == 1) {
+            advancing.add(alive.get(lo++));
+        }
+        while (lo < hi) {
+            pairings.add(new Pairing(alive.get(lo++), alive.get(hi--), round));
+        }
+        pendingInRound = pairings.size();
+        if (pendingInRound == 0) {
+            closeRound();
+        }
+        return pairings;
+    }
+
+    @Override
+    public void onResult(Pairing pairing, Outcome outcome) {
+        int winner = switch (outcome) {
+            case HOME_WIN -> pairing.home;
+            case AWAY_WIN -> pairing.away;
+            case DRAW, VOID -> Math.min(pairing.home, pairing.away);
+        };
+        advancing.add(winner);
+        if (--pendingInRound == 0) {
+            closeRound();
+        }
+    }
+
+    @Override
+    public boolean isFinished() {
+        return pendingInRound == 0 && alive.size() <= 1;
+    }
+
+    private void closeRound() {
+        advancing.sort(Integer::compare);
+        alive = new ArrayList<>(advancing);
+        advancing.clear();
+    }
+}
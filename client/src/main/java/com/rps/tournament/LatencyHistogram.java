@@ -0,0 +1,61 @@
+package com.rps.tournament;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with 1 ms buckets up to {@link #MAX_MILLIS}.
+ * <p>
+ * Samples above the range land in the last bucket. Recording is a single atomic increment,
+ * so many bot threads can record concurrently without contention on a shared lock.
+ */
+final class LatencyHistogram {
+
+    /** Upper bound of the tracked range in milliseconds. */
+    static final int MAX_MILLIS = 60_000;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(MAX_MILLIS + 1);
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Records one sample.
+     *
+     * @param nanos latency in nanoseconds.
+     */
+    void record(long nanos) {
+        int millis = (int) Math.min(MAX_MILLIS, Math.max(0, nanos / 1_000_000));
+        buckets.incrementAndGet(millis);
+        count.increment();
+    }
+
+    /**
+     * Returns number of recorded samples.
+     *
+     * @return sample count.
+     */
+    long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns latency at given percentile.
+     *
+     * @param percentile value in range (0, 100].
+     * @return upper bound of the bucket containing the percentile, in milliseconds; 0 if empty.
+     */
+    long percentileMillis(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return i + 1L;
+            }
+        }
+        return MAX_MILLIS;
+    }
+}
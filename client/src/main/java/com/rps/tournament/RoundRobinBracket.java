@@ -0,0 +1,58 @@
+package com.rps.tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every participant plays every other participant once.
+ * <p>
+ * Pairings are generated with the circle method so that each round contains disjoint
+ * pairs; since no pairing depends on a result, all of them are released at once and
+ * the runner is limited only by its connection pool.
+ */
+final class RoundRobinBracket implements Bracket {
+
+    private final List<Pairing> pairings = new ArrayList<>();
+    private boolean released;
+    private int remaining;
+
+    RoundRobinBracket(int participants) {
+        int n = participants % 2 == 0 ? participants : participants + 1;
+        int[] ring = new int[n];
+        for (int i = 0; i < n; i++) {
+            ring[i] = i;
+        }
+        for (int round = 0; round < n - 1; round++) {
+            for (int i = 0; i < n / 2; i++) {
+                int a = ring[i];
+                int b = ring[n - 1 - i];
+                if (a < participants && b < participants) {
+                    pairings.add(round % 2 == 0 ? new Pairing(a, b, round + 1) : new Pairing(b, a, round + 1));
+                }
+            }
+            int last = ring[n - 1];
+            System.arraycopy(ring, 1, ring, 2, n - 2);
+            ring[1] = last;
+        }
+        remaining = pairings.size();
+    }
+
+    @Override
+    public List<Pairing> nextPairings() {
+        if (released) {
+            return List.of();
+        }
+        released = true;
+        return pairings;
+    }
+
+    @Override
+    public void onResult(Pairing pairing, Outcome outcome) {
+        remaining--;
+    }
+
+    @Override
+    public boolean isFinished() {
+        return released && remaining <= 0;
+    }
+}
@@ -0,0 +1,110 @@
+package com.rps.tournament;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Points table updated after every match (3 for a win, 1 for a draw).
+ * <p>
+ * Mutated only from the runner thread; {@link #snapshot()} returns an immutable ordered copy
+ * that can be handed to listeners on any thread.
+ */
+public final class Standings {
+
+    private final String[] names;
+    private final int[] played;
+    private final int[] wins;
+    private final int[] draws;
+    private final int[] losses;
+
+    Standings(List<String> participants) {
+        int n = participants.size();
+        this.names = participants.toArray(String[]::new);
+        this.played = new int[n];
+        this.wins = new int[n];
+        this.draws = new int[n];
+        this.losses = new int[n];
+    }
+
+    void record(Bracket.Pairing pairing, Bracket.Outcome outcome) {
+        switch (outcome) {
+            case HOME_WIN -> win(pairing.home, pairing.away);
+            case AWAY_WIN -> win(pairing.away, pairing.home);
+            case DRAW -> {
+                played[pairing.home]++;
+                played[pairing.away]++;
+                draws[pairing.home]++;
+                draws[pairing.away]++;
+            }
+            case VOID -> {
+                // Not counted.
+            }
+        }
+    }
+
+    /**
+     * Returns table rows ordered by points, then wins, then seed.
+     *
+     * @return immutable list of rows.
+     */
+    public List<Row> snapshot() {
+        List<Row> rows = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            rows.add(new Row(i, names[i], played[i], wins[i], draws[i], losses[i]));
+        }
+        rows.sort(Comparator.comparingInt(Row::getPoints).reversed()
+                .thenComparing(Comparator.comparingInt(Row::getWins).reversed())
+                .thenComparingInt(Row::getSeed));
+        return List.copyOf(rows);
+    }
+
+    private void win(int winner, int loser) {
+        played[winner]++;
+        played[loser]++;
+        wins[winner]++;
+        losses[loser]++;
+    }
+
+    /**
+     * One participant's line in the table.
+     */
+    public static final class Row {
+        private final int seed;
+        private final String name;
+        private final int played;
+        private final int wins;
+        private final int draws;
+        private final int losses;
+
+        private Row(int seed, String name, int played, int wins, int draws, int losses) {
+            this.seed = seed;
+            this.name = name;
+            this.played = played;
+            this.wins = wins;
+            this.draws = draws;
+            this.losses = losses;
+        }
+
+        public int getSeed() {
+            return seed;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public int getPoints() {
+            return wins * 3 + draws;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-16s P%-3d W%-3d D%-3d L%-3d %3d pts", name, played, wins, draws, losses, getPoints());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.rps.tournament;
+
+import com.rps.history.MatchHistory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Command line entry point for headless tournaments.
+ * <p>
+ * Usage: {@code TournamentMain [--host 127.0.0.1] [--port 2500] [--players 16]
+ * [--format round_robin|elimination] [--connections 64] [--match-timeout 300]
+ * [--strategy random,frequency,markov:2,pattern:6] [--history rounds.dat] [--footprint-samples 0]}
+ */
+public final class TournamentMain {
+
+    private TournamentMain() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        String host = "127.0.0.1";
+        int port = 2500;
+        int players = 16;
+        TournamentRunner.Format format = TournamentRunner.Format.ROUND_ROBIN;
+        int connections = TournamentRunner.SERVER_MAX_CLIENTS;
+        int matchTimeoutSeconds = 300;
+        List<String> strategies = List.of("random");
+        Path historyFile = null;
+        int footprintSamples = 0;
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--host" -> host = value;
+                case "--port" -> port = Integer.parseInt(value);
+                case "--players" -> players = Integer.parseInt(value);
+                case "--format" -> format = TournamentRunner.Format.valueOf(value.toUpperCase());
+                case "--connections" -> connections = Integer.parseInt(value);
+                case "--match-timeout" -> matchTimeoutSeconds = Integer.parseInt(value);
+                case "--strategy" -> strategies = List.of(value.split(","));
+                case "--history" -> historyFile = Path.of(value);
+                case "--footprint-samples" -> footprintSamples = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        // Per-message protocol logging would dominate run time.
+        Logger.getLogger("com.rps.network").setLevel(Level.WARNING);
+
+        List<String> participants = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            participants.add("player" + (i + 1));
+        }
+
+        TournamentRunner runner = new TournamentRunner(host, port, format, participants,
+                connections, Duration.ofSeconds(matchTimeoutSeconds));
+        runner.setStrategies(strategies);
+        runner.setFootprintSamples(footprintSamples);
+        if (strategies.size() > 1) {
+            StringBuilder sb = new StringBuilder("Strategies:");
+            for (int i = 0; i < participants.size(); i++) {
+                sb.append(System.lineSeparator()).append("  ").append(participants.get(i))
+                        .append(' ').append(runner.getStrategy(i));
+            }
+            System.out.println(sb);
+        }
+        MatchHistory history = historyFile != null ? MatchHistory.open(historyFile) : null;
+        runner.setHistory(history);
+        runner.setOnStandings(rows -> {
+            StringBuilder sb = new StringBuilder("Standings:");
+            for (int i = 0; i < rows.size() && i < 5; i++) {
+                sb.append(System.lineSeparator()).append("  ").append(rows.get(i));
+            }
+            System.out.println(sb);
+        });
+        try {
+            System.out.println(runner.run());
+            if (history != null) {
+                System.out.println("History: " + history.size() + " records");
+                for (String participant : participants) {
+                    System.out.println("  vs " + participant + ": " + history.statsAgainst(participant));
+                }
+            }
+        } finally {
+            if (history != null) {
+                history.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.rps.tournament;
+
+import java.util.List;
+
+/**
+ * Final result of a tournament run: standings plus throughput and latency figures.
+ */
+public final class TournamentReport {
+
+    private final List<Standings.Row> standings;
+    private final int matchesPlayed;
+    private final int matchesVoided;
+    private final long elapsedNanos;
+    private final long rounds;
+    private final long p50RoundMillis;
+    private final long p99RoundMillis;
+    private final long sessionFootprintBytes;
+
+    TournamentReport(List<Standings.Row> standings, int matchesPlayed, int matchesVoided, long elapsedNanos,
+                     long rounds, long p50RoundMillis, long p99RoundMillis, long sessionFootprintBytes) {
+        this.standings = standings;
+        this.matchesPlayed = matchesPlayed;
+        this.matchesVoided = matchesVoided;
+        this.elapsedNanos = elapsedNanos;
+        this.rounds = rounds;
+        this.p50RoundMillis = p50RoundMillis;
+        this.p99RoundMillis = p99RoundMillis;
+        this.sessionFootprintBytes = sessionFootprintBytes;
+    }
+
+    public List<Standings.Row> getStandings() {
+        return standings;
+    }
+
+    public int getMatchesPlayed() {
+        return matchesPlayed;
+    }
+
+    /**
+     * Returns completed matches per second of wall-clock time.
+     *
+     * @return throughput, 0 if nothing was played.
+     */
+    public double getMatchesPerSecond() {
+        return elapsedNanos > 0 ? matchesPlayed / (elapsedNanos / 1_000_000_000.0) : 0.0;
+    }
+
+    /**
+     * Returns 99th percentile of time between R_ST and R_RE as seen by bots.
+     *
+     * @return latency in milliseconds.
+     */
+    public long getP99RoundMillis() {
+        return p99RoundMillis;
+    }
+
+    /**
+     * Returns heap retained by one idle session, measured before the bots connected.
+     *
+     * @return bytes per session, -1 if not measured.
+     */
+    public long getSessionFootprintBytes() {
+        return sessionFootprintBytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Matches: %d played, %d void in %.1f s (%.2f matches/s)%n",
+                matchesPlayed, matchesVoided, elapsedNanos / 1_000_000_000.0, getMatchesPerSecond()));
+        sb.append(String.format("Rounds: %d, latency p50 %d ms, p99 %d ms%n", rounds, p50RoundMillis, p99RoundMillis));
+        if (sessionFootprintBytes >= 0) {
+            sb.append(String.format("Session footprint: %d B%n", sessionFootprintBytes));
+        }
+        for (Standings.Row row : standings) {
+            sb.append("  ").append(row).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,290 @@
+package com.rps.tournament;
+
+import com.rps.ClientSession;
+import com.rps.ClientSessionHost;
+import com.rps.bot.BotStrategies;
+import com.rps.history.MatchHistory;
+import com.rps.network.ClientRuntime;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Headless tournament engine that plays a bracket of bots against a live server.
+ * <p>
+ * Responsibilities:
+ * <ul>
+ *     <li>Keep a pool of authenticated bot connections.</li>
+ *     <li>Run as many matches concurrently as the pool and room limit allow.</li>
+ *     <li>Publish standings after every match and report throughput and round latency.</li>
+ * </ul>
+ * Participants are logical entrants; connections are leased from the pool per match, so a
+ * participant may play consecutive matches on different sockets. The strategy belongs to the
+ * participant and is handed to whichever bot plays for it.
+ */
+public final class TournamentRunner {
+    private static final Logger LOG = Logger.getLogger(TournamentRunner.class.getName());
+
+    /** Rooms the server can host at once (server MAX_ROOMS). */
+    public static final int SERVER_MAX_ROOMS = 32;
+
+    /** Connections the server accepts at once (server MAX_CLIENTS). */
+    public static final int SERVER_MAX_CLIENTS = 64;
+
+    /** Bracket formats supported by the runner. */
+    public enum Format {
+        ROUND_ROBIN,
+        ELIMINATION
+    }
+
+    private final String host;
+    private final int port;
+    private final Format format;
+    private final List<String> participants;
+    private final int connections;
+    private final Duration matchTimeout;
+    private final LatencyHistogram roundLatency = new LatencyHistogram();
+    private final BlockingQueue<Finished> finished = new LinkedBlockingQueue<>();
+
+    private Consumer<List<Standings.Row>> onStandings;
+    private List<String> strategies = List.of("random");
+    private MatchHistory history;
+    private int botCounter;
+    private int strategySeed;
+    private int footprintSamples;
+
+    /**
+     * Creates a runner.
+     *
+     * @param host         server host.
+     * @param port         server port.
+     * @param format       bracket format.
+     * @param participants participant names in seed order.
+     * @param connections  size of the bot connection pool; two connections per concurrent match.
+     * @param matchTimeout time after which an unfinished match is declared void.
+     */
+    public TournamentRunner(String host, int port, Format format, List<String> participants,
+                            int connections, Duration matchTimeout) {
+        this.host = Objects.requireNonNull(host, "host");
+        this.port = port;
+        this.format = Objects.requireNonNull(format, "format");
+        this.participants = List.copyOf(participants);
+        this.connections = Math.max(2, Math.min(connections, SERVER_MAX_CLIENTS));
+        this.matchTimeout = Objects.requireNonNull(matchTimeout, "matchTimeout");
+    }
+
+    /**
+     * Registers listener that receives standings after every finished match.
+     *
+     * @param listener consumer of ordered table rows; called on the runner thread.
+     */
+    public void setOnStandings(Consumer<List<Standings.Row>> listener) {
+        this.onStandings = listener;
+    }
+
+    /**
+     * Sets strategies of participants. Participants take the specs in seed order, so with several
+     * specs participant {@code i} always plays {@code specs.get(i % specs.size())}.
+     *
+     * @param specs non-empty list of {@link BotStrategies#create(String, long)} specs.
+     * @throws IllegalArgumentException if the list is empty or a spec is invalid.
+     */
+    public void setStrategies(List<String> specs) {
+        if (specs.isEmpty()) {
+            throw new IllegalArgumentException("No strategies given");
+        }
+        for (String spec : specs) {
+            BotStrategies.create(spec, 0);
+        }
+        this.strategies = List.copyOf(specs);
+    }
+
+    /**
+     * Returns the strategy a participant plays.
+     *
+     * @param participant participant index in seed order.
+     * @return strategy spec.
+     */
+    public String getStrategy(int participant) {
+        return strategies.get(participant % strategies.size());
+    }
+
+    /**
+     * Records every round played by the bots; opponents are stored by participant name.
+     *
+     * @param history shared history store, or null to disable recording.
+     */
+    public void setHistory(MatchHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Measures heap retained per idle session before the bots connect, warning when it exceeds
+     * {@link ClientSessionHost#DEFAULT_SESSION_BUDGET_BYTES}.
+     *
+     * @param samples sessions created for the measurement, 0 to skip it.
+     */
+    public void setFootprintSamples(int samples) {
+        this.footprintSamples = Math.max(0, samples);
+    }
+
+    /**
+     * Plays the whole tournament. Blocks until the bracket is finished.
+     *
+     * @return summary with final standings, throughput and latency.
+     * @throws InterruptedException if the calling thread is interrupted.
+     */
+    public TournamentReport run() throws InterruptedException {
+        Bracket bracket = format == Format.ROUND_ROBIN
+                ? new RoundRobinBracket(participants.size())
+                : new EliminationBracket(participants.size());
+        Standings standings = new Standings(participants);
+        int maxConcurrent = Math.min(connections / 2, SERVER_MAX_ROOMS);
+
+        ClientRuntime runtime = new ClientRuntime();
+        try (ClientSessionHost sessions = new ClientSessionHost(runtime, connections)) {
+            long footprint = footprintSamples > 0 ? sessions.measureSessionFootprint(footprintSamples) : -1;
+            Deque<BotPlayer> idle = new ArrayDeque<>();
+            for (int i = 0; i < connections; i++) {
+                BotPlayer bot = connectBot(sessions);
+                if (bot != null) {
+                    idle.add(bot);
+                }
+            }
+            if (idle.size() < 2) {
+                throw new IllegalStateException("Could not connect enough bots to " + host + ":" + port);
+            }
+
+            long startedAt = System.nanoTime();
+            Deque<Bracket.Pairing> pending = new ArrayDeque<>();
+            int running = 0;
+            int played = 0;
+            int voided = 0;
+            int matchId = 0;
+            while (true) {
+                if (pending.isEmpty()) {
+                    pending.addAll(bracket.nextPairings());
+                }
+                while (!pending.isEmpty() && running < maxConcurrent && idle.size() >= 2) {
+                    Bracket.Pairing pairing = pending.poll();
+                    startMatch(++matchId, pairing, idle.poll(), idle.poll());
+                    running++;
+                }
+                if (running == 0) {
+                    if (pending.isEmpty() && bracket.isFinished()) {
+                        break;
+                    }
+                    throw new IllegalStateException(pending.isEmpty() ? "Bracket stalled" : "Bot pool exhausted");
+                }
+
+                Finished done = finished.take();
+                running--;
+                if (done.outcome == Bracket.Outcome.VOID) {
+                    voided++;
+                    replace(sessions, done.home, idle);
+                    replace(sessions, done.away, idle);
+                } else {
+                    played++;
+                    idle.add(done.home);
+                    idle.add(done.away);
+                }
+                bracket.onResult(done.pairing, done.outcome);
+                standings.record(done.pairing, done.outcome);
+                Consumer<List<Standings.Row>> listener = onStandings;
+                if (listener != null) {
+                    listener.accept(standings.snapshot());
+                }
+            }
+            long elapsed = System.nanoTime() - startedAt;
+            return new TournamentReport(standings.snapshot(), played, voided, elapsed,
+                    roundLatency.count(), roundLatency.percentileMillis(50), roundLatency.percentileMillis(99),
+                    footprint);
+        } finally {
+            runtime.shutdown();
+        }
+    }
+
+    private void startMatch(int matchId, Bracket.Pairing pairing, BotPlayer home, BotPlayer away) {
+        // A participant may be in two running matches, so each lease gets its own instance.
+        home.setStrategy(BotStrategies.create(getStrategy(pairing.home), strategySeed++));
+        away.setStrategy(BotStrategies.create(getStrategy(pairing.away), strategySeed++));
+        CompletableFuture<String> match = home.createRoom("t" + matchId)
+                .thenCompose(roomId -> home.joinRoom(roomId).thenCompose(joined -> away.joinRoom(roomId)))
+                .thenCompose(joined -> {
+                    CompletableFuture<String> homeGame = home.readyAndPlay(participants.get(pairing.away));
+                    CompletableFuture<String> awayGame = away.readyAndPlay(participants.get(pairing.home));
+                    return homeGame.thenCombine(awayGame, (winner, ignored) -> winner);
+                })
+                .orTimeout(matchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+        match.whenComplete((winner, error) -> {
+            Bracket.Outcome outcome;
+            if (error != null) {
+                if (error instanceof TimeoutException || error.getCause() instanceof TimeoutException) {
+                    home.abort(error);
+                    away.abort(error);
+                }
+                LOG.log(Level.WARNING, "Match " + matchId + " (" + pairing + ") void", error);
+                outcome = Bracket.Outcome.VOID;
+            } else if (home.getNickname().equals(winner)) {
+                outcome = Bracket.Outcome.HOME_WIN;
+            } else if (away.getNickname().equals(winner)) {
+                outcome = Bracket.Outcome.AWAY_WIN;
+            } else {
+                outcome = Bracket.Outcome.DRAW;
+            }
+            finished.add(new Finished(pairing, outcome, home, away));
+        });
+    }
+
+    private BotPlayer connectBot(ClientSessionHost sessions) {
+        ClientSession session = sessions.open();
+        int index = botCounter++;
+        String nickname = "bot" + ProcessHandle.current().pid() % 10_000 + "_" + index;
+        BotPlayer bot = new BotPlayer(session, nickname, roundLatency);
+        if (history != null) {
+            bot.recordTo(history);
+        }
+        try {
+            bot.connect(host, port).get(matchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return bot;
+        } catch (Exception ex) {
+            LOG.log(Level.WARNING, "Bot " + nickname + " failed to connect", ex);
+            sessions.release(session);
+            return null;
+        }
+    }
+
+    private void replace(ClientSessionHost sessions, BotPlayer bot, Deque<BotPlayer> idle) {
+        sessions.release(bot.getSession());
+        BotPlayer fresh = connectBot(sessions);
+        if (fresh != null) {
+            idle.add(fresh);
+        }
+    }
+
+    private static final class Finished {
+        private final Bracket.Pairing pairing;
+        private final Bracket.Outcome outcome;
+        private final BotPlayer home;
+        private final BotPlayer away;
+
+        private Finished(Bracket.Pairing pairing, Bracket.Outcome outcome, BotPlayer home, BotPlayer away) {
+            this.pairing = pairing;
+            this.outcome = outcome;
+            this.home = home;
+            this.away = away;
+        }
+    }
+}